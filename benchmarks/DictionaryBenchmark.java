@@ -0,0 +1,170 @@
+import me.vanturestudio.vantureapi.classes.arrays.Dictionary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares put, get and remove on {@link Dictionary} with the layout it replaced: an array of
+ * {@link ArrayList} buckets holding one entry object per pair, indexed by {@code Math.abs(hashCode % length)}.
+ * That layout is copied below as {@link ChainedDictionary}. Each line reports nanoseconds per operation
+ * over {@value #SIZE} {@link Integer} keys.
+ */
+public class DictionaryBenchmark {
+
+	private static final int SIZE = 1_000_000;
+
+	public static void main(String[] args) {
+		Integer[] keys = new Integer[SIZE];
+		for (int i = 0; i < SIZE; i++) keys[i] = i * 31;
+
+		System.out.printf("%d Integer keys, ns per operation%n", SIZE);
+		compare("put", keys, false, (table, ks) -> {
+			for (Integer k : ks) table.put(k, k);
+		});
+		compare("get", keys, true, (table, ks) -> {
+			long sum = 0;
+			for (Integer k : ks) sum += table.get(k);
+			Harness.consume(sum);
+		});
+		compare("remove", keys, true, (table, ks) -> {
+			for (Integer k : ks) table.remove(k);
+		});
+	}
+
+	/**
+	 * Times {@code phase} on a fresh table of each layout, holding every key first if {@code filled} is set.
+	 */
+	private static void compare(String name, Integer[] keys, boolean filled, Phase phase) {
+		double openAddressing = Harness.medianMillis(() -> fill(new OpenAddressing(), filled ? keys : null), table -> {
+			phase.run(table, keys);
+			return table.size();
+		});
+		double chained = Harness.medianMillis(() -> fill(new ChainedDictionary(), filled ? keys : null), table -> {
+			phase.run(table, keys);
+			return table.size();
+		});
+		double perOperation = 1e6 / keys.length;
+		System.out.printf("%-7s open addressing %6.1f ns, chained %6.1f ns, speedup %.2fx%n", name, openAddressing * perOperation, chained * perOperation, chained / openAddressing);
+	}
+
+	private static Table fill(Table table, Integer[] keys) {
+		if (keys != null) for (Integer k : keys) table.put(k, k);
+		return table;
+	}
+
+	@FunctionalInterface
+	private interface Phase {
+		void run(Table table, Integer[] keys);
+	}
+
+	private interface Table {
+		void put(Integer k, Integer v);
+
+		Integer get(Integer k);
+
+		void remove(Integer k);
+
+		int size();
+	}
+
+	private static final class OpenAddressing implements Table {
+		private final Dictionary<Integer, Integer> dictionary = new Dictionary<>();
+
+		@Override
+		public void put(Integer k, Integer v) {
+			dictionary.put(k, v);
+		}
+
+		@Override
+		public Integer get(Integer k) {
+			return dictionary.get(k);
+		}
+
+		@Override
+		public void remove(Integer k) {
+			dictionary.remove(k);
+		}
+
+		@Override
+		public int size() {
+			return dictionary.size();
+		}
+	}
+
+	// The bucket layout Dictionary used before the open-addressing table, reduced to these operations
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static final class ChainedDictionary implements Table {
+		private static final int DEFAULT_CAPACITY = 16;
+		private static final double LOAD_FACTOR = 0.8;
+
+		private ArrayList[] buckets = new ArrayList[DEFAULT_CAPACITY];
+		private int size;
+
+		private ChainedDictionary() {
+			for (int i = 0; i < buckets.length; i++) buckets[i] = new ArrayList<>();
+		}
+
+		private static final class Entry<K, V> {
+			K key;
+			V value;
+
+			Entry(K k, V v) {
+				this.key = k;
+				this.value = v;
+			}
+		}
+
+		@Override
+		public void put(Integer k, Integer v) {
+			List<Entry<Integer, Integer>> bucket = buckets[getBucketIndex(k)];
+			for (Entry<Integer, Integer> entry : bucket) {
+				if (entry.key.equals(k)) {
+					entry.value = v;
+					return;
+				}
+			}
+			bucket.add(new Entry<>(k, v));
+			size++;
+			if ((double) size / buckets.length > LOAD_FACTOR) resize();
+		}
+
+		@Override
+		public Integer get(Integer k) {
+			List<Entry<Integer, Integer>> bucket = buckets[getBucketIndex(k)];
+			for (Entry<Integer, Integer> entry : bucket) {
+				if (entry.key.equals(k)) return entry.value;
+			}
+			return null;
+		}
+
+		@Override
+		public void remove(Integer k) {
+			List<Entry<Integer, Integer>> bucket = buckets[getBucketIndex(k)];
+			for (Entry<Integer, Integer> entry : bucket) {
+				if (entry.key.equals(k)) {
+					bucket.remove(entry);
+					size--;
+					return;
+				}
+			}
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		private int getBucketIndex(Object k) {
+			return Math.abs(k.hashCode() % buckets.length);
+		}
+
+		private void resize() {
+			List<Entry<Integer, Integer>>[] oldBuckets = buckets;
+			buckets = new ArrayList[oldBuckets.length * 2];
+			for (int i = 0; i < buckets.length; i++) buckets[i] = new ArrayList<>();
+			for (List<Entry<Integer, Integer>> bucket : oldBuckets) {
+				for (Entry<Integer, Integer> entry : bucket) buckets[getBucketIndex(entry.key)].add(entry);
+			}
+		}
+	}
+}
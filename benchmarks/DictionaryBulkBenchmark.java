@@ -0,0 +1,45 @@
+import me.vanturestudio.vantureapi.classes.arrays.Dictionary;
+
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Compares {@link Dictionary#forEach(long, java.util.function.BiConsumer)},
+ * {@link Dictionary#reduceValues(long, java.util.function.Function, java.util.function.BiFunction)} and
+ * {@link Dictionary#search(long, java.util.function.BiFunction)} with a threshold that always splits
+ * against one that never does, over {@value #SIZE} entries. See {@link Harness} for running it per pool size.
+ */
+public class DictionaryBulkBenchmark {
+
+	private static final int SIZE = 1_000_000;
+	private static final long PARALLEL = 1;
+	private static final long SEQUENTIAL = Long.MAX_VALUE;
+
+	public static void main(String[] args) {
+		Dictionary<Integer, Long> dictionary = new Dictionary<>(SIZE);
+		for (int i = 0; i < SIZE; i++) dictionary.put(i, (long) i);
+
+		System.out.printf("%d entries, %s%n", SIZE, Harness.parallelism());
+		compare("forEach", threshold -> {
+			DoubleAdder sum = new DoubleAdder();
+			dictionary.forEach(threshold, (k, v) -> sum.add(Harness.work(v)));
+			return (long) sum.sum();
+		});
+		compare("reduceValues", threshold -> dictionary.reduceValues(threshold, v -> (long) Harness.work(v), Long::sum));
+		// Nothing matches, so search visits every entry in both modes instead of stopping wherever the split lands first
+		compare("search", threshold -> {
+			Integer found = dictionary.search(threshold, (k, v) -> Harness.work(v) < 0 ? k : null);
+			return found == null ? -1 : found;
+		});
+	}
+
+	private static void compare(String name, Operation operation) {
+		double sequential = Harness.medianMillis(() -> operation.run(SEQUENTIAL));
+		double parallel = Harness.medianMillis(() -> operation.run(PARALLEL));
+		System.out.printf("%-13s sequential %8.1f ms, parallel %8.1f ms, speedup %.2fx%n", name, sequential, parallel, sequential / parallel);
+	}
+
+	@FunctionalInterface
+	private interface Operation {
+		long run(long threshold);
+	}
+}
@@ -0,0 +1,71 @@
+import me.vanturestudio.vantureapi.classes.arrays.Dictionary;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Regression check for the compute family of {@link Dictionary} when the user function removes
+ * another key. The keys share a home slot, so the removal shifts the probe run back and opens a gap
+ * in front of the free slot found before the function ran; the computed key must still be found
+ * afterwards. Exits with a non-zero status if any case fails.
+ */
+public class DictionaryComputeCheck {
+
+	private static int failures;
+
+	public static void main(String[] args) {
+		check("computeIfAbsent", (d, k) -> d.computeIfAbsent(k, key -> {
+			d.remove(Colliding.A);
+			return "k";
+		}));
+		check("compute", (d, k) -> d.compute(k, (key, v) -> {
+			d.remove(Colliding.A);
+			return "k";
+		}));
+		check("asMap().computeIfAbsent", (d, k) -> d.asMap().computeIfAbsent(k, key -> {
+			d.remove(Colliding.A);
+			return "k";
+		}));
+		check("asMap().compute", (d, k) -> d.asMap().compute(k, (key, v) -> {
+			d.remove(Colliding.A);
+			return "k";
+		}));
+		check("merge of a present key", (d, k) -> {
+			d.remove(k);
+			d.put(k, "old");
+			d.merge(k, "k", (old, v) -> {
+				d.remove(Colliding.A);
+				return v;
+			});
+		});
+		if (failures > 0) System.exit(1);
+		System.out.println("ok");
+	}
+
+	private static void check(String name, BiConsumer<Dictionary<Colliding, String>, Colliding> operation) {
+		Dictionary<Colliding, String> dictionary = new Dictionary<>(16);
+		dictionary.put(Colliding.A, "a");
+		dictionary.put(Colliding.B, "b");
+		operation.accept(dictionary, Colliding.K);
+		if (dictionary.size() != 2 || !"k".equals(dictionary.get(Colliding.K)) || !"b".equals(dictionary.get(Colliding.B)) || dictionary.containsKey(Colliding.A)) {
+			System.err.printf("%s: expected {B=b, K=k}, found size %d, get(K) = %s, get(B) = %s%n", name, dictionary.size(), dictionary.get(Colliding.K), dictionary.get(Colliding.B));
+			failures++;
+		}
+	}
+
+	// Equal hash codes give every key the same home slot
+	private record Colliding(String name) {
+		static final Colliding A = new Colliding("A");
+		static final Colliding B = new Colliding("B");
+		static final Colliding K = new Colliding("K");
+
+		@Override
+		public int hashCode() {
+			return 7;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+import me.vanturestudio.vantureapi.classes.arrays.Dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Compares the latency of single puts while a {@link Dictionary} grows to {@value #SIZE} entries,
+ * with blocking resizes and with {@link Dictionary#incrementalResize(boolean) incremental} ones.
+ * Every put is timed on its own; each line reports the median of every percentile over the timed rounds.
+ * The maximum includes garbage collection, so run it with a heap fixed well above the table, e.g. {@code -Xms3g -Xmx3g}.
+ */
+public class DictionaryResizeLatencyBenchmark {
+
+	private static final int SIZE = 2_000_000;
+	private static final double[] PERCENTILES = {0.5, 0.99, 0.999, 0.9999, 1};
+	private static final String[] LABELS = {"p50", "p99", "p99.9", "p99.99", "max"};
+
+	public static void main(String[] args) {
+		Integer[] keys = new Integer[SIZE];
+		for (int i = 0; i < SIZE; i++) keys[i] = i * 7;
+		long[] latencies = new long[SIZE];
+
+		System.out.printf("%d puts into an empty dictionary, ns per put%n", SIZE);
+		report("blocking", keys, latencies, false);
+		report("incremental", keys, latencies, true);
+	}
+
+	private static void report(String name, Integer[] keys, long[] latencies, boolean incremental) {
+		for (int i = 0; i < Harness.WARMUP; i++) record(keys, latencies, incremental);
+		double[][] rounds = new double[PERCENTILES.length][Harness.ROUNDS];
+		for (int round = 0; round < Harness.ROUNDS; round++) {
+			record(keys, latencies, incremental);
+			Arrays.sort(latencies);
+			for (int p = 0; p < PERCENTILES.length; p++) {
+				rounds[p][round] = latencies[(int) Math.min(latencies.length - 1, (long) (PERCENTILES[p] * latencies.length))];
+			}
+		}
+		StringBuilder line = new StringBuilder(String.format("%-12s", name));
+		for (int p = 0; p < PERCENTILES.length; p++) {
+			line.append(String.format(" %s %,10.0f", LABELS[p], Harness.median(rounds[p])));
+		}
+		System.out.println(line);
+	}
+
+	private static void record(Integer[] keys, long[] latencies, boolean incremental) {
+		Dictionary<Integer, Integer> dictionary = new Dictionary<Integer, Integer>().incrementalResize(incremental);
+		for (int i = 0; i < keys.length; i++) {
+			Integer k = keys[i];
+			long start = System.nanoTime();
+			dictionary.put(k, k);
+			latencies[i] = System.nanoTime() - start;
+		}
+		Harness.consume(dictionary.size());
+	}
+}
@@ -0,0 +1,31 @@
+import me.vanturestudio.vantureapi.classes.arrays.Enumerator;
+
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compares a filter and map over {@value #SIZE} values through {@link Enumerator#stream()} and
+ * {@link Enumerator#parallelStream()}, and through a {@code list()} copy as streams were made before
+ * the native spliterator. Speedups are over the native sequential stream. See {@link Harness} for running it per pool size.
+ */
+public class EnumeratorStreamBenchmark {
+
+	private static final int SIZE = 1_000_000;
+
+	public static void main(String[] args) {
+		Enumerator<Integer> enumerator = new Enumerator<>();
+		for (int i = 0; i < SIZE; i++) enumerator.add(i);
+
+		System.out.printf("%d values, %s%n", SIZE, Harness.parallelism());
+		double sequential = Harness.medianMillis(() -> pipeline(enumerator.stream()));
+		double parallel = Harness.medianMillis(() -> pipeline(enumerator.parallelStream()));
+		double copySequential = Harness.medianMillis(() -> pipeline(StreamSupport.stream(enumerator.list().spliterator(), false)));
+		double copyParallel = Harness.medianMillis(() -> pipeline(StreamSupport.stream(enumerator.list().spliterator(), true)));
+		System.out.printf("native  sequential %8.1f ms, parallel %8.1f ms, speedup %.2fx%n", sequential, parallel, sequential / parallel);
+		System.out.printf("copy    sequential %8.1f ms, parallel %8.1f ms, speedup %.2fx%n", copySequential, copyParallel, sequential / copyParallel);
+	}
+
+	private static long pipeline(Stream<Integer> values) {
+		return values.filter(v -> (v & 3) != 0).mapToLong(v -> (long) Harness.work(v)).sum();
+	}
+}
@@ -0,0 +1,84 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Timing helpers shared by the benchmarks in this directory. The benchmarks are plain programs that
+ * need nothing beyond the plugin jar and the Spigot API, so compile them together and run one by name:
+ * <pre>
+ * javac -cp "$CLASSPATH" -d target/benchmarks benchmarks/*.java
+ * java -cp "target/benchmarks:$CLASSPATH" DictionaryBenchmark
+ * </pre>
+ * Every measurement is the median of {@link #ROUNDS} timed runs after {@link #WARMUP} untimed ones.
+ * <p>
+ * Parallel operations run in the common pool, so benchmarks comparing them with sequential ones
+ * show scaling by being run once per pool size, on a machine with at least that many cores:
+ * <pre>
+ * for p in 1 2 4 8; do
+ *     java -Djava.util.concurrent.ForkJoinPool.common.parallelism=$p -cp "target/benchmarks:$CLASSPATH" DictionaryBulkBenchmark
+ * done
+ * </pre>
+ */
+final class Harness {
+
+	static final int WARMUP = 5;
+	static final int ROUNDS = 9;
+
+	// Results of every run are folded in here, so the JIT cannot drop the work that produced them
+	private static long sink;
+
+	private Harness() {
+	}
+
+	/**
+	 * Returns the median time of {@code run} in milliseconds.
+	 */
+	static double medianMillis(LongSupplier run) {
+		return medianMillis(() -> null, ignored -> run.getAsLong());
+	}
+
+	/**
+	 * Returns the median time of {@code run} in milliseconds, preparing its input with {@code setup}
+	 * outside the timed region before every run.
+	 */
+	static <T> double medianMillis(Supplier<T> setup, ToLongFunction<T> run) {
+		for (int i = 0; i < WARMUP; i++) sink += run.applyAsLong(setup.get());
+		double[] millis = new double[ROUNDS];
+		for (int i = 0; i < ROUNDS; i++) {
+			T input = setup.get();
+			long start = System.nanoTime();
+			sink += run.applyAsLong(input);
+			millis[i] = (System.nanoTime() - start) / 1e6;
+		}
+		return median(millis);
+	}
+
+	static double median(double[] samples) {
+		double[] sorted = samples.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+
+	static void consume(long value) {
+		sink += value;
+	}
+
+	/**
+	 * Describes the common pool and the machine, for the first line of a parallel benchmark.
+	 */
+	static String parallelism() {
+		return String.format("parallelism %d, %d processors", ForkJoinPool.getCommonPoolParallelism(), Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Stands in for the per-element work of a parallel operation: enough arithmetic that splitting
+	 * and combining do not dominate, and none of it shared between threads.
+	 */
+	static double work(long v) {
+		double x = v;
+		for (int i = 0; i < 40; i++) x = Math.sqrt(x + i);
+		return x;
+	}
+}
@@ -1,7 +1,12 @@
 package me.vanturestudio.vantureapi;
 
 import me.vanturestudio.vantureapi.chat.PlayerChatEvent;
+import me.vanturestudio.vantureapi.classes.arrays.Dictionary;
+import me.vanturestudio.vantureapi.classes.arrays.EnumDictionary;
+import me.vanturestudio.vantureapi.classes.arrays.Enumerator;
+import me.vanturestudio.vantureapi.classes.arrays.OrderedDictionary;
 import me.vanturestudio.vantureapi.gui.GUI;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
 import org.bukkit.plugin.java.JavaPlugin;
 
 public final class VantureAPI extends JavaPlugin {
@@ -9,6 +14,10 @@ public final class VantureAPI extends JavaPlugin {
     @Override
     public void onEnable() {
         // Plugin startup logic
+        ConfigurationSerialization.registerClass(Dictionary.class);
+        ConfigurationSerialization.registerClass(OrderedDictionary.class);
+        ConfigurationSerialization.registerClass(EnumDictionary.class);
+        ConfigurationSerialization.registerClass(Enumerator.class);
         getServer().getPluginManager().registerEvents(new GUI(), this);
         getServer().getPluginManager().registerEvents(new PlayerChatEvent(this), this);
 
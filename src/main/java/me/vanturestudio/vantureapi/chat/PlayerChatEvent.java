@@ -1,5 +1,6 @@
 package me.vanturestudio.vantureapi.chat;
 
+import me.vanturestudio.vantureapi.classes.arrays.ConcurrentDictionary;
 import me.vanturestudio.vantureapi.classes.arrays.Dictionary;
 import net.md_5.bungee.api.chat.ClickEvent;
 import net.md_5.bungee.api.chat.HoverEvent;
@@ -8,6 +9,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.UUID;
@@ -20,7 +22,8 @@ public class PlayerChatEvent implements Listener {
 		this.PLUGIN = plugin;
 	}
 
-	public static Dictionary<Player, PlayerChat> LOGGED_CHATS = new Dictionary<>();
+	// Mutated from async chat threads, so it has to be a concurrent dictionary; declared as Dictionary to keep the field's type
+	public static final Dictionary<Player, PlayerChat> LOGGED_CHATS = new ConcurrentDictionary<>();
 
 	@EventHandler
 	public void onChat(AsyncPlayerChatEvent event) {
@@ -35,7 +38,7 @@ public class PlayerChatEvent implements Listener {
 			if (receiveMessageEvent.isCancelled()) continue;
 
 			if (recipient == player) {
-				PlayerChat chat = LOGGED_CHATS.getOrDefaultAndPut(player, new PlayerChat(PLUGIN, player));
+				PlayerChat chat = LOGGED_CHATS.computeIfAbsent(player, p -> new PlayerChat(PLUGIN, p));
 
 				event.setCancelled(true);
 
@@ -44,10 +47,16 @@ public class PlayerChatEvent implements Listener {
 				text.setClickEvent(new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, "/e " + UUID.randomUUID() + " " + msg));
 				chat.println(UUID.randomUUID(), text);
 			}else {
-				PlayerChat chat = LOGGED_CHATS.getOrDefaultAndPut(recipient, new PlayerChat(PLUGIN, recipient));
+				PlayerChat chat = LOGGED_CHATS.computeIfAbsent(recipient, p -> new PlayerChat(PLUGIN, p));
 				chat.println(new Message(UUID.randomUUID(), msg, player));
 			}
 		}
 
 	}
+
+	// A PlayerChat references its player, so entries have to be dropped explicitly rather than by weak keys
+	@EventHandler
+	public void onQuit(PlayerQuitEvent event) {
+		LOGGED_CHATS.remove(event.getPlayer());
+	}
 }
@@ -0,0 +1,447 @@
+package me.vanturestudio.vantureapi.classes.arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A {@link Dictionary} that also indexes its keys by value, so every key mapped to a value is
+ * found with one lookup instead of a scan: {@link #keysOf(Object)}, {@link #containsValue(Object)}
+ * and {@link #removeValue(Object)} cost O(1) plus the number of matching keys.
+ * <p>
+ * Both directions are updated by every write, cursors included. Values are indexed by
+ * {@code equals}, so they cannot be {@code null}: storing {@code null} directly throws, and a
+ * {@code null} result of a remapping function removes the entry, as in {@link Map#compute}.
+ * <p>
+ * {@link #weakKeys()} creates one whose keys are held weakly and compared by identity, like a
+ * {@link WeakDictionary}. A collected key then disappears from both directions.
+ *
+ * @param <K> the type of keys maintained by this dictionary
+ * @param <V> the type of mapped values
+ */
+public class BiDictionary<K, V> extends Dictionary<K, V> {
+
+	private final Dictionary<K, V> forward;
+	private final Dictionary<V, Dictionary<K, Boolean>> reverse = new Dictionary<>();
+	private final boolean weakKeys;
+
+	/**
+	 Constructs an empty bidirectional dictionary with the default initial capacity.
+	 */
+	public BiDictionary(){
+		this(new Dictionary<>(), false);
+	}
+
+	/**
+	 Constructs an empty bidirectional dictionary with an initial capacity of {@code CAPACITY},
+	 rounded up to the next power of two.
+	 */
+	public BiDictionary(final int CAPACITY){
+		this(new Dictionary<>(CAPACITY), false);
+	}
+
+	private BiDictionary(Dictionary<K, V> forward, boolean weakKeys){
+		this.forward = forward;
+		this.weakKeys = weakKeys;
+	}
+
+	/**
+	 Constructs an empty bidirectional dictionary that holds its keys weakly and compares them
+	 by identity, for keys such as {@code Inventory}s that should not be kept alive by the index.
+
+	 @return a new bidirectional dictionary with weak keys
+	 */
+	public static <K, V> @NotNull BiDictionary<K, V> weakKeys(){
+		WeakDictionary<K, V> forward = new WeakDictionary<>();
+		BiDictionary<K, V> dictionary = new BiDictionary<>(forward, true);
+		forward.onEviction(dictionary::evicted);
+		return dictionary;
+	}
+
+	@Override
+	public boolean put(K k, V v){
+		if(k == null) throw new NullPointerException("BiDictionary.put(K k, V v) -> 'k' cannot be null");
+		if(v == null) throw new NullPointerException("BiDictionary.put(K k, V v) -> 'v' cannot be null");
+		set(k, v);
+		return true;
+	}
+
+	@Override
+	public Dictionary<K, V> putAll(@NotNull Map<? extends K, ? extends V> map){
+		map.forEach(this::put);
+		return this;
+	}
+
+	@Override
+	public V get(K k){
+		return forward.get(k);
+	}
+
+	@Override
+	public V getOrDefaultAndPut(K k, V dv){
+		V value = forward.get(k);
+		if(value != null) return value;
+		put(k, dv);
+		return dv;
+	}
+
+	@Override
+	public V computeIfAbsent(K k, @NotNull Function<? super K, ? extends V> mappingFunction){
+		V value = forward.get(k);
+		if(value != null) return value;
+		value = mappingFunction.apply(k);
+		if(value != null) set(k, value);
+		return value;
+	}
+
+	@Override
+	public V computeIfPresent(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+		V value = forward.get(k);
+		if(value == null) return null;
+		return remap(k, value, remappingFunction.apply(k, value));
+	}
+
+	@Override
+	public V compute(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+		V value = forward.get(k);
+		return remap(k, value, remappingFunction.apply(k, value));
+	}
+
+	@Override
+	public boolean containsKey(K k){
+		return forward.containsKey(k);
+	}
+
+	@Override
+	public Dictionary<K, V> replace(K k, V v){
+		if(v == null) throw new NullPointerException("BiDictionary.replace(K k, V v) -> 'v' cannot be null");
+		if(forward.containsKey(k)) set(k, v);
+		return this;
+	}
+
+	@Override
+	public boolean replace(K k, V ov, V nv){
+		if(nv == null) throw new NullPointerException("BiDictionary.replace(K k, V ov, V nv) -> 'nv' cannot be null");
+		V value = forward.get(k);
+		if(value == null || !value.equals(ov)) return false;
+		set(k, nv);
+		return true;
+	}
+
+	/**
+	 Merges a key with a new value using a remapping function if the key already exists,
+	 or adds the key-value pair if the key does not exist. A {@code null} result removes the key.
+
+	 @param k                 the key with which the specified value is to be associated
+	 @param v                 the value to be associated with the specified key
+	 @param remappingFunction function to merge the old value and new value if the key exists
+	 */
+	@Override
+	public Dictionary<K, V> merge(K k, V v, BiFunction<? super V, ? super V, ? extends V> remappingFunction){
+		if(k == null) throw new NullPointerException("BiDictionary.merge(K k, V v, BiFunction<V, V, V> remappingFunction) -> 'k' cannot be null");
+		V value = forward.get(k);
+		remap(k, value, value == null ? v : remappingFunction.apply(value, v));
+		return this;
+	}
+
+	/**
+	 Checks if at least one key is mapped to the specified value, with a single lookup.
+
+	 @param v the value whose presence in this dictionary is to be tested
+
+	 @return {@code true} if a key is mapped to the specified value, {@code false} otherwise
+	 */
+	@Override
+	public boolean containsValue(V v){
+		return bucket(v) != null;
+	}
+
+	@Override
+	public boolean remove(K k){
+		V value = forward.get(k);
+		if(!forward.remove(k)) return false;
+		unlink(k, value);
+		return true;
+	}
+
+	@Override
+	public Dictionary<K, V> clear(){
+		forward.clear();
+		reverse.clear();
+		return this;
+	}
+
+	@Override
+	public int size(){
+		return forward.size();
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return forward.isEmpty();
+	}
+
+	@Override
+	public int capacity(){
+		return forward.capacity();
+	}
+
+	@Override
+	public Dictionary<K, V> incrementalResize(boolean enabled){
+		forward.incrementalResize(enabled);
+		reverse.incrementalResize(enabled);
+		return this;
+	}
+
+	@Override
+	public boolean isIncrementalResize(){
+		return forward.isIncrementalResize();
+	}
+
+	@Override
+	public boolean isResizing(){
+		return forward.isResizing() || reverse.isResizing();
+	}
+
+	@Override
+	public Dictionary<K, V> autoShrink(boolean enabled){
+		forward.autoShrink(enabled);
+		reverse.autoShrink(enabled);
+		return this;
+	}
+
+	@Override
+	public boolean isAutoShrink(){
+		return forward.isAutoShrink();
+	}
+
+	/**
+	 Shrinks both directions to their current number of entries.
+	 */
+	@Override
+	public Dictionary<K, V> trimToSize(){
+		forward.trimToSize();
+		reverse.trimToSize();
+		return this;
+	}
+
+	/**
+	 Estimates the bytes held by both directions, including the key set of every value,
+	 excluding the keys and values themselves.
+	 */
+	@Override
+	public long estimatedRetainedBytes(){
+		long[] bytes = {forward.estimatedRetainedBytes() + reverse.estimatedRetainedBytes()};
+		reverse.forEach((v, keys) -> bytes[0] += keys.estimatedRetainedBytes());
+		return bytes[0];
+	}
+
+	/**
+	 Tracks snapshots of the keys and their values. A dictionary with weak keys cannot track them.
+
+	 @throws UnsupportedOperationException when enabling tracking on weak keys
+	 */
+	@Override
+	public Dictionary<K, V> trackSnapshots(boolean enabled){
+		forward.trackSnapshots(enabled);
+		return this;
+	}
+
+	@Override
+	public boolean isTrackingSnapshots(){
+		return forward.isTrackingSnapshots();
+	}
+
+	@Override
+	public PersistentDictionary<K, V> snapshot(){
+		return forward.snapshot();
+	}
+
+	/**
+	 Records the metrics of the key to value direction. A dictionary with weak keys has none.
+
+	 @throws UnsupportedOperationException when enabling recording on weak keys
+	 */
+	@Override
+	public Dictionary<K, V> recordMetrics(boolean enabled){
+		forward.recordMetrics(enabled);
+		return this;
+	}
+
+	@Override
+	public boolean isRecordingMetrics(){
+		return forward.isRecordingMetrics();
+	}
+
+	@Override
+	public Metrics metrics(){
+		return forward.metrics();
+	}
+
+	/**
+	 Protects both directions against hash flooding, since values are used as keys of the reverse index.
+	 */
+	@Override
+	public Dictionary<K, V> floodProtection(boolean enabled){
+		forward.floodProtection(enabled);
+		reverse.floodProtection(enabled);
+		return this;
+	}
+
+	@Override
+	public boolean isFloodProtected(){
+		return forward.isFloodProtected();
+	}
+
+	@Override
+	public Dictionary<K, V> forEach(BiConsumer<? super K, ? super V> action){
+		forward.forEach(action);
+		return this;
+	}
+
+	/**
+	 Returns the spliterator of the key to value direction, so bulk operations split its table.
+	 */
+	@Override
+	public Spliterator<Map.Entry<K, V>> spliterator(){
+		return forward.spliterator();
+	}
+
+	@Override
+	public Cursor<K, V> cursor(){
+		Cursor<K, V> cursor = forward.cursor();
+		return new Cursor<>(){
+			@Override
+			public boolean advance(){
+				return cursor.advance();
+			}
+
+			@Override
+			public K key(){
+				return cursor.key();
+			}
+
+			@Override
+			public V value(){
+				return cursor.value();
+			}
+
+			@Override
+			public V setValue(V v){
+				if(v == null) throw new NullPointerException("BiDictionary.Cursor.setValue(V v) -> 'v' cannot be null");
+				K key = cursor.key();
+				V previous = cursor.setValue(v);
+				if(!previous.equals(v)){
+					unlink(key, previous);
+					link(key, v);
+				}
+				return previous;
+			}
+
+			@Override
+			public void remove(){
+				K key = cursor.key();
+				V value = cursor.value();
+				cursor.remove();
+				unlink(key, value);
+			}
+		};
+	}
+
+	/**
+	 Returns a read-only live view of the keys mapped to the specified value, found with a single lookup.
+
+	 @param v the value whose keys are to be returned
+
+	 @return the keys mapped to {@code v}, empty if there are none
+	 */
+	public @NotNull Set<K> keysOf(V v){
+		Dictionary<K, Boolean> keys = bucket(v);
+		return keys == null ? Collections.emptySet() : Collections.unmodifiableSet(keys.keys());
+	}
+
+	/**
+	 Returns one of the keys mapped to the specified value, for dictionaries used as one-to-one maps.
+
+	 @param v the value whose key is to be returned
+
+	 @return a key mapped to {@code v}, or {@code null} if there is none
+	 */
+	public K keyOf(V v){
+		Dictionary<K, Boolean> keys = bucket(v);
+		if(keys == null) return null;
+		Cursor<K, Boolean> cursor = keys.cursor();
+		return cursor.advance() ? cursor.key() : null;
+	}
+
+	/**
+	 Removes every key mapped to the specified value.
+
+	 @param v the value whose keys are to be removed
+
+	 @return the number of keys removed
+	 */
+	public int removeValue(V v){
+		Dictionary<K, Boolean> keys = v == null ? null : reverse.get(v);
+		if(keys == null) return 0;
+		reverse.remove(v);
+		int[] removed = {0};
+		keys.forEach((k, b) -> {
+			if(forward.remove(k)) removed[0]++;
+		});
+		return removed[0];
+	}
+
+	// Private helper methods
+
+	private void set(K k, V v){
+		V previous = forward.get(k);
+		forward.put(k, v);
+		if(previous != null){
+			if(previous.equals(v)) return;
+			unlink(k, previous);
+		}
+		link(k, v);
+	}
+
+	private V remap(K k, V previous, V value){
+		if(value != null) set(k, value);
+		else if(previous != null) remove(k);
+		return value;
+	}
+
+	private void link(K k, V v){
+		reverse.computeIfAbsent(v, value -> weakKeys ? new WeakDictionary<>(4) : new Dictionary<>(4)).put(k, Boolean.TRUE);
+	}
+
+	private void unlink(K k, V v){
+		if(v == null) return;
+		Dictionary<K, Boolean> keys = reverse.get(v);
+		if(keys == null) return;
+		keys.remove(k);
+		if(keys.isEmpty()) reverse.remove(v);
+	}
+
+	// Drops a collected key from the keys of its value, and the value once no key is left, so the index never pins it
+	private void evicted(int hash, V v){
+		Dictionary<K, Boolean> keys = v == null ? null : reverse.get(v);
+		if(keys == null) return;
+		((WeakDictionary<K, Boolean>) keys).removeCleared(hash);
+		if(keys.isEmpty()) reverse.remove(v);
+	}
+
+	// The keys of a value, or null if none are left; key sets emptied by the garbage collector are dropped here
+	private Dictionary<K, Boolean> bucket(V v){
+		if(v == null) return null;
+		Dictionary<K, Boolean> keys = reverse.get(v);
+		if(keys == null || !keys.isEmpty()) return keys;
+		reverse.remove(v);
+		return null;
+	}
+}
@@ -0,0 +1,909 @@
+package me.vanturestudio.vantureapi.classes.arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A {@link Dictionary} bounded to a maximum number of entries, for the maps plugins use as caches.
+ * Once an insertion pushes it past its maximum size, entries are evicted according to an
+ * {@link Eviction} policy; entries may additionally expire a fixed time after they were written.
+ * <p>
+ * The usual dictionary calls keep their meaning, so an existing cache built on
+ * {@link #getOrDefaultAndPut(Object, Object)} or {@link #putIfAbsent(Object, Object)} only has to
+ * change its constructor to become bounded. {@link #get(Object)} and its variants count as
+ * accesses for the policy and for {@link #stats()}; {@link #containsKey(Object)}, iteration and
+ * cursors do not. Expired entries are dropped when they are next read or written,
+ * or all at once by {@link #cleanUp()}, and are never reported meanwhile.
+ *
+ * @param <K> the type of keys maintained by this dictionary
+ * @param <V> the type of mapped values
+ */
+public class CacheDictionary<K, V> extends Dictionary<K, V> {
+
+	/**
+	 * Decides which entry leaves a full {@link CacheDictionary}.
+	 */
+	public enum Eviction {
+		/**
+		 * Evicts the least recently used entry. Cheap and good for recency-heavy workloads such as per-session data.
+		 */
+		LRU,
+		/**
+		 * Evicts the least frequently used entry, ties broken by recency. Keeps long-term favourites,
+		 * but entries that were popular once are slow to leave.
+		 */
+		LFU,
+		/**
+		 * Window TinyLFU: new entries land in a small LRU window and are only admitted to the main
+		 * segmented LRU if a compact frequency sketch rates them above the entry they would replace.
+		 * The best hit rate on mixed workloads, and resistant to one-off scans.
+		 */
+		W_TINY_LFU
+	}
+
+	/**
+	 * A snapshot of the counters of a {@link CacheDictionary}.
+	 *
+	 * @param hits        reads that found a live entry
+	 * @param misses      reads that found no entry, or an expired one
+	 * @param evictions   entries removed to stay within the maximum size
+	 * @param expirations entries dropped because their time-to-live had passed
+	 */
+	public record Stats(long hits, long misses, long evictions, long expirations) {
+
+		public long requests() {
+			return hits + misses;
+		}
+
+		public double hitRate() {
+			long requests = requests();
+			return requests == 0 ? 1.0 : (double) hits / requests;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Stats{hits=%d, misses=%d, hitRate=%.3f, evictions=%d, expirations=%d}", hits, misses, hitRate(), evictions, expirations);
+		}
+	}
+
+	// Header and fields of a Node
+	private static final int NODE_BYTES = 48;
+
+	private final Dictionary<K, Node<K, V>> index;
+	private final int maximumSize;
+	private final Eviction eviction;
+	private final Policy<K, V> policy;
+	private long timeToLive;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long expirations;
+
+	/**
+	 Constructs an empty cache holding at most {@code MAXIMUM_SIZE} entries, evicting the least recently used.
+	 */
+	public CacheDictionary(final int MAXIMUM_SIZE){
+		this(MAXIMUM_SIZE, Eviction.LRU);
+	}
+
+	/**
+	 Constructs an empty cache holding at most {@code MAXIMUM_SIZE} entries, evicting by the given policy.
+	 */
+	public CacheDictionary(final int MAXIMUM_SIZE, @NotNull Eviction eviction){
+		if(MAXIMUM_SIZE <= 0) throw new IllegalArgumentException("Illegal maximum size: " + MAXIMUM_SIZE);
+		this.maximumSize = MAXIMUM_SIZE;
+		this.eviction = eviction;
+		// Sized so that a full cache never resizes its index
+		this.index = new Dictionary<>(Math.min(MAXIMUM_CAPACITY, (int) Math.ceil((MAXIMUM_SIZE + 1) / loadFactor())) + 1);
+		this.policy = switch(eviction){
+			case LRU -> new LruPolicy<>();
+			case LFU -> new LfuPolicy<>();
+			case W_TINY_LFU -> new TinyLfuPolicy<>(MAXIMUM_SIZE);
+		};
+	}
+
+	/**
+	 Makes entries expire once {@code duration} has passed since they were last written.
+	 A duration of zero disables expiry.
+
+	 @param duration the time-to-live of an entry
+	 @param unit     the unit of {@code duration}
+
+	 @return this cache
+	 */
+	public CacheDictionary<K, V> expireAfterWrite(long duration, @NotNull TimeUnit unit){
+		if(duration < 0) throw new IllegalArgumentException("Illegal duration: " + duration);
+		this.timeToLive = unit.toNanos(duration);
+		return this;
+	}
+
+	@Override
+	public boolean put(K k, V v){
+		if(k == null) throw new NullPointerException("CacheDictionary.put(K k, V v) -> 'k' cannot be null");
+		Node<K, V> node = index.get(k);
+		if(node != null){
+			node.value = v;
+			node.writtenAt = System.nanoTime();
+			policy.onAccess(node);
+			return true;
+		}
+		insert(k, v);
+		return true;
+	}
+
+	@Override
+	public Dictionary<K, V> putIfAbsent(K k, V v){
+		if(k == null) throw new NullPointerException("CacheDictionary.putIfAbsent(K k, V v) -> 'k' cannot be null");
+		if(live(index.get(k)) == null) insert(k, v);
+		return this;
+	}
+
+	@Override
+	public V get(K k){
+		Node<K, V> node = live(index.get(k));
+		if(node == null){
+			misses++;
+			return null;
+		}
+		hits++;
+		policy.onAccess(node);
+		return node.value;
+	}
+
+	/**
+	 Retrieves the value associated with the specified key, or caches and returns {@code dv} if the key is
+	 absent or expired. The key is looked up once and the read counts as a single hit or miss.
+
+	 @param k  the key whose associated value is to be returned
+	 @param dv the default value to cache and return if the key is not found
+
+	 @return the cached value, or {@code dv} if it was just inserted
+	 */
+	@Override
+	public V getOrDefaultAndPut(K k, V dv){
+		if(k == null) throw new NullPointerException("CacheDictionary.getOrDefaultAndPut(K k, V dv) -> 'k' cannot be null");
+		Node<K, V> node = live(index.get(k));
+		if(node == null){
+			misses++;
+			insert(k, dv);
+			return dv;
+		}
+		policy.onAccess(node);
+		if(node.value != null){
+			hits++;
+			return node.value;
+		}
+		// A live key mapped to null takes the default in place
+		misses++;
+		node.value = dv;
+		node.writtenAt = System.nanoTime();
+		return dv;
+	}
+
+	/**
+	 Retrieves the value associated with the specified key, or computes, caches and returns a value
+	 if the key is absent or expired. The read counts as a single hit or miss.
+
+	 @param k               the key whose associated value is to be returned
+	 @param mappingFunction the function creating a value for an absent key
+
+	 @return the cached or computed value, or {@code null} if the function returned {@code null}
+	 */
+	@Override
+	public V computeIfAbsent(K k, @NotNull Function<? super K, ? extends V> mappingFunction){
+		Node<K, V> node = live(index.get(k));
+		if(node != null && node.value != null){
+			hits++;
+			policy.onAccess(node);
+			return node.value;
+		}
+		misses++;
+		V value = mappingFunction.apply(k);
+		if(value != null) put(k, value);
+		return value;
+	}
+
+	@Override
+	public V computeIfPresent(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+		Node<K, V> node = live(index.get(k));
+		if(node == null || node.value == null) return null;
+		V value = remappingFunction.apply(k, node.value);
+		if(value == null) remove(k);
+		else put(k, value);
+		return value;
+	}
+
+	@Override
+	public V compute(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+		Node<K, V> node = live(index.get(k));
+		V value = remappingFunction.apply(k, node == null ? null : node.value);
+		if(value == null) remove(k);
+		else put(k, value);
+		return value;
+	}
+
+	@Override
+	public Dictionary<K, V> putAll(@NotNull Map<? extends K, ? extends V> map){
+		map.forEach(this::put);
+		return this;
+	}
+
+	@Override
+	public boolean containsKey(K k){
+		Node<K, V> node = index.get(k);
+		return node != null && !expired(node, System.nanoTime());
+	}
+
+	@Override
+	public Dictionary<K, V> replace(K k, V v){
+		Node<K, V> node = live(index.get(k));
+		if(node != null){
+			node.value = v;
+			node.writtenAt = System.nanoTime();
+		}
+		return this;
+	}
+
+	@Override
+	public boolean replace(K k, V ov, V nv){
+		Node<K, V> node = live(index.get(k));
+		if(node == null || !Objects.equals(node.value, ov)) return false;
+		node.value = nv;
+		node.writtenAt = System.nanoTime();
+		return true;
+	}
+
+	/**
+	 Merges a key with a new value, or caches {@code v} if the key is absent or expired.
+	 If the remapping function returns {@code null} the mapping is removed.
+	 */
+	@Override
+	public Dictionary<K, V> merge(K k, V v, BiFunction<? super V, ? super V, ? extends V> remappingFunction){
+		if(k == null) throw new NullPointerException("CacheDictionary.merge(K k, V v, BiFunction<V, V, V> remappingFunction) -> 'k' cannot be null");
+		Node<K, V> node = live(index.get(k));
+		if(node == null){
+			insert(k, v);
+			return this;
+		}
+		V value = remappingFunction.apply(node.value, v);
+		if(value == null){
+			remove(k);
+			return this;
+		}
+		node.value = value;
+		node.writtenAt = System.nanoTime();
+		policy.onAccess(node);
+		return this;
+	}
+
+	@Override
+	public boolean containsValue(V v){
+		long now = System.nanoTime();
+		Dictionary.Cursor<K, Node<K, V>> cursor = index.cursor();
+		while(cursor.advance()){
+			Node<K, V> node = cursor.value();
+			if(!expired(node, now) && Objects.equals(node.value, v)) return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean remove(K k){
+		Node<K, V> node = index.get(k);
+		if(node == null) return false;
+		index.remove(k);
+		policy.onRemove(node);
+		return !expired(node, System.nanoTime());
+	}
+
+	@Override
+	public Dictionary<K, V> clear(){
+		index.clear();
+		policy.clear();
+		return this;
+	}
+
+	/**
+	 Returns the number of entries in the cache, which may include expired entries that have not been dropped yet.
+
+	 @return the number of entries in this cache
+	 */
+	@Override
+	public int size(){
+		return index.size();
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return index.isEmpty();
+	}
+
+	@Override
+	public int capacity(){
+		return index.capacity();
+	}
+
+	/**
+	 Entries expire by time rather than by a write, so a tracked snapshot would go stale;
+	 {@link #snapshot()} always copies the live pairs instead.
+
+	 @throws UnsupportedOperationException when enabling tracking
+	 */
+	@Override
+	public Dictionary<K, V> trackSnapshots(boolean enabled){
+		if(enabled) throw new UnsupportedOperationException("CacheDictionary.trackSnapshots(boolean enabled) -> snapshots are copied on demand");
+		return this;
+	}
+
+	/**
+	 Records the metrics of the index that maps keys to cache entries. Hit rates and evictions
+	 are in {@link #stats()}.
+	 */
+	@Override
+	public Dictionary<K, V> recordMetrics(boolean enabled){
+		index.recordMetrics(enabled);
+		return this;
+	}
+
+	@Override
+	public boolean isRecordingMetrics(){
+		return index.isRecordingMetrics();
+	}
+
+	@Override
+	public Metrics metrics(){
+		return index.metrics();
+	}
+
+	/**
+	 Resizes the index that maps keys to cache entries incrementally. The index is sized for the
+	 maximum up front, so this only matters once {@link #trimToSize()} has shrunk it.
+	 */
+	@Override
+	public Dictionary<K, V> incrementalResize(boolean enabled){
+		index.incrementalResize(enabled);
+		return this;
+	}
+
+	@Override
+	public boolean isIncrementalResize(){
+		return index.isIncrementalResize();
+	}
+
+	@Override
+	public boolean isResizing(){
+		return index.isResizing();
+	}
+
+	/**
+	 Protects the index that maps keys to cache entries against hash flooding.
+	 */
+	@Override
+	public Dictionary<K, V> floodProtection(boolean enabled){
+		index.floodProtection(enabled);
+		return this;
+	}
+
+	@Override
+	public boolean isFloodProtected(){
+		return index.isFloodProtected();
+	}
+
+	/**
+	 Shrinks the index to the current number of entries. It grows back towards the maximum size
+	 as the cache fills up again.
+	 */
+	@Override
+	public Dictionary<K, V> trimToSize(){
+		index.trimToSize();
+		return this;
+	}
+
+	/**
+	 Estimates the bytes held by the index, the entry nodes and the eviction policy,
+	 excluding the cached keys and values.
+	 */
+	@Override
+	public long estimatedRetainedBytes(){
+		long bytes = index.estimatedRetainedBytes() + (long) index.size() * NODE_BYTES;
+		if(eviction == Eviction.W_TINY_LFU) bytes += align(ARRAY_HEADER_BYTES + 8L * tableSizeFor(Math.max(8, maximumSize)));
+		return bytes;
+	}
+
+	@Override
+	public Dictionary<K, V> forEach(BiConsumer<? super K, ? super V> action){
+		long now = System.nanoTime();
+		index.forEach((k, node) -> {
+			if(!expired(node, now)) action.accept(k, node.value);
+		});
+		return this;
+	}
+
+	/**
+	 Returns a spliterator over the entries that have not expired, copied in batches from {@link #cursor()}.
+	 */
+	@Override
+	public Spliterator<Map.Entry<K, V>> spliterator(){
+		return cursorSpliterator(0);
+	}
+
+	@Override
+	public Cursor<K, V> cursor(){
+		Dictionary.Cursor<K, Node<K, V>> cursor = index.cursor();
+		long now = System.nanoTime();
+		return new Cursor<>(){
+			private Node<K, V> current;
+
+			@Override
+			public boolean advance(){
+				while(cursor.advance()){
+					if(!expired(cursor.value(), now)){
+						current = cursor.value();
+						return true;
+					}
+				}
+				current = null;
+				return false;
+			}
+
+			@Override
+			public K key(){
+				return node().key;
+			}
+
+			@Override
+			public V value(){
+				return node().value;
+			}
+
+			@Override
+			public V setValue(V v){
+				Node<K, V> node = node();
+				V previous = node.value;
+				node.value = v;
+				return previous;
+			}
+
+			@Override
+			public void remove(){
+				Node<K, V> node = node();
+				cursor.remove();
+				policy.onRemove(node);
+				current = null;
+			}
+
+			private Node<K, V> node(){
+				if(current == null) throw new NoSuchElementException();
+				return current;
+			}
+		};
+	}
+
+	/**
+	 Drops every expired entry now instead of when it is next touched.
+
+	 @return the number of entries dropped
+	 */
+	public int cleanUp(){
+		if(timeToLive == 0) return 0;
+		long now = System.nanoTime();
+		int dropped = 0;
+		Dictionary.Cursor<K, Node<K, V>> cursor = index.cursor();
+		while(cursor.advance()){
+			Node<K, V> node = cursor.value();
+			if(expired(node, now)){
+				cursor.remove();
+				policy.onRemove(node);
+				dropped++;
+			}
+		}
+		expirations += dropped;
+		return dropped;
+	}
+
+	/**
+	 Returns the maximum number of entries this cache holds.
+
+	 @return the maximum size
+	 */
+	public int maximumSize(){
+		return maximumSize;
+	}
+
+	/**
+	 Returns the eviction policy of this cache.
+
+	 @return the eviction policy
+	 */
+	public Eviction eviction(){
+		return eviction;
+	}
+
+	/**
+	 Returns a snapshot of the hit, miss, eviction and expiration counters.
+
+	 @return the current statistics
+	 */
+	public Stats stats(){
+		return new Stats(hits, misses, evictions, expirations);
+	}
+
+	/**
+	 Resets every counter reported by {@link #stats()} to zero.
+
+	 @return this cache
+	 */
+	public CacheDictionary<K, V> resetStats(){
+		hits = misses = evictions = expirations = 0;
+		return this;
+	}
+
+	// Private helper methods
+
+	private void insert(K k, V v){
+		Node<K, V> node = new Node<>(k, v, System.nanoTime());
+		index.put(k, node);
+		policy.onInsert(node);
+		while(index.size() > maximumSize){
+			Node<K, V> victim = policy.evict();
+			index.remove(victim.key);
+			evictions++;
+		}
+	}
+
+	private boolean expired(Node<K, V> node, long now){
+		return timeToLive != 0 && now - node.writtenAt >= timeToLive;
+	}
+
+	// Returns the node if it is still live, dropping it if it has expired
+	private Node<K, V> live(Node<K, V> node){
+		if(node == null || !expired(node, System.nanoTime())) return node;
+		index.remove(node.key);
+		policy.onRemove(node);
+		expirations++;
+		return null;
+	}
+
+	private static final class Node<K, V> {
+		private final K key;
+		private V value;
+		private long writtenAt;
+
+		// Links of the access-order list the node is in
+		private Node<K, V> previous;
+		private Node<K, V> next;
+		private int frequency;
+		private byte segment;
+
+		private Node(K key, V value, long writtenAt){
+			this.key = key;
+			this.value = value;
+			this.writtenAt = writtenAt;
+		}
+	}
+
+	/**
+	 * A doubly linked list of nodes from least to most recently used, closed by a sentinel.
+	 */
+	private static final class AccessOrder<K, V> {
+		private final Node<K, V> sentinel = new Node<>(null, null, 0);
+		private int size;
+
+		private AccessOrder(){
+			sentinel.previous = sentinel;
+			sentinel.next = sentinel;
+		}
+
+		private void addLast(Node<K, V> node){
+			node.previous = sentinel.previous;
+			node.next = sentinel;
+			sentinel.previous.next = node;
+			sentinel.previous = node;
+			size++;
+		}
+
+		private void remove(Node<K, V> node){
+			node.previous.next = node.next;
+			node.next.previous = node.previous;
+			node.previous = null;
+			node.next = null;
+			size--;
+		}
+
+		private void moveToLast(Node<K, V> node){
+			remove(node);
+			addLast(node);
+		}
+
+		private Node<K, V> first(){
+			return size == 0 ? null : sentinel.next;
+		}
+
+		private Node<K, V> last(){
+			return size == 0 ? null : sentinel.previous;
+		}
+
+		private void clear(){
+			sentinel.previous = sentinel;
+			sentinel.next = sentinel;
+			size = 0;
+		}
+	}
+
+	private interface Policy<K, V> {
+		void onInsert(Node<K, V> node);
+
+		void onAccess(Node<K, V> node);
+
+		void onRemove(Node<K, V> node);
+
+		// Picks the entry to evict and unlinks it
+		Node<K, V> evict();
+
+		void clear();
+	}
+
+	private static final class LruPolicy<K, V> implements Policy<K, V> {
+		private final AccessOrder<K, V> order = new AccessOrder<>();
+
+		@Override
+		public void onInsert(Node<K, V> node){
+			order.addLast(node);
+		}
+
+		@Override
+		public void onAccess(Node<K, V> node){
+			order.moveToLast(node);
+		}
+
+		@Override
+		public void onRemove(Node<K, V> node){
+			order.remove(node);
+		}
+
+		@Override
+		public Node<K, V> evict(){
+			Node<K, V> victim = order.first();
+			order.remove(victim);
+			return victim;
+		}
+
+		@Override
+		public void clear(){
+			order.clear();
+		}
+	}
+
+	/**
+	 * Constant-time LFU: one access-order list per frequency, so the victim is the least recently
+	 * used node of the lowest frequency.
+	 */
+	private static final class LfuPolicy<K, V> implements Policy<K, V> {
+		private final IntDictionary<AccessOrder<K, V>> buckets = new IntDictionary<>();
+		private int minimumFrequency;
+
+		@Override
+		public void onInsert(Node<K, V> node){
+			node.frequency = 1;
+			bucket(1).addLast(node);
+			minimumFrequency = 1;
+		}
+
+		@Override
+		public void onAccess(Node<K, V> node){
+			int frequency = node.frequency;
+			if(frequency == Integer.MAX_VALUE){
+				buckets.get(frequency).moveToLast(node);
+				return;
+			}
+			unlink(node);
+			if(minimumFrequency == frequency && !buckets.containsKey(frequency)) minimumFrequency = frequency + 1;
+			node.frequency = frequency + 1;
+			bucket(frequency + 1).addLast(node);
+		}
+
+		@Override
+		public void onRemove(Node<K, V> node){
+			unlink(node);
+		}
+
+		@Override
+		public Node<K, V> evict(){
+			AccessOrder<K, V> bucket = buckets.get(minimumFrequency);
+			if(bucket == null){
+				// An explicit removal emptied the lowest bucket, find the next one
+				int[] minimum = {Integer.MAX_VALUE};
+				buckets.forEach((frequency, b) -> minimum[0] = Math.min(minimum[0], frequency));
+				minimumFrequency = minimum[0];
+				bucket = buckets.get(minimumFrequency);
+			}
+			Node<K, V> victim = bucket.first();
+			unlink(victim);
+			return victim;
+		}
+
+		@Override
+		public void clear(){
+			buckets.clear();
+			minimumFrequency = 0;
+		}
+
+		private AccessOrder<K, V> bucket(int frequency){
+			AccessOrder<K, V> bucket = buckets.get(frequency);
+			if(bucket == null) buckets.put(frequency, bucket = new AccessOrder<>());
+			return bucket;
+		}
+
+		private void unlink(Node<K, V> node){
+			AccessOrder<K, V> bucket = buckets.get(node.frequency);
+			bucket.remove(node);
+			if(bucket.size == 0) buckets.remove(node.frequency);
+		}
+	}
+
+	/**
+	 * Window TinyLFU over a 1% LRU window and a segmented LRU main space
+	 * (20% probation, 80% protected), admitting through a {@link FrequencySketch}.
+	 */
+	private static final class TinyLfuPolicy<K, V> implements Policy<K, V> {
+		private static final byte WINDOW = 0;
+		private static final byte PROBATION = 1;
+		private static final byte PROTECTED = 2;
+
+		private final AccessOrder<K, V> window = new AccessOrder<>();
+		private final AccessOrder<K, V> probation = new AccessOrder<>();
+		private final AccessOrder<K, V> protectedSegment = new AccessOrder<>();
+		private final FrequencySketch sketch;
+		private final int maximumWindow;
+		private final int maximumProtected;
+
+		private TinyLfuPolicy(int maximumSize){
+			this.sketch = new FrequencySketch(maximumSize);
+			this.maximumWindow = Math.max(1, maximumSize / 100);
+			this.maximumProtected = (int) ((maximumSize - maximumWindow) * 0.8);
+		}
+
+		@Override
+		public void onInsert(Node<K, V> node){
+			sketch.increment(node.key);
+			node.segment = WINDOW;
+			window.addLast(node);
+			// Window overflow becomes a candidate at the most recent end of probation
+			while(window.size > maximumWindow){
+				Node<K, V> candidate = window.first();
+				window.remove(candidate);
+				candidate.segment = PROBATION;
+				probation.addLast(candidate);
+			}
+		}
+
+		@Override
+		public void onAccess(Node<K, V> node){
+			sketch.increment(node.key);
+			switch(node.segment){
+				case WINDOW -> window.moveToLast(node);
+				case PROBATION -> {
+					probation.remove(node);
+					node.segment = PROTECTED;
+					protectedSegment.addLast(node);
+					if(protectedSegment.size > maximumProtected){
+						Node<K, V> demoted = protectedSegment.first();
+						protectedSegment.remove(demoted);
+						demoted.segment = PROBATION;
+						probation.addLast(demoted);
+					}
+				}
+				default -> protectedSegment.moveToLast(node);
+			}
+		}
+
+		@Override
+		public void onRemove(Node<K, V> node){
+			segment(node).remove(node);
+		}
+
+		@Override
+		public Node<K, V> evict(){
+			Node<K, V> victim = probation.first();
+			Node<K, V> candidate = probation.last();
+			Node<K, V> evicted;
+			if(victim == null){
+				evicted = protectedSegment.size > 0 ? protectedSegment.first() : window.first();
+			}else if(victim == candidate){
+				evicted = victim;
+			}else{
+				// The newcomer only displaces the probation victim if it is used more often
+				evicted = sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+			}
+			segment(evicted).remove(evicted);
+			return evicted;
+		}
+
+		@Override
+		public void clear(){
+			window.clear();
+			probation.clear();
+			protectedSegment.clear();
+		}
+
+		private AccessOrder<K, V> segment(Node<K, V> node){
+			return switch(node.segment){
+				case WINDOW -> window;
+				case PROBATION -> probation;
+				default -> protectedSegment;
+			};
+		}
+	}
+
+	/**
+	 * A count-min sketch of 4-bit counters estimating how often keys were seen. Every counter is
+	 * halved once the number of increments reaches ten times the cache size, so old popularity fades.
+	 */
+	private static final class FrequencySketch {
+		private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+		private static final long RESET_MASK = 0x7777777777777777L;
+
+		private final long[] table;
+		private final int tableMask;
+		private final int sampleSize;
+		private int additions;
+
+		private FrequencySketch(int maximumSize){
+			int length = tableSizeFor(Math.max(8, maximumSize));
+			this.table = new long[length];
+			this.tableMask = length - 1;
+			this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * maximumSize);
+		}
+
+		private int frequency(Object key){
+			int hash = spread(key.hashCode());
+			int start = (hash & 3) << 2;
+			int frequency = Integer.MAX_VALUE;
+			for(int i = 0; i < 4; i++){
+				int offset = (start + i) << 2;
+				frequency = Math.min(frequency, (int) ((table[indexOf(hash, i)] >>> offset) & 0xfL));
+			}
+			return frequency;
+		}
+
+		private void increment(Object key){
+			int hash = spread(key.hashCode());
+			int start = (hash & 3) << 2;
+			boolean added = false;
+			for(int i = 0; i < 4; i++){
+				added |= incrementAt(indexOf(hash, i), start + i);
+			}
+			if(added && ++additions >= sampleSize) reset();
+		}
+
+		private boolean incrementAt(int i, int counter){
+			int offset = counter << 2;
+			long mask = 0xfL << offset;
+			if((table[i] & mask) == mask) return false;
+			table[i] += 1L << offset;
+			return true;
+		}
+
+		private int indexOf(int hash, int i){
+			long h = (hash + SEEDS[i]) * SEEDS[i];
+			h += h >>> 32;
+			return (int) h & tableMask;
+		}
+
+		private void reset(){
+			for(int i = 0; i < table.length; i++){
+				table[i] = (table[i] >>> 1) & RESET_MASK;
+			}
+			additions >>>= 1;
+		}
+	}
+}
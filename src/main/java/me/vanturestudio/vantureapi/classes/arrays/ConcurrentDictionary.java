@@ -0,0 +1,363 @@
+package me.vanturestudio.vantureapi.classes.arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A thread-safe {@link Dictionary} for maps shared between the main thread and async
+ * event threads (chat, async pre-login, scheduler tasks).
+ * <p>
+ * Entries are held in a {@link ConcurrentHashMap}: reads never lock, and writes only lock
+ * the single bin they touch. Compound operations such as {@link #putIfAbsent(Object, Object)},
+ * {@link #getOrDefaultAndPut(Object, Object)} and {@link #computeIfAbsent(Object, Function)}
+ * are atomic. Like {@link ConcurrentHashMap}, neither keys nor values may be {@code null}.
+ *
+ * @param <K> the type of keys maintained by this dictionary
+ * @param <V> the type of mapped values
+ */
+public class ConcurrentDictionary<K, V> extends Dictionary<K, V> {
+
+	// Footprint of a ConcurrentHashMap and of one of its nodes
+	private static final int MAP_BYTES = 64;
+	private static final int NODE_BYTES = 32;
+
+	private final ConcurrentHashMap<K, V> map;
+
+	/**
+	 Constructs an empty concurrent dictionary with the default initial capacity.
+	 */
+	public ConcurrentDictionary(){
+		this.map = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 Constructs an empty concurrent dictionary able to hold {@code CAPACITY} entries without resizing.
+	 */
+	public ConcurrentDictionary(final int CAPACITY){
+		this.map = new ConcurrentHashMap<>(CAPACITY);
+	}
+
+	@Override
+	public boolean put(K k, V v){
+		map.put(k, v);
+		return true;
+	}
+
+	@Override
+	public Dictionary<K, V> putIfAbsent(K k, V v){
+		map.putIfAbsent(k, v);
+		return this;
+	}
+
+	@Override
+	public V get(K k){
+		return k == null ? null : map.get(k);
+	}
+
+	/**
+	 Atomically returns the value mapped to {@code k}, or maps it to {@code dv} if there is none.
+
+	 @param k  the key whose associated value is to be returned
+	 @param dv the value to store and return if the key is not found
+
+	 @return the value to which the specified key is mapped, or {@code dv} if it was just inserted
+	 */
+	@Override
+	public V getOrDefaultAndPut(K k, V dv){
+		V previous = map.putIfAbsent(k, dv);
+		return previous != null ? previous : dv;
+	}
+
+	/**
+	 Returns the value mapped to {@code k}, computing and storing it first if the key is absent.
+	 The mapping function runs at most once per absent key, even when several threads race on it,
+	 so it is safe to allocate heavy values (per-player state, caches) inside it.
+
+	 @param k               the key whose associated value is to be returned
+	 @param mappingFunction the function creating a value for an absent key
+
+	 @return the current (existing or computed) value associated with the key
+	 */
+	@Override
+	public V computeIfAbsent(K k, @NotNull Function<? super K, ? extends V> mappingFunction){
+		V value = map.get(k);
+		return value != null ? value : map.computeIfAbsent(k, mappingFunction);
+	}
+
+	@Override
+	public V computeIfPresent(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+		return k == null ? null : map.computeIfPresent(k, remappingFunction);
+	}
+
+	/**
+	 Atomically computes a new value for {@code k}. Other writers to the same key wait while the
+	 remapping function runs, so it should be short.
+	 */
+	@Override
+	public V compute(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+		return map.compute(k, remappingFunction);
+	}
+
+	@Override
+	public Dictionary<K, V> putAll(@NotNull Map<? extends K, ? extends V> map){
+		this.map.putAll(map);
+		return this;
+	}
+
+	@Override
+	public boolean containsKey(K k){
+		return k != null && map.containsKey(k);
+	}
+
+	@Override
+	public Dictionary<K, V> replace(K k, V v){
+		map.replace(k, v);
+		return this;
+	}
+
+	@Override
+	public boolean replace(K k, V ov, V nv){
+		return map.replace(k, ov, nv);
+	}
+
+	/**
+	 Atomically merges a key with a new value. If the remapping function returns {@code null}
+	 the mapping is removed, as values cannot be {@code null} in a concurrent dictionary.
+	 */
+	@Override
+	public Dictionary<K, V> merge(K k, V v, BiFunction<? super V, ? super V, ? extends V> remappingFunction){
+		map.merge(k, v, remappingFunction);
+		return this;
+	}
+
+	@Override
+	public Dictionary<K, V> merge(@NotNull Dictionary<K, V> otherDictionary){
+		otherDictionary.forEach((k, v) -> {
+			if(v != null) map.putIfAbsent(k, v);
+		});
+		return this;
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return map.isEmpty();
+	}
+
+	/**
+	 Performs the given action for each key-value pair. The traversal is weakly consistent: it never
+	 throws {@link java.util.ConcurrentModificationException} and may or may not see concurrent updates.
+
+	 @param action the action to be performed for each key-value pair
+	 */
+	@Override
+	public Dictionary<K, V> forEach(BiConsumer<? super K, ? super V> action){
+		map.forEach(action);
+		return this;
+	}
+
+	/**
+	 Returns the weakly consistent spliterator of the backing map, whose entries write through.
+	 Unlike the table spliterator, it may be used while other threads modify the dictionary.
+	 */
+	@Override
+	public Spliterator<Map.Entry<K, V>> spliterator(){
+		return map.entrySet().spliterator();
+	}
+
+	/**
+	 Runs {@link ConcurrentHashMap#forEach(long, BiConsumer)} on the backing map,
+	 which may be used while other threads modify the dictionary.
+	 */
+	@Override
+	public Dictionary<K, V> forEach(long parallelismThreshold, @NotNull BiConsumer<? super K, ? super V> action){
+		map.forEach(parallelismThreshold, action);
+		return this;
+	}
+
+	@Override
+	public <U> U search(long parallelismThreshold, @NotNull BiFunction<? super K, ? super V, ? extends U> searchFunction){
+		return map.search(parallelismThreshold, searchFunction);
+	}
+
+	@Override
+	public V reduceValues(long parallelismThreshold, @NotNull BiFunction<? super V, ? super V, ? extends V> reducer){
+		return map.reduceValues(parallelismThreshold, reducer);
+	}
+
+	@Override
+	public <U> U reduceValues(long parallelismThreshold, @NotNull Function<? super V, ? extends U> transformer, @NotNull BiFunction<? super U, ? super U, ? extends U> reducer){
+		return map.reduceValues(parallelismThreshold, transformer, reducer);
+	}
+
+	/**
+	 Returns a weakly consistent cursor, which may be used while other threads modify the dictionary.
+
+	 @return a new cursor over this dictionary
+	 */
+	@Override
+	public Cursor<K, V> cursor(){
+		return new Cursor<>(){
+			private final Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
+			private Map.Entry<K, V> current;
+
+			@Override
+			public boolean advance(){
+				current = iterator.hasNext() ? iterator.next() : null;
+				return current != null;
+			}
+
+			@Override
+			public K key(){
+				return entry().getKey();
+			}
+
+			@Override
+			public V value(){
+				return entry().getValue();
+			}
+
+			@Override
+			public V setValue(V v){
+				return entry().setValue(v);
+			}
+
+			@Override
+			public void remove(){
+				entry();
+				iterator.remove();
+				current = null;
+			}
+
+			private Map.Entry<K, V> entry(){
+				if(current == null) throw new NoSuchElementException();
+				return current;
+			}
+		};
+	}
+
+	/**
+	 Returns the backing {@link ConcurrentHashMap}, so that callers of the map view keep its atomic
+	 compound operations and weakly consistent iteration.
+
+	 @return a live, thread-safe map view of this dictionary
+	 */
+	@Override
+	public Map<K, V> asMap(){
+		return map;
+	}
+
+	@Override
+	public boolean containsValue(V v){
+		return v != null && map.containsValue(v);
+	}
+
+	@Override
+	public boolean remove(K k){
+		return k != null && map.remove(k) != null;
+	}
+
+	@Override
+	public Dictionary<K, V> clear(){
+		map.clear();
+		return this;
+	}
+
+	@Override
+	public int size(){
+		return map.size();
+	}
+
+	/**
+	 A concurrent dictionary sizes its table internally, so this reports the number of entries.
+
+	 @return the number of key-value pairs in this dictionary
+	 */
+	@Override
+	public int capacity(){
+		return map.size();
+	}
+
+	/**
+	 Writers on several threads cannot keep a single persistent copy in step with the map,
+	 so {@link #snapshot()} always copies the current pairs.
+
+	 @throws UnsupportedOperationException when enabling tracking
+	 */
+	@Override
+	public Dictionary<K, V> trackSnapshots(boolean enabled){
+		if(enabled) throw new UnsupportedOperationException("ConcurrentDictionary.trackSnapshots(boolean enabled) -> snapshots are copied on demand");
+		return this;
+	}
+
+	/**
+	 The backing {@link ConcurrentHashMap} does not expose its table, so there is nothing to measure.
+
+	 @throws UnsupportedOperationException when enabling recording
+	 */
+	@Override
+	public Dictionary<K, V> recordMetrics(boolean enabled){
+		if(enabled) throw new UnsupportedOperationException("ConcurrentDictionary.recordMetrics(boolean enabled) -> metrics are not available");
+		return this;
+	}
+
+	/**
+	 Returns only the size and capacity, with every counter and table measure zero, since the backing map is not instrumented.
+	 */
+	@Override
+	public Metrics metrics(){
+		return Metrics.unmeasured(size(), capacity());
+	}
+
+	/**
+	 A {@link ConcurrentHashMap} already resizes by moving bins in steps shared among the writing threads,
+	 so this does nothing.
+	 */
+	@Override
+	public Dictionary<K, V> incrementalResize(boolean enabled){
+		return this;
+	}
+
+	@Override
+	public boolean isIncrementalResize(){
+		return false;
+	}
+
+	/**
+	 A {@link ConcurrentHashMap} already keeps colliding {@link Comparable} keys in sorted bins,
+	 so this does nothing.
+	 */
+	@Override
+	public Dictionary<K, V> floodProtection(boolean enabled){
+		return this;
+	}
+
+	@Override
+	public boolean isFloodProtected(){
+		return false;
+	}
+
+	/**
+	 A {@link ConcurrentHashMap} never shrinks its table, so this does nothing.
+	 */
+	@Override
+	public Dictionary<K, V> trimToSize(){
+		return this;
+	}
+
+	/**
+	 Estimates the bytes held by the backing map's table and nodes, excluding keys and values.
+	 */
+	@Override
+	public long estimatedRetainedBytes(){
+		int entries = map.size();
+		return MAP_BYTES + referenceArrayBytes(tableSizeFor((int) Math.min(MAXIMUM_CAPACITY, entries / 0.75 + 1))) + (long) entries * NODE_BYTES;
+	}
+}
@@ -1,21 +1,54 @@
 package me.vanturestudio.vantureapi.classes.arrays;
 
-import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import org.bukkit.configuration.serialization.ConfigurationSerializable;
-import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Custom implementation of a dictionary-like data structure using hash table principles.
  * Provides methods similar to HashMap for storing and retrieving key-value pairs.
- * Handles collisions using chaining (lists of entries in buckets).
+ * Handles collisions using open addressing (linear probing over a power-of-two table),
+ * so lookups walk flat arrays instead of chasing per-bucket lists.
+ * <p>
+ * By default the table is rehashed in one pass when it grows. Large dictionaries that live on
+ * latency-sensitive threads can switch to {@link #incrementalResize(boolean) incremental resizing},
+ * which keeps the old table readable and moves a bounded number of slots per write instead.
+ * <p>
+ * A dictionary is not thread-safe. Readers on other threads should work on a {@link #snapshot()},
+ * which is free to take once {@link #trackSnapshots(boolean) snapshot tracking} is enabled.
  *
  * @param <K> the type of keys maintained by this dictionary
  * @param <V> the type of mapped values
@@ -23,71 +56,99 @@ import java.util.function.Consumer;
 public class Dictionary<K, V> implements ConfigurationSerializable {
 
 	private static final int DEFAULT_CAPACITY = 16;
-	private static volatile double LOAD_FACTOR = 0.8;
-
-	private ArrayList[] buckets;
+	static final int MAXIMUM_CAPACITY = 1 << 30;
+	private static final double DEFAULT_LOAD_FACTOR = 0.8;
+	// Linear probing needs free slots to terminate, so the load factor is capped below 1
+	private static final double MAXIMUM_LOAD_FACTOR = 0.9;
+	// Old-table slots moved to the new table per write while an incremental resize is running
+	private static final int MIGRATION_STEP = 16;
+	// Marks an emptied old-table slot, so probe runs through it stay intact until the table is dropped
+	private static final Object TOMBSTONE = new Object();
+	// Keys sharing a full hash that a flood-protected table holds before further ones go to an overflow tree
+	private static final int TREEIFY_THRESHOLD = 8;
+	// A table shrinks once less than 1/SHRINK_DIVISOR of it is used, to at most a quarter full so it does not grow right back
+	private static final int SHRINK_DIVISOR = 8;
+
+	// Footprint estimates, for a 64-bit JVM with compressed references (heaps below 32 GB)
+	static final int OBJECT_HEADER_BYTES = 12;
+	static final int ARRAY_HEADER_BYTES = 16;
+	static final int REFERENCE_BYTES = 4;
+	// Header and fields of a dictionary itself
+	private static final int SHALLOW_BYTES = 112;
+	// A TreeMap and one of its entries
+	private static final int TREE_BYTES = 48;
+	private static final int TREE_ENTRY_BYTES = 40;
+
+	// Parallel slot arrays, a null key marks a free slot
+	private Object[] keys;
+	private Object[] values;
+	private int[] hashes;
+	private int mask;
+	private int threshold;
 	private int size;
-
-	// Simple class to hold Entries for values into the array
-	private static class Entry<K, V> {
-		K key;
-		V value;
-
-		@Contract(pure = true)
-		Entry(K k, V v){
-			this.key = k;
-			this.value = v;
-		}
-	}
+	// Bumped by every write that adds, removes or moves a slot, so a slot found before a user function ran can be checked
+	private int modCount;
+
+	// The table being drained by an incremental resize, null when no resize is running
+	private Object[] oldKeys;
+	private Object[] oldValues;
+	private int[] oldHashes;
+	private int migrateIndex;
+	private boolean incrementalResize;
+	private boolean autoShrink = true;
+	private boolean binarySerialization;
+	// Persistent copy kept in step with every write while snapshots are tracked, null otherwise
+	private volatile PersistentDictionary<K, V> snapshot;
+	// Operation counters while metrics are recorded, null otherwise
+	private Recorder recorder;
+	// Per-instance hash seed while flood protection is enabled, 0 otherwise
+	private int seed;
+	// Comparable keys beyond TREEIFY_THRESHOLD per full hash, by hash, null while there are none
+	private IntDictionary<TreeMap<K, V>> overflow;
+
+	private final int initialCapacity;
+	private final double loadFactor;
+
+	// Live views, created on first use
+	private Set<Map.Entry<K, V>> entryView;
+	private Set<K> keyView;
+	private Collection<V> valueView;
+	private Map<K, V> mapView;
 
 	/**
 	 Constructs an empty dictionary with an initial capacity of {@code DEFAULT_CAPACITY}.
-	 Initializes the array of buckets and sets the size to zero.
+	 The slot arrays are allocated on the first insertion.
 	 */
 	public Dictionary(){
-		buckets = new ArrayList[DEFAULT_CAPACITY];
-		for(int i = 0; i < DEFAULT_CAPACITY; i++){
-			buckets[i] = new ArrayList<>();
-		}
-		size = 0;
+		this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
 	}
 
 	/**
-	 Constructs an empty dictionary with an initial capacity of {@code CAPACITY}.
-	 Initializes the array of buckets and sets the size to zero.
+	 Constructs an empty dictionary with an initial capacity of {@code CAPACITY},
+	 rounded up to the next power of two.
 	 */
 	public Dictionary(final int CAPACITY){
-		buckets = new ArrayList[CAPACITY];
-		for(int i = 0; i < CAPACITY; i++){
-			buckets[i] = new ArrayList<>();
-		}
-		size = 0;
+		this(CAPACITY, DEFAULT_LOAD_FACTOR);
 	}
 
 	/**
-	 Constructs an empty dictionary with an initial capacity of {@code CAPACITY}.
-	 Initializes the array of buckets and sets the size to zero.
+	 Constructs an empty dictionary with an initial capacity of {@code CAPACITY},
+	 rounded up to the next power of two, that grows once {@code LOAD_FACTOR} is exceeded.
 	 */
 	public Dictionary(final int CAPACITY, final double LOAD_FACTOR){
-		buckets = new ArrayList[CAPACITY];
-		for(int i = 0; i < CAPACITY; i++){
-			buckets[i] = new ArrayList<>();
-		}
-		size = 0;
-		this.LOAD_FACTOR = LOAD_FACTOR;
+		if(CAPACITY < 0) throw new IllegalArgumentException("Illegal capacity: " + CAPACITY);
+		if(!(LOAD_FACTOR > 0)) throw new IllegalArgumentException("Illegal load factor: " + LOAD_FACTOR);
+		this.initialCapacity = tableSizeFor(CAPACITY);
+		this.loadFactor = Math.min(LOAD_FACTOR, MAXIMUM_LOAD_FACTOR);
+		this.size = 0;
 	}
 
 	/**
-	 Constructs an empty dictionary with an initial capacity of {@code DEFAULT_CAPACITY}.
-	 Initializes the array of buckets and sets the size to zero.
+	 Constructs an empty dictionary with an initial capacity of {@code DEFAULT_CAPACITY}
+	 that grows once {@code LOAD_FACTOR} is exceeded.
 	 */
 	public Dictionary(final double LOAD_FACTOR){
-		buckets = new ArrayList[DEFAULT_CAPACITY];
-		for(int i = 0; i < DEFAULT_CAPACITY; i++){
-			buckets[i] = new ArrayList<>();
-		}
-		size = 0;
-		this.LOAD_FACTOR = LOAD_FACTOR;
+		this(DEFAULT_CAPACITY, LOAD_FACTOR);
 	}
 
 	/**
@@ -99,24 +160,35 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 	 @return if the object got put into the dictionary
 	 */
 	public boolean put(K k, V v){
-		int bucketIndex = getBucketIndex(k);
-		List<Entry<K, V>> bucket = buckets[bucketIndex];
-		for(Entry<K, V> entry: bucket){
-			if(entry.key.equals(k)){
-				entry.value = v; // Update value if key exists
-				return true;
-			}
+		if(k == null) throw new NullPointerException("Dictionary.put(K k, V v) -> 'k' cannot be null");
+		int h = hash(k);
+		TreeMap<K, V> tree = treeOf(k, h);
+		if(tree != null){
+			inTree(tree, k, h, t -> t.put(k, v));
+			return true;
 		}
-		bucket.add(new Entry<>(k, v));
-		size++;
-
-		// Resize if load factor exceeds threshold
-		if((double) size / buckets.length > LOAD_FACTOR){
-			resize();
+		int i = locate(k, h);
+		if(i >= 0){
+			values[i] = v; // Update value if key exists
+			track(k, v);
+		}else{
+			insertAt(-1 - i, k, h, v);
 		}
 		return true;
 	}
 
+	/**
+	 Copies every mapping of {@code map} into this dictionary, replacing the values of keys already present.
+	 The table is grown once up front instead of repeatedly while the mappings are added.
+
+	 @param map the mappings to be stored in this dictionary
+	 */
+	public Dictionary<K, V> putAll(@NotNull Map<? extends K, ? extends V> map){
+		reserve(size + map.size());
+		map.forEach(this::put);
+		return this;
+	}
+
 	/**
 	 Adds a key-value pair to the dictionary if the key does not already exist.
 
@@ -148,15 +220,12 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 
 	 @return the value to which the specified key is mapped, or {@code null} if this dictionary contains no mapping for the key
 	 */
+	@SuppressWarnings("unchecked")
 	public V get(K k){
-		int bucketIndex = getBucketIndex(k);
-		List<Entry<K, V>> bucket = buckets[bucketIndex];
-		for(Entry<K, V> entry: bucket){
-			if(entry.key.equals(k)){
-				return entry.value;
-			}
-		}
-		return null; // Key not found
+		int slot = find(k);
+		if(slot != -1) return (V) valueAt(slot);
+		TreeMap<K, V> tree = overflow == null || k == null ? null : treeOf(k, hash(k));
+		return tree == null ? null : tree.get(k);
 	}
 
 	/**
@@ -182,13 +251,107 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 
 	 @return the value to which the specified key is mapped, or {@code defaultValue} if the key is not found
 	 */
+	@SuppressWarnings("unchecked")
 	public V getOrDefaultAndPut(K k, V dv) {
-		V value = get(k);
-		if (value != null) return value;
-		else{
-			put(k, dv);
-			return getOrDefault(k, dv);
+		if(k == null) throw new NullPointerException("Dictionary.getOrDefaultAndPut(K k, V dv) -> 'k' cannot be null");
+		int h = hash(k);
+		TreeMap<K, V> tree = treeOf(k, h);
+		if(tree != null) return inTree(tree, k, h, t -> {
+			V value = t.get(k);
+			if(value != null) return value;
+			t.put(k, dv);
+			return dv;
+		});
+		int i = locate(k, h);
+		if(i < 0){
+			insertAt(-1 - i, k, h, dv);
+		}else if(values[i] != null){
+			return (V) values[i];
+		}else{
+			values[i] = dv;
+			track(k, dv);
+		}
+		return dv;
+	}
+
+	/**
+	 Returns the value mapped to {@code k}, computing and storing it first if the key is absent or
+	 mapped to {@code null}. Unlike {@link #getOrDefaultAndPut(Object, Object)} the value is only
+	 created when it is needed, and the key is hashed and probed once either way.
+
+	 @param k               the key whose associated value is to be returned
+	 @param mappingFunction the function creating a value for an absent key
+
+	 @return the current (existing or computed) value, or {@code null} if the function returned {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	public V computeIfAbsent(K k, @NotNull Function<? super K, ? extends V> mappingFunction){
+		if(k == null) throw new NullPointerException("Dictionary.computeIfAbsent(K k, Function<K, V> mappingFunction) -> 'k' cannot be null");
+		int h = hash(k);
+		TreeMap<K, V> tree = treeOf(k, h);
+		if(tree != null) return inTree(tree, k, h, t -> t.computeIfAbsent(k, mappingFunction));
+		int i = locate(k, h);
+		if(i >= 0 && values[i] != null) return (V) values[i];
+		int count = modCount;
+		V value = mappingFunction.apply(k);
+		if(value == null) return null;
+		store(recheck(i, count, k, h), k, h, value);
+		return value;
+	}
+
+	/**
+	 Computes a new value for {@code k} from its current value, if the key is mapped to a non-null value.
+	 The key is removed if the function returns {@code null}.
+
+	 @param k                 the key whose value is to be recomputed
+	 @param remappingFunction the function computing the new value from the key and its current value
+
+	 @return the new value, or {@code null} if the key is absent or was removed
+	 */
+	@SuppressWarnings("unchecked")
+	public V computeIfPresent(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+		if(k == null) return null;
+		int h = hash(k);
+		TreeMap<K, V> tree = treeOf(k, h);
+		if(tree != null) return inTree(tree, k, h, t -> t.computeIfPresent(k, remappingFunction));
+		int i = locate(k, h);
+		if(i < 0 || values[i] == null) return null;
+		int count = modCount;
+		V value = remappingFunction.apply(k, (V) values[i]);
+		i = recheck(i, count, k, h);
+		if(value == null){
+			if(i >= 0) removeSlot(i, k);
+			return null;
+		}
+		store(i, k, h, value);
+		return value;
+	}
+
+	/**
+	 Computes a new value for {@code k} from its current value, or from {@code null} if the key is absent.
+	 The key is removed, or stays absent, if the function returns {@code null}.
+
+	 @param k                 the key whose value is to be computed
+	 @param remappingFunction the function computing the new value from the key and its current value
+
+	 @return the new value, or {@code null} if the key is now absent
+	 */
+	@SuppressWarnings("unchecked")
+	public V compute(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+		if(k == null) throw new NullPointerException("Dictionary.compute(K k, BiFunction<K, V, V> remappingFunction) -> 'k' cannot be null");
+		int h = hash(k);
+		TreeMap<K, V> tree = treeOf(k, h);
+		if(tree != null) return inTree(tree, k, h, t -> t.compute(k, remappingFunction));
+		int i = locate(k, h);
+		int count = modCount;
+		V value = remappingFunction.apply(k, i >= 0 ? (V) values[i] : null);
+		i = recheck(i, count, k, h);
+		if(value == null){
+			if(i >= 0) removeSlot(i, k);
+			return null;
 		}
+		store(i, k, h, value);
+		return value;
 	}
 
 	/**
@@ -200,7 +363,7 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 	 @return the value to which the specified key is mapped, or {@code null} if this dictionary contains no mapping for the key
 	 */
 	public V returnIfContains(K k){
-		return containsKey(k) ? get(k) : null;
+		return get(k);
 	}
 
 	/**
@@ -211,14 +374,7 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 	 @return {@code true} if this dictionary contains a mapping for the specified key, {@code false} otherwise
 	 */
 	public boolean containsKey(K k){
-		int bucketIndex = getBucketIndex(k);
-		List<Entry<K, V>> bucket = buckets[bucketIndex];
-		for(Entry<K, V> entry: bucket){
-			if(entry.key.equals(k)){
-				return true;
-			}
-		}
-		return false;
+		return find(k) != -1 || (overflow != null && k != null && treeOf(k, hash(k)) != null);
 	}
 
 	/**
@@ -228,13 +384,13 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 	 @param v the new value to be associated with the specified key
 	 */
 	public Dictionary<K, V> replace(K k, V v){
-		int bucketIndex = getBucketIndex(k);
-		List<Entry<K, V>> bucket = buckets[bucketIndex];
-		for(Entry<K, V> entry: bucket){
-			if(entry.key.equals(k)){
-				entry.value = v;
-				return this;
-			}
+		int slot = find(k);
+		if(slot != -1){
+			setValueAt(slot, v);
+			track(k, v);
+		}else if(overflow != null && k != null){
+			TreeMap<K, V> tree = treeOf(k, hash(k));
+			if(tree != null) inTree(tree, k, hash(k), t -> t.put(k, v));
 		}
 		return this;
 	}
@@ -249,15 +405,15 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 	 @return {@code true} if the value was replaced, {@code false} if the key was not found or the old value did not match
 	 */
 	public boolean replace(K k, V ov, V nv){
-		int bucketIndex = getBucketIndex(k);
-		List<Entry<K, V>> bucket = buckets[bucketIndex];
-		for(Entry<K, V> entry: bucket){
-			if(entry.key.equals(k) && entry.value.equals(ov)){
-				entry.value = nv;
-				return true;
-			}
+		int slot = find(k);
+		if(slot != -1 && Objects.equals(valueAt(slot), ov)){
+			setValueAt(slot, nv);
+			track(k, nv);
+			return true;
 		}
-		return false;
+		if(slot != -1 || overflow == null || k == null) return false;
+		TreeMap<K, V> tree = treeOf(k, hash(k));
+		return tree != null && inTree(tree, k, hash(k), t -> t.replace(k, ov, nv));
 	}
 
 	/**
@@ -268,14 +424,23 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 	 @param v                 the value to be associated with the specified key
 	 @param remappingFunction function to merge the old value and new value if the key exists
 	 */
+	@SuppressWarnings("unchecked")
 	public Dictionary<K, V> merge(K k, V v, BiFunction<? super V, ? super V, ? extends V> remappingFunction){
-		if(containsKey(k)){
-			V oldValue = get(k);
-			V newValue = remappingFunction.apply(oldValue, v);
-			replace(k, newValue);
-		}else{
-			put(k, v);
+		if(k == null) throw new NullPointerException("Dictionary.merge(K k, V v, BiFunction<V, V, V> remappingFunction) -> 'k' cannot be null");
+		int h = hash(k);
+		TreeMap<K, V> tree = treeOf(k, h);
+		if(tree != null){
+			inTree(tree, k, h, t -> t.put(k, remappingFunction.apply(t.get(k), v)));
+			return this;
 		}
+		int i = locate(k, h);
+		if(i < 0){
+			insertAt(-1 - i, k, h, v);
+			return this;
+		}
+		int count = modCount;
+		V merged = remappingFunction.apply((V) values[i], v);
+		store(recheck(i, count, k, h), k, h, merged);
 		return this;
 	}
 
@@ -286,11 +451,11 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 	 @param otherDictionary the dictionary whose entries are to be merged into this dictionary
 	 */
 	public Dictionary<K, V> merge(@NotNull Dictionary<K, V> otherDictionary){
-		for(K key: otherDictionary.keySet()){
-			if(!containsKey(key)){
-				put(key, otherDictionary.get(key));
+		otherDictionary.forEach((k, v) -> {
+			if(!containsKey(k)){
+				put(k, v);
 			}
-		}
+		});
 		return this;
 	}
 
@@ -305,16 +470,13 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 
 	/**
 	 Returns a list of all keys present in the dictionary.
+	 The keys are copied, use {@link #keys()} or {@link #forEach(BiConsumer)} to walk them without allocating.
 
 	 @return a list of all keys present in this dictionary
 	 */
 	public List<K> keySet(){
-		List<K> keyList = new ArrayList<>();
-		for(List<Entry<K, V>> bucket: buckets){
-			for(Entry<K, V> entry: bucket){
-				keyList.add(entry.key);
-			}
-		}
+		List<K> keyList = new ArrayList<>(size);
+		forEach((k, v) -> keyList.add(k));
 		return keyList;
 	}
 
@@ -324,14 +486,193 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 	 @param action the action to be performed for each key
 	 */
 	public Dictionary<K, V> forEach(Consumer<? super K> action){
-		for(List<Entry<K, V>> bucket: buckets){
-			for(Entry<K, V> entry: bucket){
-				action.accept(entry.key);
+		forEach((k, v) -> action.accept(k));
+		return this;
+	}
+
+	/**
+	 Performs the given action for each key-value pair in the dictionary.
+	 Every entry is visited exactly once, without copying keys or probing the table again.
+
+	 @param action the action to be performed for each key-value pair
+	 */
+	@SuppressWarnings("unchecked")
+	public Dictionary<K, V> forEach(BiConsumer<? super K, ? super V> action){
+		if(size == 0) return this;
+		Object[] ks = keys;
+		Object[] vs = values;
+		for(int i = 0; i < ks.length; i++){
+			if(ks[i] != null){
+				action.accept((K) ks[i], (V) vs[i]);
+			}
+		}
+		if(oldKeys != null){
+			ks = oldKeys;
+			vs = oldValues;
+			for(int i = 0; i < ks.length; i++){
+				if(ks[i] != null && ks[i] != TOMBSTONE){
+					action.accept((K) ks[i], (V) vs[i]);
+				}
 			}
 		}
+		if(overflow != null) overflow.forEach((h, tree) -> tree.forEach(action));
+		return this;
+	}
+
+	/**
+	 Returns a cursor positioned before the first key-value pair of the dictionary.
+	 Call {@link Cursor#advance()} before reading the first pair. A cursor allocates nothing
+	 while it walks, and {@link Cursor#remove()} is the only safe way to remove entries mid-walk.
+
+	 @return a new cursor over this dictionary
+	 */
+	public Cursor<K, V> cursor(){
+		return new TableCursor();
+	}
+
+	/**
+	 Returns a live view of the key-value pairs in this dictionary. Iterating it allocates no
+	 per-entry objects: the iterator hands out one reused entry that reflects its current position,
+	 so copy it (for example with {@code new Pair<>(entry)}) to keep it past the next step.
+
+	 @return a live set view of the entries of this dictionary
+	 */
+	public Set<Map.Entry<K, V>> entries(){
+		Set<Map.Entry<K, V>> view = entryView;
+		return view != null ? view : (entryView = new EntryView());
+	}
+
+	/**
+	 Returns a live view of the keys in this dictionary. Unlike {@link #keySet()} nothing is copied,
+	 and removing a key from the view removes its entry from the dictionary.
+
+	 @return a live set view of the keys of this dictionary
+	 */
+	public Set<K> keys(){
+		Set<K> view = keyView;
+		return view != null ? view : (keyView = new KeyView());
+	}
+
+	/**
+	 Returns a live view of the values in this dictionary.
+
+	 @return a live collection view of the values of this dictionary
+	 */
+	public Collection<V> values(){
+		Collection<V> view = valueView;
+		return view != null ? view : (valueView = new ValueView());
+	}
+
+	/**
+	 Returns a live {@link Map} view of this dictionary, for APIs that expect a {@code java.util.Map}.
+	 Reads, writes and the compute family go straight to the dictionary; {@link Map#put(Object, Object)}
+	 and {@link Map#remove(Object)} look the key up twice to report the previous value.
+
+	 @return a live map view of this dictionary
+	 */
+	public Map<K, V> asMap(){
+		Map<K, V> view = mapView;
+		return view != null ? view : (mapView = new MapView());
+	}
+
+	/**
+	 Returns a spliterator over the key-value pairs of this dictionary. It splits the table into
+	 halves of slots, so it can feed a parallel stream or the bulk operations below. Entries are
+	 read-only copies, and the dictionary must not be modified while it is traversed.
+
+	 @return a new spliterator over the entries of this dictionary
+	 */
+	public Spliterator<Map.Entry<K, V>> spliterator(){
+		if(size == 0) return Spliterators.emptySpliterator();
+		List<TreeMap<K, V>> trees = null;
+		if(overflow != null){
+			List<TreeMap<K, V>> copy = new ArrayList<>(overflow.size());
+			overflow.forEach((h, tree) -> copy.add(tree));
+			trees = copy;
+		}
+		return new TableSpliterator<>(keys, values, oldKeys, oldValues, trees, size);
+	}
+
+	/**
+	 Performs the given action for each key-value pair, in parallel on the common
+	 {@link ForkJoinPool} once the dictionary holds at least {@code parallelismThreshold} pairs,
+	 as {@link java.util.concurrent.ConcurrentHashMap#forEach(long, BiConsumer)} does.
+	 The action may run on several threads at once, and the dictionary must not be modified until it returns.
+
+	 @param parallelismThreshold the number of pairs above which the work is split, {@code Long.MAX_VALUE} to run sequentially
+	 @param action               the action to be performed for each key-value pair
+	 */
+	public Dictionary<K, V> forEach(long parallelismThreshold, @NotNull BiConsumer<? super K, ? super V> action){
+		Objects.requireNonNull(action, "Dictionary.forEach(long parallelismThreshold, BiConsumer<K, V> action) -> 'action' cannot be null");
+		bulk(spliterator(), size(), parallelismThreshold, split -> {
+			forEachPair(split, action);
+			return null;
+		}, (a, b) -> null);
 		return this;
 	}
 
+	/**
+	 Returns a non-null result of the search function applied to some key-value pair, in parallel once the
+	 dictionary holds at least {@code parallelismThreshold} pairs. The search stops on every thread
+	 as soon as one result is found, so which matching pair wins is unspecified.
+
+	 @param parallelismThreshold the number of pairs above which the work is split, {@code Long.MAX_VALUE} to run sequentially
+	 @param searchFunction       returns a result for a matching pair, {@code null} otherwise
+
+	 @return a non-null result of {@code searchFunction}, or {@code null} if no pair matched
+	 */
+	public <U> U search(long parallelismThreshold, @NotNull BiFunction<? super K, ? super V, ? extends U> searchFunction){
+		Objects.requireNonNull(searchFunction, "Dictionary.search(long parallelismThreshold, BiFunction<K, V, U> searchFunction) -> 'searchFunction' cannot be null");
+		AtomicReference<U> result = new AtomicReference<>();
+		return bulk(spliterator(), size(), parallelismThreshold, split -> {
+			BiConsumer<K, V> test = (k, v) -> {
+				U u = searchFunction.apply(k, v);
+				if(u != null) result.compareAndSet(null, u);
+			};
+			while(result.get() == null && advancePair(split, test));
+			return result.get();
+		}, (a, b) -> result.get());
+	}
+
+	/**
+	 Reduces all values with the given reducer, in parallel once the dictionary holds at least
+	 {@code parallelismThreshold} pairs. {@code null} values are skipped. The reducer should be
+	 associative, since the order in which partial results are combined is unspecified.
+
+	 @param parallelismThreshold the number of pairs above which the work is split, {@code Long.MAX_VALUE} to run sequentially
+	 @param reducer              combines two values
+
+	 @return the reduction of all non-null values, or {@code null} if there are none
+	 */
+	public V reduceValues(long parallelismThreshold, @NotNull BiFunction<? super V, ? super V, ? extends V> reducer){
+		return reduceValues(parallelismThreshold, Function.identity(), reducer);
+	}
+
+	/**
+	 Transforms every value and reduces the results with the given reducer, in parallel once the
+	 dictionary holds at least {@code parallelismThreshold} pairs. {@code null} values and
+	 {@code null} transformations are skipped, as in {@link java.util.concurrent.ConcurrentHashMap}.
+
+	 @param parallelismThreshold the number of pairs above which the work is split, {@code Long.MAX_VALUE} to run sequentially
+	 @param transformer          maps a value to the element to reduce, or to {@code null} to skip it
+	 @param reducer              combines two transformed elements
+
+	 @return the reduction of all non-null transformations, or {@code null} if there are none
+	 */
+	@SuppressWarnings("unchecked")
+	public <U> U reduceValues(long parallelismThreshold, @NotNull Function<? super V, ? extends U> transformer, @NotNull BiFunction<? super U, ? super U, ? extends U> reducer){
+		Objects.requireNonNull(transformer, "Dictionary.reduceValues(long parallelismThreshold, Function<V, U> transformer, BiFunction<U, U, U> reducer) -> 'transformer' cannot be null");
+		Objects.requireNonNull(reducer, "Dictionary.reduceValues(long parallelismThreshold, Function<V, U> transformer, BiFunction<U, U, U> reducer) -> 'reducer' cannot be null");
+		return bulk(spliterator(), size(), parallelismThreshold, split -> {
+			Object[] partial = {null};
+			forEachPair(split, (k, v) -> {
+				U u = v == null ? null : transformer.apply(v);
+				if(u != null) partial[0] = partial[0] == null ? u : reducer.apply((U) partial[0], u);
+			});
+			return (U) partial[0];
+		}, (a, b) -> a == null ? b : b == null ? a : reducer.apply(a, b));
+	}
+
 	/**
 	 Checks if the dictionary contains at least one key-value pair with the specified value.
 
@@ -340,12 +681,12 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 	 @return {@code true} if this dictionary contains at least one key-value pair with the specified value, {@code false} otherwise
 	 */
 	public boolean containsValue(V v){
-		for(List<Entry<K, V>> bucket: buckets){
-			for(Entry<K, V> entry: bucket){
-				if(entry.value.equals(v)){
-					return true;
-				}
-			}
+		if(size == 0) return false;
+		if(containsValue(keys, values, v) || (oldKeys != null && containsValue(oldKeys, oldValues, v))) return true;
+		if(overflow == null) return false;
+		IntDictionary.Cursor<TreeMap<K, V>> cursor = overflow.cursor();
+		while(cursor.advance()){
+			if(cursor.value().containsValue(v)) return true;
 		}
 		return false;
 	}
@@ -358,27 +699,49 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 	 @return the previous value associated with the specified key, or {@code null} if there was no mapping for the key
 	 */
 	public boolean remove(K k){
-		int bucketIndex = getBucketIndex(k);
-		List<Entry<K, V>> bucket = buckets[bucketIndex];
-		for(Entry<K, V> entry: bucket){
-			if(entry.key.equals(k)){
-				bucket.remove(entry);
-				size--;
-				return true;
-			}
+		if(oldKeys != null) step();
+		int slot = find(k);
+		if(slot == -1){
+			TreeMap<K, V> tree = overflow == null || k == null ? null : treeOf(k, hash(k));
+			if(tree == null) return false; // Key not found
+			inTree(tree, k, hash(k), t -> t.remove(k));
+			if(recorder != null) recorder.removed(size, keys.length);
+			return true;
+		}
+		if(slot >= 0){
+			removeAt(slot);
+		}else{
+			modCount++;
+			oldKeys[-2 - slot] = TOMBSTONE;
+			oldValues[-2 - slot] = null;
+			size--;
+			if(recorder != null) recorder.removed(size, keys.length);
 		}
-		return false; // Key not found
+		untrack(k);
+		shrinkIfSparse();
+		return true;
 	}
 
 	/**
 	 Removes all key-value pairs from the dictionary.
-	 The dictionary will be empty after this call returns.
+	 The dictionary will be empty after this call returns. A table that had grown past its initial
+	 capacity is released while {@link #autoShrink(boolean) auto-shrinking} is enabled, and
+	 reallocated at the initial capacity on the next insertion.
 	 */
 	public Dictionary<K, V> clear(){
-		for(int i = 0; i < buckets.length; i++){
-			buckets[i].clear();
+		if(keys != null && autoShrink && keys.length > initialCapacity){
+			keys = null;
+			values = null;
+			hashes = null;
+		}else if(keys != null){
+			Arrays.fill(keys, null);
+			Arrays.fill(values, null);
 		}
+		dropOldTable();
+		overflow = null;
 		size = 0;
+		modCount++;
+		if(snapshot != null) snapshot = PersistentDictionary.empty();
 		return this;
 	}
 
@@ -392,12 +755,12 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 	}
 
 	/**
-	 Returns the capacity of the dictionary (number of buckets).
+	 Returns the capacity of the dictionary (number of slots).
 
-	 @return the current capacity (number of buckets) of this dictionary
+	 @return the current capacity (number of slots) of this dictionary
 	 */
 	public int capacity(){
-		return buckets.length;
+		return keys == null ? initialCapacity : keys.length;
 	}
 
 	/**
@@ -406,133 +769,1780 @@ public class Dictionary<K, V> implements ConfigurationSerializable {
 	 @return the load factor threshold for resizing
 	 */
 	public double loadFactor(){
-		return LOAD_FACTOR;
+		return loadFactor;
 	}
 
 	/**
-	 Returns a string representation of the dictionary.
+	 Switches between blocking and incremental resizing. When enabled, growing the table no longer
+	 rehashes every entry at once: the old table stays live and every {@code put} or {@code remove}
+	 moves at most a fixed number of its slots, keeping worst-case write latency flat for very large
+	 dictionaries. Disabling it finishes any resize that is still running.
 
-	 @return a string representation of the dictionary
+	 @param enabled whether the table should be resized incrementally
+
+	 @return this dictionary
 	 */
-	@Override
-	public String toString(){
-		StringBuilder sb = new StringBuilder();
-		sb.append("{");
-		for(List<Entry<K, V>> bucket: buckets){
-			for(Entry<K, V> entry: bucket){
-				sb.append(entry.key).append("=").append(entry.value).append(", ");
-			}
+	public Dictionary<K, V> incrementalResize(boolean enabled){
+		this.incrementalResize = enabled;
+		if(!enabled && oldKeys != null) migrate(oldKeys.length);
+		return this;
+	}
+
+	/**
+	 Returns whether this dictionary resizes incrementally.
+
+	 @return {@code true} if incremental resizing is enabled
+	 */
+	public boolean isIncrementalResize(){
+		return incrementalResize;
+	}
+
+	/**
+	 Returns whether an incremental resize is still moving entries out of the previous table.
+
+	 @return {@code true} while two tables are live
+	 */
+	public boolean isResizing(){
+		return oldKeys != null;
+	}
+
+	/**
+	 Switches automatic shrinking on or off. While enabled, which is the default, a table that has
+	 grown past its initial capacity is rebuilt at a smaller size once {@code remove} or the compute
+	 family leaves it less than an eighth full, and {@link #clear()} releases it entirely. Removals
+	 through a cursor never shrink the table, so the walk stays valid. Disable it for tables that
+	 fill and drain constantly, where rebuilding would only cost time.
+
+	 @param enabled whether the table should shrink when it becomes sparse
+
+	 @return this dictionary
+	 */
+	public Dictionary<K, V> autoShrink(boolean enabled){
+		this.autoShrink = enabled;
+		return this;
+	}
+
+	/**
+	 Returns whether this dictionary shrinks its table when it becomes sparse.
+
+	 @return {@code true} if automatic shrinking is enabled
+	 */
+	public boolean isAutoShrink(){
+		return autoShrink;
+	}
+
+	/**
+	 Shrinks the table to the smallest capacity that holds the current entries within the load factor,
+	 finishing any incremental resize first. An empty dictionary releases its table altogether.
+
+	 @return this dictionary
+	 */
+	public Dictionary<K, V> trimToSize(){
+		if(oldKeys != null) migrate(oldKeys.length);
+		if(keys == null) return this;
+		if(size == 0){
+			keys = null;
+			values = null;
+			hashes = null;
+			modCount++;
+			return this;
 		}
-		if(sb.length() > 1){
-			sb.setLength(sb.length() - 2); // Remove the last ", "
+		int capacity = tableSizeFor((int) Math.min(MAXIMUM_CAPACITY, (long) (size / loadFactor) + 2));
+		if(capacity < keys.length) resize(capacity);
+		return this;
+	}
+
+	/**
+	 Estimates the bytes this dictionary retains on its own: its slot arrays, the table being drained
+	 by an incremental resize, overflow trees, metrics counters and a tracked snapshot. The keys and
+	 values themselves are not counted, as they are usually referenced from elsewhere as well.
+	 The estimate assumes a 64-bit JVM with compressed references.
+
+	 @return the estimated retained size in bytes
+	 */
+	public long estimatedRetainedBytes(){
+		long bytes = SHALLOW_BYTES;
+		if(keys != null) bytes += 2 * referenceArrayBytes(keys.length) + intArrayBytes(keys.length);
+		if(oldKeys != null) bytes += 2 * referenceArrayBytes(oldKeys.length) + intArrayBytes(oldKeys.length);
+		if(overflow != null){
+			long[] trees = {SHALLOW_BYTES + intArrayBytes(overflow.capacity()) + referenceArrayBytes(overflow.capacity())};
+			overflow.forEach((h, tree) -> trees[0] += TREE_BYTES + (long) TREE_ENTRY_BYTES * tree.size());
+			bytes += trees[0];
 		}
-		sb.append("}");
-		return sb.toString();
+		if(recorder != null) bytes += Recorder.BYTES;
+		PersistentDictionary<K, V> tracked = snapshot;
+		if(tracked != null) bytes += tracked.estimatedBytes();
+		return bytes;
 	}
 
-	// Private helper methods
+	/**
+	 Switches snapshot tracking on or off. While enabled, a {@link PersistentDictionary} is kept in
+	 step with every write, at the cost of copying O(log32 n) trie nodes per {@code put} or {@code remove},
+	 so that {@link #snapshot()} is O(1). Enabling it copies the current pairs once.
+
+	 @param enabled whether snapshots should be tracked
+
+	 @return this dictionary
+	 */
+	public Dictionary<K, V> trackSnapshots(boolean enabled){
+		this.snapshot = enabled ? PersistentDictionary.copyOf(this) : null;
+		return this;
+	}
 
 	/**
-	 Calculates the bucket index for the given key.
+	 Returns whether this dictionary keeps its snapshot in step with every write.
+
+	 @return {@code true} if snapshot tracking is enabled
+	 */
+	public boolean isTrackingSnapshots(){
+		return snapshot != null;
+	}
 
-	 @param k the key for which the bucket index is calculated
+	/**
+	 Returns an immutable copy of the current pairs that any thread may read without locking,
+	 while this dictionary keeps changing on its owning thread. The copy is O(1) when
+	 {@link #trackSnapshots(boolean) snapshot tracking} is enabled, and O(n) otherwise.
 
-	 @return the bucket index
+	 @return a snapshot of this dictionary
 	 */
-	private int getBucketIndex(@NotNull K k){
-		return Math.abs(k.hashCode() % buckets.length);
+	public PersistentDictionary<K, V> snapshot(){
+		PersistentDictionary<K, V> current = snapshot;
+		return current != null ? current : PersistentDictionary.copyOf(this);
 	}
 
 	/**
-	 Resizes the array of buckets when the load factor threshold is exceeded.
-	 Increases the capacity by doubling the number of buckets.
+	 Switches flood protection on or off, for dictionaries keyed on input that players control,
+	 such as chat words, nicknames or sign text. While enabled, hashes are mixed with a random
+	 per-instance seed, so colliding keys can no longer be crafted against a known table layout.
+	 Keys whose {@code hashCode} values are fully equal, which no seed can separate, keep a
+	 lookup cost of O(log n): past {@value #TREEIFY_THRESHOLD} of them per hash, further
+	 {@link Comparable} keys are kept in a sorted tree. Switching rehashes every entry.
+
+	 @param enabled whether this dictionary should be protected against hash flooding
+
+	 @return this dictionary
 	 */
-	@Contract(" -> this")
-	private Dictionary<K, V> resize(){
-		List<Entry<K, V>>[] oldBuckets = buckets;
-		buckets = new ArrayList[oldBuckets.length * 2];
-		for(int i = 0; i < buckets.length; i++){
-			buckets[i] = new ArrayList<>();
+	@SuppressWarnings("unchecked")
+	public Dictionary<K, V> floodProtection(boolean enabled){
+		if(enabled == (seed != 0)) return this;
+		int newSeed = 0;
+		while(enabled && newSeed == 0){
+			newSeed = ThreadLocalRandom.current().nextInt();
 		}
-		for(List<Entry<K, V>> bucket: oldBuckets){
-			for(Entry<K, V> entry: bucket){
-				int bucketIndex = getBucketIndex(entry.key);
-				buckets[bucketIndex].add(entry);
-			}
+		Object[] pairs = new Object[size << 1];
+		int[] n = {0};
+		forEach((k, v) -> {
+			pairs[n[0]++] = k;
+			pairs[n[0]++] = v;
+		});
+		// Rebuild without touching the snapshot or the counters, the pairs themselves do not change
+		PersistentDictionary<K, V> tracked = snapshot;
+		Recorder recording = recorder;
+		snapshot = null;
+		recorder = null;
+		keys = null;
+		values = null;
+		hashes = null;
+		dropOldTable();
+		overflow = null;
+		size = 0;
+		seed = newSeed;
+		reserve(n[0] >> 1);
+		for(int i = 0; i < n[0]; i += 2){
+			put((K) pairs[i], (V) pairs[i + 1]);
 		}
+		snapshot = tracked;
+		recorder = recording;
 		return this;
 	}
 
 	/**
+	 Returns whether this dictionary is protected against hash flooding.
 
-	 SERIALIZATION FOR YamlConfiguration's:
-	 <p>
-	 Use {@code serialize()} to input the dictionary and into the file {@code config.set(path, serialize())} and use
-	 {@code deserialize(map)} to read dictionaries from inside of a file {@code deserialize(config.getMap(path))}.
+	 @return {@code true} if flood protection is enabled
+	 */
+	public boolean isFloodProtected(){
+		return seed != 0;
+	}
+
+	/**
+	 Switches metrics recording on or off. While enabled, every lookup, write, removal and resize
+	 bumps a counter, and the load is sampled every 1024 insertions or removals. The overhead is
+	 a few field increments per operation, cheap enough to leave on in production.
+	 Enabling it again starts from zero.
+
+	 @param enabled whether metrics should be recorded
+
+	 @return this dictionary
+	 */
+	public Dictionary<K, V> recordMetrics(boolean enabled){
+		this.recorder = enabled ? new Recorder() : null;
+		return this;
+	}
+
+	/**
+	 Returns whether this dictionary records metrics.
+
+	 @return {@code true} if metrics recording is enabled
+	 */
+	public boolean isRecordingMetrics(){
+		return recorder != null;
+	}
+
+	/**
+	 Returns the recorded counters together with the current shape of the table: how far each
+	 entry sits from its home slot, the longest run of occupied slots, and how many entries share
+	 a full hash with another. Long probes with few shared hashes point at the load factor, many
+	 shared hashes at the keys' {@code hashCode}. The counters are zero unless
+	 {@link #recordMetrics(boolean) metrics are recorded}; the table shape is always measured.
+	 This walks the whole table, so call it from a command or a periodic log rather than per operation.
+
+	 @return the metrics of this dictionary
+	 */
+	public Metrics metrics(){
+		Recorder r = recorder != null ? recorder : new Recorder();
+		int[] probeLengths = new int[Metrics.PROBE_BUCKETS];
+		long totalProbe = 0;
+		int measured = 0;
+		int maxProbe = 0;
+		int longestRun = 0;
+		int collidingHashes = 0;
+		Object[] ks = keys;
+		if(ks != null && size > 0){
+			int[] hs = hashes;
+			int m = mask;
+			int[] occupied = new int[ks.length];
+			int n = 0;
+			// Runs are measured from a free slot, so one that wraps around the end of the table is counted whole
+			int start = 0;
+			while(ks[start] != null) start++;
+			int run = 0;
+			for(int step = 1; step <= ks.length; step++){
+				int i = (start + step) & m;
+				if(ks[i] == null){
+					run = 0;
+					continue;
+				}
+				longestRun = Math.max(longestRun, ++run);
+				int probe = (i - (hs[i] & m)) & m;
+				probeLengths[Math.min(probe, Metrics.PROBE_BUCKETS - 1)]++;
+				totalProbe += probe;
+				maxProbe = Math.max(maxProbe, probe);
+				occupied[n++] = hs[i];
+			}
+			measured = n;
+			Arrays.sort(occupied, 0, n);
+			for(int i = 1; i < n; i++){
+				if(occupied[i] == occupied[i - 1]) collidingHashes++;
+			}
+		}
+		return new Metrics(size, capacity(), r.reads, r.readHits, r.writes, r.writeHits, r.inserts, r.removals,
+				r.resizes, r.resizeNanos, probeLengths, measured == 0 ? 0 : (double) totalProbe / measured, maxProbe, longestRun, collidingHashes, r.loadHistory());
+	}
+
+	/**
+	 Returns a string representation of the dictionary.
 
+	 @return a string representation of the dictionary
 	 */
 	@Override
-	public Map<String, Object> serialize() {
+	public String toString(){
 		StringBuilder sb = new StringBuilder();
 		sb.append("{");
-		for (List<Entry<K, V>> bucket : buckets) {
-			for (Entry<K, V> entry : bucket) {
-				sb.append("\"").append(entry.key).append("\": \"").append(entry.value).append("\", ");
-			}
-		}
-		if (sb.length() > 1) {
-			sb.setLength(sb.length() - 2);
+		forEach((k, v) -> sb.append(k).append("=").append(v).append(", "));
+		if(sb.length() > 1){
+			sb.setLength(sb.length() - 2); // Remove the last ", "
 		}
 		sb.append("}");
-
-		Map<String, Object> serializedMap = new HashMap<>();
-		serializedMap.put("json", sb.toString());
-		return serializedMap;
+		return sb.toString();
 	}
 
+	// Private helper methods
 
 	/**
+	 Scrambles a key's hash code so that keys with poor low bits (sequential integers,
+	 small enums, similar strings) still spread evenly across a power-of-two table.
 
-	 DESERIALIZATION FOR YamlConfiguration's:
-	 <p>
-	 Use {@code serialize()} to input the dictionary and into the file {@code config.set(path, serialize())} and use
-	 {@code deserialize(map)} to read dictionaries from inside of a file {@code deserialize(config.getMap(path))}.
+	 @param h the raw hash code
 
+	 @return the spread hash
 	 */
-	public static @NotNull Dictionary<String, String> deserialize(@NotNull Map<String, Object> map) {
-		Dictionary<String, String> dictionary = new Dictionary<>();
-		String json = (String) map.get("json");
+	static int spread(int h){
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
 
-		// Remove the curly braces and split by comma
-		String[] entries = json.substring(1, json.length() - 1).split(", ");
-		for (String entry : entries) {
-			String[] keyValue = entry.split(":( )?");
-			if (keyValue.length == 2) {
-				String key = keyValue[0].replace("\"", "");
-				String value = keyValue[1].replace("\"", "");
-				dictionary.put(key, value);
-			}
-		}
-		return dictionary;
+	/**
+	 Hashes a key for this table. Flood-protected dictionaries mix in their seed, so an attacker who
+	 controls the keys cannot predict which of them share a slot.
+
+	 @param k the key
+
+	 @return the hash stored for the key
+	 */
+	private int hash(Object k){
+		return hash(k.hashCode(), seed);
 	}
 
-	// JSON IMPLEMENTATION
+	/**
+	 Hashes a key's hash code with the given seed, or just {@link #spread(int) spreads} it when the seed is 0.
 
-	public String toJson(@NotNull Dictionary<K, V> dictionary){
-		Map<K, V> map = new HashMap<>();
-		for(K s: dictionary.keySet()){
-			map.put(s, dictionary.getOrDefault(s, (V) ""));
-		}
-		return new Gson().toJson(map);
+	 @param h    the raw hash code
+	 @param seed the per-instance seed
+
+	 @return the hash stored for the key
+	 */
+	static int hash(int h, int seed){
+		if(seed == 0) return spread(h);
+		// The finalizer of MurmurHash3, every input bit affects every output bit
+		h ^= seed;
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		return h ^ (h >>> 16);
 	}
 
-	public Dictionary<K, V> fromJson(String str) {
-		Dictionary<K, V> dictionary = new Dictionary<K, V>();
-		Map gson = new Gson().fromJson(str, new HashMap<K, V>().getClass());
-		for (int i = 0; i < gson.size(); i++) {
-			dictionary.put((K) gson.keySet().toArray()[i], (V) gson.get(gson.keySet().toArray()[i]));
-		}
-		return dictionary;
+	/**
+	 Rounds a requested capacity up to a power of two within the supported range.
+
+	 @param capacity the requested capacity
+
+	 @return the table size
+	 */
+	static int tableSizeFor(int capacity){
+		if(capacity <= 4) return 4;
+		if(capacity >= MAXIMUM_CAPACITY) return MAXIMUM_CAPACITY;
+		return Integer.highestOneBit(capacity - 1) << 1;
+	}
+
+	/**
+	 Finds the slot holding the given key in either live table.
+
+	 @param k the key to look for
+
+	 @return the slot index in the current table, {@code -2 - index} for a slot of the table
+	 being drained by an incremental resize, or {@code -1} if the key is not present
+	 */
+	private int find(Object k){
+		int slot = -1;
+		if(k != null && size != 0){
+			int h = hash(k);
+			slot = indexOf(k, h);
+			if(slot < 0 && oldKeys != null){
+				int o = oldIndexOf(k, h);
+				if(o >= 0) slot = -2 - o;
+			}
+		}
+		if(recorder != null) recorder.read(slot != -1);
+		return slot;
+	}
+
+	/**
+	 Prepares a write to {@code k}: allocates the table, advances an incremental resize and finds the key.
+
+	 @param k the key to look for
+	 @param h the spread hash of the key
+
+	 @return the slot of the key, or {@code -1 - i} where {@code i} is the free slot it would take
+	 */
+	private int locate(Object k, int h){
+		if(keys == null) allocate(initialCapacity);
+		if(oldKeys != null) step();
+		int slot = probe(k, h);
+		if(recorder != null) recorder.write(slot >= 0);
+		return slot;
+	}
+
+	/**
+	 Moves one step of a running incremental resize, timing it while metrics are recorded.
+	 */
+	private void step(){
+		if(recorder == null){
+			migrate(MIGRATION_STEP);
+			return;
+		}
+		long start = System.nanoTime();
+		migrate(MIGRATION_STEP);
+		recorder.resizeNanos += System.nanoTime() - start;
+	}
+
+	/**
+	 Finds the slot of a key in the current table, moving it over from the table being drained by
+	 an incremental resize if it is still there, so that every write can update the slot in place.
+
+	 @param k the key to look for
+	 @param h the spread hash of the key
+
+	 @return the slot of the key, or {@code -1 - i} where {@code i} is the free slot it would take
+	 */
+	private int probe(Object k, int h){
+		Object[] ks = keys;
+		int[] hs = hashes;
+		int m = mask;
+		int i = h & m;
+		Object current;
+		while((current = ks[i]) != null){
+			if(hs[i] == h && (current == k || current.equals(k))){
+				return i;
+			}
+			i = (i + 1) & m;
+		}
+		if(oldKeys != null){
+			int o = oldIndexOf(k, h);
+			if(o >= 0){
+				modCount++;
+				ks[i] = oldKeys[o];
+				values[i] = oldValues[o];
+				hs[i] = h;
+				oldKeys[o] = TOMBSTONE;
+				oldValues[o] = null;
+				return i;
+			}
+		}
+		return -1 - i;
+	}
+
+	/**
+	 Confirms a slot found before a user function ran. If the function added, removed or moved any
+	 slot of this dictionary, the key is looked up again: a removal can shift entries back and open
+	 a gap earlier in the probe run, past which a key written to the saved slot would never be found.
+
+	 @param i     the result of {@link #probe(Object, int)} before the function ran
+	 @param count the {@link #modCount} at that time
+
+	 @return the current result of {@link #probe(Object, int)}
+	 */
+	private int recheck(int i, int count, Object k, int h){
+		if(modCount == count) return i;
+		// The function put the key into an overflow tree, which the slot found before cannot account for
+		if(overflow != null && treeOf(k, h) != null) throw new ConcurrentModificationException();
+		if(keys == null) allocate(initialCapacity);
+		return probe(k, h);
+	}
+
+	private void store(int i, K k, int h, V v){
+		if(i >= 0){
+			values[i] = v;
+			track(k, v);
+		}else{
+			insertAt(-1 - i, k, h, v);
+		}
+	}
+
+	private void insertAt(int i, K k, int h, V v){
+		modCount++;
+		if(seed != 0 && k instanceof Comparable && crowded(i, h) && treeInsert(k, h, v)) return;
+		keys[i] = k;
+		values[i] = v;
+		hashes[i] = h;
+		track(k, v);
+
+		if(recorder != null) recorder.inserted(size + 1, keys.length);
+
+		// Resize if load factor exceeds threshold
+		if(++size > threshold){
+			long start = recorder != null ? System.nanoTime() : 0;
+			grow();
+			if(recorder != null) recorder.resized(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 Checks whether the probe run from the home slot of {@code h} up to slot {@code i} already holds
+	 {@link #TREEIFY_THRESHOLD} keys with exactly that hash.
+	 */
+	private boolean crowded(int i, int h){
+		int[] hs = hashes;
+		int m = mask;
+		int count = 0;
+		for(int j = h & m; j != i; j = (j + 1) & m){
+			if(hs[j] == h && ++count >= TREEIFY_THRESHOLD) return true;
+		}
+		return false;
+	}
+
+	/**
+	 Adds a key to the overflow tree of its hash.
+
+	 @return {@code false} if the tree holds keys of another class, which the key cannot be compared with
+	 */
+	private boolean treeInsert(K k, int h, V v){
+		if(overflow == null) overflow = new IntDictionary<>();
+		TreeMap<K, V> tree = overflow.get(h);
+		if(tree == null){
+			tree = new TreeMap<>();
+			overflow.put(h, tree);
+		}else if(tree.firstKey().getClass() != k.getClass()){
+			return false;
+		}
+		tree.put(k, v);
+		size++;
+		track(k, v);
+		if(recorder != null) recorder.inserted(size, keys.length);
+		return true;
+	}
+
+	/**
+	 Returns the overflow tree holding {@code k}, or {@code null} if the key is not in one.
+	 */
+	private TreeMap<K, V> treeOf(Object k, int h){
+		if(overflow == null) return null;
+		TreeMap<K, V> tree = overflow.get(h);
+		return tree != null && tree.firstKey().getClass() == k.getClass() && tree.containsKey(k) ? tree : null;
+	}
+
+	/**
+	 Runs an operation on the overflow tree holding {@code k}, keeping the size, the snapshot and
+	 the set of trees in step with whatever the operation did to the key.
+	 */
+	private <R> R inTree(TreeMap<K, V> tree, K k, int h, Function<TreeMap<K, V>, R> operation){
+		int before = tree.size();
+		R result = operation.apply(tree);
+		modCount++;
+		size += tree.size() - before;
+		if(tree.containsKey(k)) track(k, tree.get(k));
+		else untrack(k);
+		if(tree.isEmpty()) dropTree(h);
+		return result;
+	}
+
+	private void dropTree(int h){
+		overflow.remove(h);
+		if(overflow.isEmpty()) overflow = null;
+	}
+
+	private void removeSlot(int i, K k){
+		removeAt(i);
+		untrack(k);
+		shrinkIfSparse();
+	}
+
+	/**
+	 Rebuilds a table that has grown past its initial capacity at a smaller size once it is less than
+	 1/{@link #SHRINK_DIVISOR} full. Never called while a cursor may be walking the table.
+	 */
+	private void shrinkIfSparse(){
+		if(!autoShrink || keys == null || oldKeys != null) return;
+		int length = keys.length;
+		if(length <= initialCapacity || size > length / SHRINK_DIVISOR) return;
+		int capacity = Math.max(initialCapacity, tableSizeFor(size << 2));
+		if(capacity < length) resize(capacity);
+	}
+
+	/**
+	 Wraps {@link #cursor()} in a spliterator of read-only entry copies, for subclasses that keep
+	 their pairs outside the table. It splits by copying growing batches of entries into arrays.
+
+	 @param characteristics characteristics besides {@code DISTINCT} and {@code NONNULL}; with {@code SIZED}, {@link #size()} is exact
+	 */
+	Spliterator<Map.Entry<K, V>> cursorSpliterator(int characteristics){
+		Cursor<K, V> cursor = cursor();
+		Iterator<Map.Entry<K, V>> iterator = new Iterator<>(){
+			private boolean ready;
+			private boolean hasNext;
+
+			@Override
+			public boolean hasNext(){
+				if(!ready){
+					hasNext = cursor.advance();
+					ready = true;
+				}
+				return hasNext;
+			}
+
+			@Override
+			public Map.Entry<K, V> next(){
+				if(!hasNext()) throw new NoSuchElementException();
+				ready = false;
+				return new AbstractMap.SimpleImmutableEntry<>(cursor.key(), cursor.value());
+			}
+		};
+		characteristics |= Spliterator.DISTINCT | Spliterator.NONNULL;
+		if((characteristics & Spliterator.SIZED) != 0) return Spliterators.spliterator(iterator, size(), characteristics);
+		return Spliterators.spliteratorUnknownSize(iterator, characteristics);
+	}
+
+	/**
+	 Runs {@code leaf} over the whole spliterator on this thread, or splits it into up to four batches
+	 per thread of the common pool, as {@link java.util.concurrent.ConcurrentHashMap} sizes its bulk tasks.
+
+	 @param split     the spliterator to process
+	 @param size      the number of pairs, since some spliterators cannot estimate it
+	 @param threshold the number of pairs from which the work is split
+	 @param leaf      processes one batch
+	 @param combine   combines the results of two adjacent batches, the earlier one first
+	 */
+	private static <T, R> R bulk(Spliterator<T> split, long size, long threshold, Function<Spliterator<T>, R> leaf, BinaryOperator<R> combine){
+		if(threshold == Long.MAX_VALUE || size <= 1 || size < threshold) return leaf.apply(split);
+		int most = ForkJoinPool.getCommonPoolParallelism() << 2;
+		int batch = threshold <= 0 || size / threshold >= most ? most : (int) (size / threshold);
+		return ForkJoinPool.commonPool().invoke(new BulkTask<>(split, batch, leaf, combine));
+	}
+
+	// Walks the pairs without allocating an entry per pair when the spliterator is a table spliterator
+	@SuppressWarnings("unchecked")
+	private static <K, V> void forEachPair(Spliterator<Map.Entry<K, V>> split, BiConsumer<? super K, ? super V> action){
+		if(split instanceof TableSpliterator<?, ?> table) ((TableSpliterator<K, V>) table).forEachPair(action);
+		else split.forEachRemaining(e -> action.accept(e.getKey(), e.getValue()));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> boolean advancePair(Spliterator<Map.Entry<K, V>> split, BiConsumer<? super K, ? super V> action){
+		if(split instanceof TableSpliterator<?, ?> table) return ((TableSpliterator<K, V>) table).advancePair(action);
+		return split.tryAdvance(e -> action.accept(e.getKey(), e.getValue()));
+	}
+
+	static long referenceArrayBytes(int length){
+		return align(ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * length);
+	}
+
+	static long intArrayBytes(int length){
+		return align(ARRAY_HEADER_BYTES + 4L * length);
+	}
+
+	static long align(long bytes){
+		return (bytes + 7) & ~7L;
+	}
+
+	/**
+	 Grows the table ahead of a bulk insertion so it can take {@code expected} entries without resizing.
+
+	 @param expected the number of entries the table should hold
+	 */
+	private void reserve(int expected){
+		int capacity = tableSizeFor((int) Math.min(MAXIMUM_CAPACITY, (long) (expected / loadFactor) + 2));
+		if(keys == null){
+			allocate(Math.max(initialCapacity, capacity));
+		}else if(capacity > keys.length){
+			long start = recorder != null ? System.nanoTime() : 0;
+			if(oldKeys != null) migrate(oldKeys.length);
+			resize(capacity);
+			if(recorder != null) recorder.resized(System.nanoTime() - start);
+		}
+	}
+
+	private void track(K k, V v){
+		PersistentDictionary<K, V> current = snapshot;
+		if(current != null) snapshot = current.with(k, v);
+	}
+
+	private void untrack(K k){
+		PersistentDictionary<K, V> current = snapshot;
+		if(current != null) snapshot = current.without(k);
+	}
+
+	private Object valueAt(int slot){
+		return slot >= 0 ? values[slot] : oldValues[-2 - slot];
+	}
+
+	private void setValueAt(int slot, Object v){
+		if(slot >= 0) values[slot] = v;
+		else oldValues[-2 - slot] = v;
+	}
+
+	/**
+	 Finds the slot holding the given key in the current table.
+
+	 @param k the key to look for
+	 @param h the spread hash of the key
+
+	 @return the slot index, or {@code -1} if the key is not present
+	 */
+	private int indexOf(Object k, int h){
+		Object[] ks = keys;
+		int[] hs = hashes;
+		int m = mask;
+		int i = h & m;
+		Object current;
+		while((current = ks[i]) != null){
+			if(hs[i] == h && (current == k || current.equals(k))){
+				return i;
+			}
+			i = (i + 1) & m;
+		}
+		return -1;
+	}
+
+	/**
+	 Finds the slot holding the given key in the table being drained by an incremental resize.
+	 Emptied slots there are tombstones, so the probe simply steps over them.
+
+	 @param k the key to look for
+	 @param h the spread hash of the key
+
+	 @return the slot index, or {@code -1} if the key is not present
+	 */
+	private int oldIndexOf(Object k, int h){
+		Object[] ks = oldKeys;
+		int[] hs = oldHashes;
+		int m = ks.length - 1;
+		int i = h & m;
+		Object current;
+		while((current = ks[i]) != null){
+			if(hs[i] == h && current != TOMBSTONE && (current == k || current.equals(k))){
+				return i;
+			}
+			i = (i + 1) & m;
+		}
+		return -1;
+	}
+
+	private static boolean containsValue(Object[] ks, Object[] vs, Object v){
+		for(int i = 0; i < ks.length; i++){
+			if(ks[i] != null && ks[i] != TOMBSTONE && Objects.equals(vs[i], v)){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 Empties a slot and shifts the following entries of its probe run back,
+	 so lookups never need tombstones.
+
+	 @param i the slot to empty
+	 */
+	private void removeAt(int i){
+		removeAt(i, null);
+	}
+
+	/**
+	 Empties a slot while a cursor is walking the table. Shifting entries back can move an
+	 unvisited entry into the cursor's slot, or move an already visited entry that wrapped around
+	 to the front of the table past the cursor, so the cursor is told about both cases.
+
+	 @param i      the slot to empty, which is the cursor's current slot
+	 @param cursor the cursor to keep consistent, or {@code null}
+	 */
+	private void removeAt(int i, TableCursor cursor){
+		modCount++;
+		Object[] ks = keys;
+		Object[] vs = values;
+		int[] hs = hashes;
+		int m = mask;
+		int p = i;
+		int j = i;
+		while(true){
+			j = (j + 1) & m;
+			Object current = ks[j];
+			if(current == null) break;
+			// The entry at j may fill the gap only if the gap lies between its home slot and j
+			int home = hs[j] & m;
+			if(((j - home) & m) >= ((j - i) & m)){
+				if(cursor != null){
+					if(i == p && j > p) cursor.revisit();
+					else if(i > p && j < p) cursor.skip(current);
+				}
+				ks[i] = current;
+				vs[i] = vs[j];
+				hs[i] = hs[j];
+				i = j;
+			}
+		}
+		ks[i] = null;
+		vs[i] = null;
+		size--;
+		if(recorder != null) recorder.removed(size, ks.length);
+	}
+
+	/**
+	 Allocates empty slot arrays of the given power-of-two length.
+
+	 @param capacity the table length
+	 */
+	private void allocate(int capacity){
+		modCount++;
+		keys = new Object[capacity];
+		values = new Object[capacity];
+		hashes = new int[capacity];
+		mask = capacity - 1;
+		// A table that overflows its threshold by one entry must still keep a free slot for probes to stop at
+		threshold = Math.min(capacity - 2, (int) (capacity * loadFactor));
+	}
+
+	/**
+	 Grows the table once the load factor threshold is exceeded, either in one pass or by
+	 starting an incremental resize.
+	 */
+	private void grow(){
+		if(!incrementalResize){
+			resize(keys.length << 1);
+			return;
+		}
+		// A resize that could not keep up is finished before the next one starts
+		if(oldKeys != null) migrate(oldKeys.length);
+		if(keys.length == MAXIMUM_CAPACITY){
+			resize(MAXIMUM_CAPACITY);
+			return;
+		}
+		oldKeys = keys;
+		oldValues = values;
+		oldHashes = hashes;
+		migrateIndex = 0;
+		allocate(oldKeys.length << 1);
+	}
+
+	/**
+	 Moves up to {@code steps} slots of the table being drained into the current table,
+	 dropping the old table once every slot has been visited.
+
+	 @param steps the maximum number of old slots to visit
+	 */
+	private void migrate(int steps){
+		Object[] oks = oldKeys;
+		Object[] ovs = oldValues;
+		int[] ohs = oldHashes;
+		Object[] ks = keys;
+		int m = mask;
+		int end = (int) Math.min(oks.length, (long) migrateIndex + steps);
+		modCount++;
+		for(int j = migrateIndex; j < end; j++){
+			Object key = oks[j];
+			if(key == null || key == TOMBSTONE) continue;
+			int i = ohs[j] & m;
+			while(ks[i] != null){
+				i = (i + 1) & m;
+			}
+			ks[i] = key;
+			values[i] = ovs[j];
+			hashes[i] = ohs[j];
+			oks[j] = TOMBSTONE;
+			ovs[j] = null;
+		}
+		migrateIndex = end;
+		if(end == oks.length) dropOldTable();
+	}
+
+	private void dropOldTable(){
+		oldKeys = null;
+		oldValues = null;
+		oldHashes = null;
+		migrateIndex = 0;
+	}
+
+	/**
+	 Resizes the slot arrays when the load factor threshold is exceeded, or when a sparse table shrinks.
+	 Entries are re-slotted from their stored hashes, so no key is rehashed or compared.
+
+	 @param capacity the new table length
+	 */
+	private void resize(int capacity){
+		if(keys.length == MAXIMUM_CAPACITY && (capacity <= 0 || capacity >= MAXIMUM_CAPACITY)){
+			if(size >= MAXIMUM_CAPACITY - 2) throw new IllegalStateException("Dictionary capacity exceeded");
+			return;
+		}
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		int[] oldHashes = hashes;
+		allocate(capacity);
+		Object[] ks = keys;
+		int m = mask;
+		for(int j = 0; j < oldKeys.length; j++){
+			Object key = oldKeys[j];
+			if(key == null) continue;
+			int i = oldHashes[j] & m;
+			while(ks[i] != null){
+				i = (i + 1) & m;
+			}
+			ks[i] = key;
+			values[i] = oldValues[j];
+			hashes[i] = oldHashes[j];
+		}
+	}
+
+	/**
+	 * A forward cursor over the entries of a {@link Dictionary}. Reading the current pair is a
+	 * plain array access, and the cursor allocates nothing after it has been created.
+	 * The dictionary must not be modified while a cursor walks it, except through {@link #remove()}
+	 * and {@link #setValue(Object)}.
+	 *
+	 * @param <K> the type of keys
+	 * @param <V> the type of mapped values
+	 */
+	public interface Cursor<K, V> {
+
+		/**
+		 Moves to the next key-value pair.
+
+		 @return {@code true} if the cursor now points at a pair, {@code false} once the dictionary is exhausted
+		 */
+		boolean advance();
+
+		/**
+		 @return the key of the current pair
+		 */
+		K key();
+
+		/**
+		 @return the value of the current pair
+		 */
+		V value();
+
+		/**
+		 Replaces the value of the current pair.
+
+		 @param v the new value
+
+		 @return the previous value
+		 */
+		V setValue(V v);
+
+		/**
+		 Removes the current pair from the dictionary. The next {@link #advance()} continues with the pair after it.
+		 */
+		void remove();
+	}
+
+	/**
+	 * The metrics of a {@link Dictionary}, see {@link #metrics()}. Entries still in the table being
+	 * drained by an incremental resize are counted in {@code size} but not in the table shape.
+	 *
+	 * @param size            the number of key-value pairs
+	 * @param capacity        the number of slots
+	 * @param reads           key lookups by {@code get}, {@code containsKey}, {@code replace} and {@code remove}
+	 * @param readHits        lookups that found their key
+	 * @param writes          key probes by {@code put}, {@code merge} and the compute family
+	 * @param writeHits       write probes that found their key already present
+	 * @param inserts         keys added
+	 * @param removals        keys removed
+	 * @param resizes         times the table was grown
+	 * @param resizeNanos     time spent growing the table, including incremental migration steps
+	 * @param probeLengths    how many entries sit 0, 1, 2, ... slots past their home slot, the last bucket counting all further ones
+	 * @param meanProbe       the mean distance of an entry from its home slot
+	 * @param maxProbe        the largest distance of an entry from its home slot
+	 * @param longestRun      the longest run of occupied slots, which bounds the probes of a missing key
+	 * @param collidingHashes entries whose spread hash equals that of another entry
+	 * @param loadHistory     the load sampled during recent insertions and removals, oldest first
+	 */
+	public record Metrics(int size, int capacity, long reads, long readHits, long writes, long writeHits, long inserts, long removals,
+	                      long resizes, long resizeNanos, int[] probeLengths, double meanProbe, int maxProbe, int longestRun, int collidingHashes, double[] loadHistory) {
+
+		static final int PROBE_BUCKETS = 16;
+
+		// The metrics of a dictionary that is not instrumented: its size and capacity, every counter and measure zero
+		static Metrics unmeasured(int size, int capacity) {
+			return new Metrics(size, capacity, 0, 0, 0, 0, 0, 0, 0, 0, new int[PROBE_BUCKETS], 0, 0, 0, 0, new double[0]);
+		}
+
+		public double load() {
+			return capacity == 0 ? 0 : (double) size / capacity;
+		}
+
+		public double readHitRate() {
+			return reads == 0 ? 1.0 : (double) readHits / reads;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("Metrics{size=%d, capacity=%d, load=%.3f%n", size, capacity, load()));
+			sb.append(String.format("  reads=%d, readHitRate=%.3f, writes=%d, writeHits=%d, inserts=%d, removals=%d%n", reads, readHitRate(), writes, writeHits, inserts, removals));
+			sb.append(String.format("  resizes=%d in %.3f ms%n", resizes, resizeNanos / 1e6));
+			sb.append(String.format("  meanProbe=%.3f, maxProbe=%d, longestRun=%d, collidingHashes=%d%n", meanProbe, maxProbe, longestRun, collidingHashes));
+			StringJoiner probes = new StringJoiner(" ", "  probeLengths=[", "]");
+			for(int i = 0; i < probeLengths.length; i++){
+				if(probeLengths[i] > 0) probes.add(i + (i == probeLengths.length - 1 ? "+:" : ":") + probeLengths[i]);
+			}
+			StringJoiner loads = new StringJoiner(" ", "  loadHistory=[", "]}");
+			for(double load: loadHistory){
+				loads.add(String.format("%.2f", load));
+			}
+			return sb.append(probes).append(System.lineSeparator()).append(loads).toString();
+		}
+	}
+
+	/**
+	 * The mutable counters behind {@link Metrics}.
+	 */
+	private static final class Recorder {
+		static final int SAMPLE_INTERVAL = 1024;
+		private static final int HISTORY = 64;
+		// The counters and the sample ring
+		static final int BYTES = 96 + ARRAY_HEADER_BYTES + 8 * HISTORY;
+
+		private long reads;
+		private long readHits;
+		private long writes;
+		private long writeHits;
+		private long inserts;
+		private long removals;
+		private long resizes;
+		private long resizeNanos;
+		// Ring of load samples, next is the slot of the next sample
+		private final double[] loads = new double[HISTORY];
+		private int next;
+		private int samples;
+
+		private void read(boolean hit){
+			reads++;
+			if(hit) readHits++;
+		}
+
+		private void write(boolean hit){
+			writes++;
+			if(hit) writeHits++;
+		}
+
+		private void inserted(int size, int capacity){
+			if((++inserts + removals) % SAMPLE_INTERVAL == 0) sample(size, capacity);
+		}
+
+		private void removed(int size, int capacity){
+			if((inserts + ++removals) % SAMPLE_INTERVAL == 0) sample(size, capacity);
+		}
+
+		private void resized(long nanos){
+			resizes++;
+			resizeNanos += nanos;
+		}
+
+		private void sample(int size, int capacity){
+			loads[next] = (double) size / capacity;
+			next = (next + 1) % HISTORY;
+			samples++;
+		}
+
+		private double[] loadHistory(){
+			int n = Math.min(samples, HISTORY);
+			double[] history = new double[n];
+			for(int i = 0; i < n; i++){
+				history[i] = loads[(next - n + i + HISTORY) % HISTORY];
+			}
+			return history;
+		}
+	}
+
+	/**
+	 * Walks the slots of the current table, then of the table being drained by an incremental resize,
+	 * as one range that {@link #trySplit()} halves. The overflow trees of a flood-protected dictionary
+	 * stay with the last half, which walks them after its slots.
+	 */
+	private static final class TableSpliterator<K, V> implements Spliterator<Map.Entry<K, V>> {
+		private final Object[] keys;
+		private final Object[] values;
+		private final Object[] oldKeys;
+		private final Object[] oldValues;
+		// The overflow trees, or null if this half does not walk them
+		private final List<TreeMap<K, V>> trees;
+		private int treeIndex;
+		private Iterator<Map.Entry<K, V>> treeIterator;
+		private int index;
+		private final int fence;
+		private long estimate;
+		private boolean sized;
+
+		private TableSpliterator(Object[] keys, Object[] values, Object[] oldKeys, Object[] oldValues, List<TreeMap<K, V>> trees, int size){
+			this.keys = keys;
+			this.values = values;
+			this.oldKeys = oldKeys;
+			this.oldValues = oldValues;
+			this.trees = trees;
+			this.fence = keys.length + (oldKeys == null ? 0 : oldKeys.length);
+			this.estimate = size;
+			this.sized = true;
+		}
+
+		private TableSpliterator(TableSpliterator<K, V> parent, int index, int fence, long estimate){
+			this.keys = parent.keys;
+			this.values = parent.values;
+			this.oldKeys = parent.oldKeys;
+			this.oldValues = parent.oldValues;
+			this.trees = null;
+			this.index = index;
+			this.fence = fence;
+			this.estimate = estimate;
+		}
+
+		@SuppressWarnings("unchecked")
+		private boolean advancePair(BiConsumer<? super K, ? super V> action){
+			int length = keys.length;
+			while(index < fence){
+				int i = index++;
+				Object k = i < length ? keys[i] : oldKeys[i - length];
+				if(k != null && k != TOMBSTONE){
+					if(estimate > 0) estimate--;
+					action.accept((K) k, (V) (i < length ? values[i] : oldValues[i - length]));
+					return true;
+				}
+			}
+			if(trees == null) return false;
+			while(treeIterator == null || !treeIterator.hasNext()){
+				if(treeIndex == trees.size()) return false;
+				treeIterator = trees.get(treeIndex++).entrySet().iterator();
+			}
+			Map.Entry<K, V> entry = treeIterator.next();
+			if(estimate > 0) estimate--;
+			action.accept(entry.getKey(), entry.getValue());
+			return true;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void forEachPair(BiConsumer<? super K, ? super V> action){
+			int i = index;
+			int length = keys.length;
+			Object[] ks = keys;
+			Object[] vs = values;
+			for(int end = Math.min(fence, length); i < end; i++){
+				if(ks[i] != null) action.accept((K) ks[i], (V) vs[i]);
+			}
+			ks = oldKeys;
+			vs = oldValues;
+			for(; i < fence; i++){
+				Object k = ks[i - length];
+				if(k != null && k != TOMBSTONE) action.accept((K) k, (V) vs[i - length]);
+			}
+			index = fence;
+			while(advancePair(action));
+			estimate = 0;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Map.Entry<K, V>> action){
+			return advancePair((k, v) -> action.accept(new AbstractMap.SimpleImmutableEntry<>(k, v)));
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super Map.Entry<K, V>> action){
+			forEachPair((k, v) -> action.accept(new AbstractMap.SimpleImmutableEntry<>(k, v)));
+		}
+
+		@Override
+		public Spliterator<Map.Entry<K, V>> trySplit(){
+			int lo = index;
+			int mid = (lo + fence) >>> 1;
+			if(mid <= lo) return null;
+			index = mid;
+			estimate >>>= 1;
+			sized = false;
+			return new TableSpliterator<>(this, lo, mid, estimate);
+		}
+
+		@Override
+		public long estimateSize(){
+			return estimate;
+		}
+
+		@Override
+		public int characteristics(){
+			return Spliterator.DISTINCT | Spliterator.NONNULL | (sized ? Spliterator.SIZED : 0);
+		}
+	}
+
+	/**
+	 * Forks halves of its spliterator while it has batches left, processes what remains itself,
+	 * then combines the results of the forks in order.
+	 */
+	private static final class BulkTask<T, R> extends RecursiveTask<R> {
+		private static final long serialVersionUID = 1L;
+
+		private final Spliterator<T> split;
+		private int batch;
+		private final Function<Spliterator<T>, R> leaf;
+		private final BinaryOperator<R> combine;
+
+		private BulkTask(Spliterator<T> split, int batch, Function<Spliterator<T>, R> leaf, BinaryOperator<R> combine){
+			this.split = split;
+			this.batch = batch;
+			this.leaf = leaf;
+			this.combine = combine;
+		}
+
+		@Override
+		protected R compute(){
+			List<BulkTask<T, R>> forks = new ArrayList<>();
+			Spliterator<T> prefix;
+			while(batch > 0 && (prefix = split.trySplit()) != null){
+				BulkTask<T, R> fork = new BulkTask<>(prefix, batch >>>= 1, leaf, combine);
+				fork.fork();
+				forks.add(fork);
+			}
+			R result = leaf.apply(split);
+			// The last fork holds the range right before this task's own
+			for(int i = forks.size() - 1; i >= 0; i--){
+				result = combine.apply(forks.get(i).join(), result);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Walks the current table, then the table being drained by an incremental resize, then the
+	 * overflow trees of a flood-protected dictionary.
+	 * It doubles as the flyweight entry handed out by {@link #entries()}.
+	 */
+	private final class TableCursor implements Cursor<K, V>, Map.Entry<K, V> {
+		private int index = -1;
+		private boolean inOldTable;
+		private boolean valid;
+		// Already visited entries that a removal shifted ahead of the cursor
+		private List<Object> skipped;
+		// The overflow trees, copied once the tables are exhausted so that emptied trees can be dropped
+		private List<TreeMap<K, V>> trees;
+		private int treeIndex;
+		private Iterator<Map.Entry<K, V>> treeIterator;
+		private Map.Entry<K, V> treeEntry;
+
+		@Override
+		public boolean advance(){
+			valid = false;
+			if(trees == null){
+				if(!inOldTable){
+					Object[] ks = keys;
+					if(ks != null && size > 0){
+						while(++index < ks.length){
+							Object key = ks[index];
+							if(key != null && (skipped == null || !wasSkipped(key))){
+								return valid = true;
+							}
+						}
+					}
+					inOldTable = true;
+					index = -1;
+				}
+				Object[] ks = oldKeys;
+				if(ks != null){
+					while(++index < ks.length){
+						Object key = ks[index];
+						if(key != null && key != TOMBSTONE){
+							return valid = true;
+						}
+					}
+				}
+				if(overflow == null) return false;
+				List<TreeMap<K, V>> copy = new ArrayList<>(overflow.size());
+				overflow.forEach((h, tree) -> copy.add(tree));
+				trees = copy;
+			}
+			while(treeIterator == null || !treeIterator.hasNext()){
+				if(treeIndex == trees.size()) return false;
+				treeIterator = trees.get(treeIndex++).entrySet().iterator();
+			}
+			treeEntry = treeIterator.next();
+			return valid = true;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public K key(){
+			check();
+			if(trees != null) return treeEntry.getKey();
+			return (K) (inOldTable ? oldKeys : keys)[index];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V value(){
+			check();
+			if(trees != null) return treeEntry.getValue();
+			return (V) (inOldTable ? oldValues : values)[index];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V setValue(V v){
+			check();
+			V previous;
+			if(trees != null){
+				previous = treeEntry.setValue(v);
+			}else{
+				Object[] vs = inOldTable ? oldValues : values;
+				previous = (V) vs[index];
+				vs[index] = v;
+			}
+			track(key(), v);
+			return previous;
+		}
+
+		@Override
+		public void remove(){
+			check();
+			K key = key();
+			untrack(key);
+			valid = false;
+			if(trees != null){
+				modCount++;
+				treeIterator.remove();
+				size--;
+				if(trees.get(treeIndex - 1).isEmpty()) dropTree(hash(key));
+				if(recorder != null) recorder.removed(size, keys.length);
+			}else if(inOldTable){
+				modCount++;
+				oldKeys[index] = TOMBSTONE;
+				oldValues[index] = null;
+				size--;
+				if(recorder != null) recorder.removed(size, keys.length);
+			}else{
+				removeAt(index, this);
+			}
+		}
+
+		@Override
+		public K getKey(){
+			return key();
+		}
+
+		@Override
+		public V getValue(){
+			return value();
+		}
+
+		@Override
+		public boolean equals(Object o){
+			return o instanceof Map.Entry<?, ?> e && Objects.equals(key(), e.getKey()) && Objects.equals(value(), e.getValue());
+		}
+
+		@Override
+		public int hashCode(){
+			return Objects.hashCode(key()) ^ Objects.hashCode(value());
+		}
+
+		@Override
+		public String toString(){
+			return key() + "=" + value();
+		}
+
+		private void revisit(){
+			index--;
+		}
+
+		private void skip(Object key){
+			if(skipped == null) skipped = new ArrayList<>(2);
+			skipped.add(key);
+		}
+
+		private boolean wasSkipped(Object key){
+			for(int i = 0; i < skipped.size(); i++){
+				if(skipped.get(i) == key){
+					skipped.remove(i);
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private void check(){
+			if(!valid) throw new NoSuchElementException();
+		}
+	}
+
+	/**
+	 * Adapts a {@link Cursor} to {@link Iterator}. The cursor only moves when the next element is
+	 * requested, so {@link #remove()} has to follow {@link #next()} directly.
+	 */
+	private abstract class CursorIterator<E> implements Iterator<E> {
+		final Cursor<K, V> cursor = cursor();
+		private boolean ready;
+		private boolean hasNext;
+		private boolean removable;
+
+		@Override
+		public boolean hasNext(){
+			if(!ready){
+				hasNext = cursor.advance();
+				ready = true;
+				removable = false;
+			}
+			return hasNext;
+		}
+
+		@Override
+		public E next(){
+			if(!hasNext()) throw new NoSuchElementException();
+			ready = false;
+			removable = true;
+			return current();
+		}
+
+		@Override
+		public void remove(){
+			if(!removable) throw new IllegalStateException("remove() has to follow next() directly");
+			removable = false;
+			cursor.remove();
+		}
+
+		abstract E current();
+	}
+
+	private final class EntryIterator extends CursorIterator<Map.Entry<K, V>> implements Map.Entry<K, V> {
+		@Override
+		Map.Entry<K, V> current(){
+			return cursor instanceof TableCursor table ? table : this;
+		}
+
+		@Override
+		public K getKey(){
+			return cursor.key();
+		}
+
+		@Override
+		public V getValue(){
+			return cursor.value();
+		}
+
+		@Override
+		public V setValue(V v){
+			return cursor.setValue(v);
+		}
+
+		@Override
+		public boolean equals(Object o){
+			return o instanceof Map.Entry<?, ?> e && Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+		}
+
+		@Override
+		public int hashCode(){
+			return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public String toString(){
+			return getKey() + "=" + getValue();
+		}
+	}
+
+	private final class EntryView extends AbstractSet<Map.Entry<K, V>> {
+		@Override
+		public @NotNull Iterator<Map.Entry<K, V>> iterator(){
+			return new EntryIterator();
+		}
+
+		@Override
+		public Spliterator<Map.Entry<K, V>> spliterator(){
+			return Dictionary.this.spliterator();
+		}
+
+		@Override
+		public int size(){
+			return Dictionary.this.size();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean contains(Object o){
+			if(!(o instanceof Map.Entry<?, ?> e)) return false;
+			K key = (K) e.getKey();
+			return containsKey(key) && Objects.equals(get(key), e.getValue());
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean remove(Object o){
+			return contains(o) && Dictionary.this.remove((K) ((Map.Entry<?, ?>) o).getKey());
+		}
+
+		@Override
+		public void clear(){
+			Dictionary.this.clear();
+		}
+	}
+
+	private final class KeyView extends AbstractSet<K> {
+		@Override
+		public @NotNull Iterator<K> iterator(){
+			return new CursorIterator<>(){
+				@Override
+				K current(){
+					return cursor.key();
+				}
+			};
+		}
+
+		@Override
+		public int size(){
+			return Dictionary.this.size();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean contains(Object o){
+			return containsKey((K) o);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean remove(Object o){
+			return Dictionary.this.remove((K) o);
+		}
+
+		@Override
+		public void forEach(Consumer<? super K> action){
+			Dictionary.this.forEach((k, v) -> action.accept(k));
+		}
+
+		@Override
+		public void clear(){
+			Dictionary.this.clear();
+		}
+	}
+
+	private final class ValueView extends AbstractCollection<V> {
+		@Override
+		public @NotNull Iterator<V> iterator(){
+			return new CursorIterator<>(){
+				@Override
+				V current(){
+					return cursor.value();
+				}
+			};
+		}
+
+		@Override
+		public int size(){
+			return Dictionary.this.size();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean contains(Object o){
+			return containsValue((V) o);
+		}
+
+		@Override
+		public void forEach(Consumer<? super V> action){
+			Dictionary.this.forEach((k, v) -> action.accept(v));
+		}
+
+		@Override
+		public void clear(){
+			Dictionary.this.clear();
+		}
+	}
+
+	private final class MapView extends AbstractMap<K, V> {
+		@Override
+		public int size(){
+			return Dictionary.this.size();
+		}
+
+		@Override
+		public boolean isEmpty(){
+			return Dictionary.this.isEmpty();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean containsKey(Object o){
+			return Dictionary.this.containsKey((K) o);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean containsValue(Object o){
+			return Dictionary.this.containsValue((V) o);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V get(Object o){
+			return Dictionary.this.get((K) o);
+		}
+
+		@Override
+		public V put(K k, V v){
+			V previous = Dictionary.this.get(k);
+			Dictionary.this.put(k, v);
+			return previous;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V remove(Object o){
+			V previous = Dictionary.this.get((K) o);
+			Dictionary.this.remove((K) o);
+			return previous;
+		}
+
+		@Override
+		public void putAll(@NotNull Map<? extends K, ? extends V> map){
+			Dictionary.this.putAll(map);
+		}
+
+		@Override
+		public V putIfAbsent(K k, V v){
+			V current = Dictionary.this.get(k);
+			if(current == null) Dictionary.this.put(k, v);
+			return current;
+		}
+
+		@Override
+		public V computeIfAbsent(K k, @NotNull Function<? super K, ? extends V> mappingFunction){
+			return Dictionary.this.computeIfAbsent(k, mappingFunction);
+		}
+
+		@Override
+		public V computeIfPresent(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+			return Dictionary.this.computeIfPresent(k, remappingFunction);
+		}
+
+		@Override
+		public V compute(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+			return Dictionary.this.compute(k, remappingFunction);
+		}
+
+		@Override
+		public V merge(K k, @NotNull V v, @NotNull BiFunction<? super V, ? super V, ? extends V> remappingFunction){
+			if(v == null) throw new NullPointerException("Dictionary.asMap().merge(K k, V v, BiFunction<V, V, V> remappingFunction) -> 'v' cannot be null");
+			return Dictionary.this.compute(k, (key, old) -> old == null ? v : remappingFunction.apply(old, v));
+		}
+
+		@Override
+		public void forEach(BiConsumer<? super K, ? super V> action){
+			Dictionary.this.forEach(action);
+		}
+
+		@Override
+		public void clear(){
+			Dictionary.this.clear();
+		}
+
+		@Override
+		public @NotNull Set<K> keySet(){
+			return keys();
+		}
+
+		@Override
+		public @NotNull Collection<V> values(){
+			return Dictionary.this.values();
+		}
+
+		@Override
+		public @NotNull Set<Entry<K, V>> entrySet(){
+			return entries();
+		}
+	}
+
+	/**
+	 Switches between native YAML and binary serialization. Natively, {@link #serialize()} writes the keys
+	 and values as two YAML lists that stay readable and editable. Binary serialization writes a single
+	 base64 blob instead, which loads much faster for large dictionaries but needs every key and value
+	 to be {@link java.io.Serializable} or {@link ConfigurationSerializable}.
+
+	 @param enabled whether this dictionary should serialize to a binary blob
+
+	 @return this dictionary
+	 */
+	public Dictionary<K, V> binarySerialization(boolean enabled){
+		this.binarySerialization = enabled;
+		return this;
+	}
+
+	/**
+	 Returns whether this dictionary serializes to a binary blob.
+
+	 @return {@code true} if binary serialization is enabled
+	 */
+	public boolean isBinarySerialization(){
+		return binarySerialization;
+	}
+
+	/**
+
+	 SERIALIZATION FOR YamlConfiguration's:
+	 <p>
+	 Use {@code config.set(path, dictionary)} to write the dictionary into the file and {@code config.get(path)} to
+	 read it back once the class is registered with {@link org.bukkit.configuration.serialization.ConfigurationSerialization}.
+	 Keys and values are written as native YAML lists, or as one base64 blob with {@link #binarySerialization(boolean)}.
+	 UUIDs, enums and characters are written as strings; read them back with {@link #deserialize(Map, Class, Class)}.
+
+	 */
+	@Override
+	public @NotNull Map<String, Object> serialize() {
+		return YamlCodec.serialize(this, binarySerialization);
+	}
+
+
+	/**
+
+	 DESERIALIZATION FOR YamlConfiguration's:
+	 <p>
+	 Reads a dictionary written by {@link #serialize()} in either format, as well as the {@code "json"} string written
+	 by older versions. Values keep the types YAML loaded them as.
+
+	 */
+	public static <K, V> @NotNull Dictionary<K, V> deserialize(@NotNull Map<String, Object> map) {
+		return YamlCodec.deserializeDictionary(map, null, null, Dictionary::new);
+	}
+
+	/**
+
+	 DESERIALIZATION FOR YamlConfiguration's:
+	 <p>
+	 Reads a dictionary written by {@link #serialize()}, converting every key and value to the given classes.
+	 Numbers are widened or narrowed (YAML loads small longs as integers) and strings are parsed back into
+	 UUIDs, enums, characters and numbers.
+
+	 @param map       the serialized dictionary
+	 @param keyType   the class of the keys
+	 @param valueType the class of the values
+
+	 @throws IllegalArgumentException if a key or value cannot be converted
+	 */
+	public static <K, V> @NotNull Dictionary<K, V> deserialize(@NotNull Map<String, Object> map, @NotNull Class<K> keyType, @NotNull Class<V> valueType) {
+		return YamlCodec.deserializeDictionary(map, keyType, valueType, Dictionary::new);
+	}
+
+	// JSON IMPLEMENTATION
+
+	/**
+	 Converts this dictionary to a JSON object. Keys are written as names and values by their runtime type.
+
+	 @return the JSON representation of this dictionary
+	 */
+	public String toJson(){
+		return toJson(this);
+	}
+
+	/**
+	 Converts the given dictionary to a JSON object. Keys are written as names and values by their runtime type.
+
+	 @param dictionary the dictionary to convert
+
+	 @return the JSON representation of the dictionary
+	 */
+	public String toJson(@NotNull Dictionary<K, V> dictionary){
+		return JsonCodec.<K, V>dictionary(JsonCodec.untyped(), JsonCodec.untyped()).toJson(dictionary);
+	}
+
+	/**
+	 Streams this dictionary as a JSON object to {@code out}, without building an intermediate map.
+	 See {@link JsonCodec} for the format.
+
+	 @param out          the writer to write to
+	 @param keyAdapter   the adapter for the keys, which are written as object names
+	 @param valueAdapter the adapter for the values
+	 */
+	public void toJson(@NotNull Writer out, @NotNull TypeAdapter<K> keyAdapter, @NotNull TypeAdapter<V> valueAdapter) throws IOException{
+		JsonCodec.dictionary(keyAdapter, valueAdapter).write(new JsonWriter(out), this);
+	}
+
+	/**
+	 Parses a JSON object into a new dictionary with string keys and values of Gson's natural types
+	 (strings, doubles, booleans, lists and maps).
+
+	 @param str the JSON object to parse
+
+	 @return a new dictionary holding the parsed pairs
+	 */
+	public Dictionary<K, V> fromJson(String str){
+		try{
+			return JsonCodec.<K, V>dictionary(JsonCodec.strings(), JsonCodec.untyped()).fromJson(str);
+		}catch(IOException e){
+			throw new JsonIOException(e);
+		}
+	}
+
+	/**
+	 Streams a JSON object from {@code in} into a new dictionary. See {@link JsonCodec} for the format.
+
+	 @param in           the reader to read from
+	 @param keyAdapter   the adapter for the keys, read from the object names
+	 @param valueAdapter the adapter for the values
+
+	 @return a new dictionary holding the parsed pairs
+	 */
+	public static <K, V> Dictionary<K, V> fromJson(@NotNull Reader in, @NotNull TypeAdapter<K> keyAdapter, @NotNull TypeAdapter<V> valueAdapter) throws IOException{
+		return JsonCodec.dictionary(keyAdapter, valueAdapter).read(new JsonReader(in));
 	}
 
 	public Dictionary<K, V> createDictionary(Object @NotNull ... entries) {
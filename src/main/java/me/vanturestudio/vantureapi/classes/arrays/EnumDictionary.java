@@ -0,0 +1,426 @@
+package me.vanturestudio.vantureapi.classes.arrays;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A {@link Dictionary} keyed by the constants of one enum, for maps such as per-{@code Material}
+ * or per-level settings. Values sit in an array indexed by {@link Enum#ordinal()}, so reads and
+ * writes are a single array access: no hashing, no probing and no entry objects.
+ * Iteration follows declaration order.
+ * <p>
+ * Like {@link java.util.EnumMap}, it holds one slot per constant however few are mapped,
+ * and rejects keys of any other class.
+ *
+ * @param <E> the enum type of the keys
+ * @param <V> the type of mapped values
+ */
+public class EnumDictionary<E extends Enum<E>, V> extends Dictionary<E, V> {
+
+	// Constants by ordinal, shared by every dictionary of the same enum
+	private static final ClassValue<Enum<?>[]> UNIVERSES = new ClassValue<>(){
+		@Override
+		protected Enum<?>[] computeValue(Class<?> type){
+			return (Enum<?>[]) type.getEnumConstants();
+		}
+	};
+	// Stands in for a null value, so that a null slot can mean "no mapping"
+	private static final Object NULL = new Object();
+	// Header and fields of an enum dictionary
+	private static final int SHALLOW_BYTES = 128;
+
+	private final Class<E> keyType;
+	private final E[] universe;
+	private final Object[] values;
+	private int size;
+
+	/**
+	 Constructs an empty dictionary for the constants of {@code keyType}.
+
+	 @param keyType the enum class of the keys
+	 */
+	@SuppressWarnings("unchecked")
+	public EnumDictionary(@NotNull Class<E> keyType){
+		super(0);
+		if(!keyType.isEnum()) throw new IllegalArgumentException("EnumDictionary(Class<E> keyType) -> '" + keyType.getName() + "' is not an enum");
+		this.keyType = keyType;
+		this.universe = (E[]) UNIVERSES.get(keyType);
+		this.values = new Object[universe.length];
+	}
+
+	/**
+	 Returns the enum class of the keys.
+
+	 @return the key type of this dictionary
+	 */
+	public Class<E> keyType(){
+		return keyType;
+	}
+
+	@Override
+	public boolean put(E k, V v){
+		if(k == null) throw new NullPointerException("EnumDictionary.put(E k, V v) -> 'k' cannot be null");
+		int i = check(k).ordinal();
+		if(values[i] == null) size++;
+		values[i] = mask(v);
+		return true;
+	}
+
+	@Override
+	public Dictionary<E, V> putAll(@NotNull Map<? extends E, ? extends V> map){
+		map.forEach(this::put);
+		return this;
+	}
+
+	@Override
+	public V get(E k){
+		return valid(k) ? unmask(values[k.ordinal()]) : null;
+	}
+
+	@Override
+	public V getOrDefaultAndPut(E k, V dv){
+		V value = get(k);
+		if(value != null) return value;
+		put(k, dv);
+		return dv;
+	}
+
+	@Override
+	public V computeIfAbsent(E k, @NotNull Function<? super E, ? extends V> mappingFunction){
+		V value = get(k);
+		if(value != null) return value;
+		value = mappingFunction.apply(k);
+		if(value != null) put(k, value);
+		return value;
+	}
+
+	@Override
+	public V computeIfPresent(E k, @NotNull BiFunction<? super E, ? super V, ? extends V> remappingFunction){
+		V value = get(k);
+		if(value == null) return null;
+		value = remappingFunction.apply(k, value);
+		if(value == null) remove(k);
+		else put(k, value);
+		return value;
+	}
+
+	@Override
+	public V compute(E k, @NotNull BiFunction<? super E, ? super V, ? extends V> remappingFunction){
+		V value = remappingFunction.apply(k, get(k));
+		if(value == null) remove(k);
+		else put(k, value);
+		return value;
+	}
+
+	@Override
+	public boolean containsKey(E k){
+		return valid(k) && values[k.ordinal()] != null;
+	}
+
+	@Override
+	public Dictionary<E, V> replace(E k, V v){
+		if(containsKey(k)) values[k.ordinal()] = mask(v);
+		return this;
+	}
+
+	@Override
+	public boolean replace(E k, V ov, V nv){
+		if(!containsKey(k) || !Objects.equals(unmask(values[k.ordinal()]), ov)) return false;
+		values[k.ordinal()] = mask(nv);
+		return true;
+	}
+
+	@Override
+	public Dictionary<E, V> merge(E k, V v, BiFunction<? super V, ? super V, ? extends V> remappingFunction){
+		if(k == null) throw new NullPointerException("EnumDictionary.merge(E k, V v, BiFunction<V, V, V> remappingFunction) -> 'k' cannot be null");
+		int i = check(k).ordinal();
+		if(values[i] == null) put(k, v);
+		else values[i] = mask(remappingFunction.apply(unmask(values[i]), v));
+		return this;
+	}
+
+	@Override
+	public boolean containsValue(V v){
+		Object masked = mask(v);
+		for(Object value: values){
+			if(value != null && value.equals(masked)) return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean remove(E k){
+		if(!valid(k) || values[k.ordinal()] == null) return false;
+		values[k.ordinal()] = null;
+		size--;
+		return true;
+	}
+
+	@Override
+	public Dictionary<E, V> clear(){
+		Arrays.fill(values, null);
+		size = 0;
+		return this;
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	@Override
+	public int size(){
+		return size;
+	}
+
+	/**
+	 Returns the number of constants of the key type, which is the number of slots.
+
+	 @return the capacity of this dictionary
+	 */
+	@Override
+	public int capacity(){
+		return values.length;
+	}
+
+	/**
+	 There is one slot per constant, so this does nothing.
+	 */
+	@Override
+	public Dictionary<E, V> trimToSize(){
+		return this;
+	}
+
+	/**
+	 Estimates the bytes held by the slot array, excluding the values.
+	 */
+	@Override
+	public long estimatedRetainedBytes(){
+		return SHALLOW_BYTES + referenceArrayBytes(values.length);
+	}
+
+	/**
+	 Snapshots of a handful of slots are cheap to copy, so {@link #snapshot()} always copies them.
+
+	 @throws UnsupportedOperationException when enabling tracking
+	 */
+	@Override
+	public Dictionary<E, V> trackSnapshots(boolean enabled){
+		if(enabled) throw new UnsupportedOperationException("EnumDictionary.trackSnapshots(boolean enabled) -> snapshots are copied on demand");
+		return this;
+	}
+
+	/**
+	 An enum dictionary never probes, so there is nothing to measure.
+
+	 @throws UnsupportedOperationException when enabling recording
+	 */
+	@Override
+	public Dictionary<E, V> recordMetrics(boolean enabled){
+		if(enabled) throw new UnsupportedOperationException("EnumDictionary.recordMetrics(boolean enabled) -> metrics are not available");
+		return this;
+	}
+
+	/**
+	 Returns only the size and capacity, with every counter and table measure zero, since an enum dictionary never probes.
+	 */
+	@Override
+	public Metrics metrics(){
+		return Metrics.unmeasured(size(), capacity());
+	}
+
+	/**
+	 There is one slot per constant and the table never grows, so this does nothing.
+	 */
+	@Override
+	public Dictionary<E, V> incrementalResize(boolean enabled){
+		return this;
+	}
+
+	@Override
+	public boolean isIncrementalResize(){
+		return false;
+	}
+
+	/**
+	 Keys are never hashed, so this does nothing.
+	 */
+	@Override
+	public Dictionary<E, V> floodProtection(boolean enabled){
+		return this;
+	}
+
+	@Override
+	public boolean isFloodProtected(){
+		return false;
+	}
+
+	@Override
+	public Dictionary<E, V> forEach(BiConsumer<? super E, ? super V> action){
+		Object[] vs = values;
+		for(int i = 0; i < vs.length; i++){
+			if(vs[i] != null) action.accept(universe[i], unmask(vs[i]));
+		}
+		return this;
+	}
+
+	/**
+	 Returns a spliterator over the entries in declaration order.
+	 */
+	@Override
+	public Spliterator<Map.Entry<E, V>> spliterator(){
+		return cursorSpliterator(Spliterator.ORDERED | Spliterator.SIZED);
+	}
+
+	@Override
+	public Cursor<E, V> cursor(){
+		return new Cursor<>(){
+			private int ordinal = -1;
+			private boolean current;
+
+			@Override
+			public boolean advance(){
+				current = false;
+				while(++ordinal < values.length){
+					if(values[ordinal] != null) return current = true;
+				}
+				return false;
+			}
+
+			@Override
+			public E key(){
+				check();
+				return universe[ordinal];
+			}
+
+			@Override
+			public V value(){
+				check();
+				return unmask(values[ordinal]);
+			}
+
+			@Override
+			public V setValue(V v){
+				check();
+				V previous = unmask(values[ordinal]);
+				values[ordinal] = mask(v);
+				return previous;
+			}
+
+			@Override
+			public void remove(){
+				check();
+				values[ordinal] = null;
+				size--;
+				current = false;
+			}
+
+			private void check(){
+				if(!current) throw new NoSuchElementException();
+			}
+		};
+	}
+
+	/**
+
+	 SERIALIZATION FOR YamlConfiguration's:
+	 <p>
+	 Writes the pairs as {@link Dictionary#serialize()} does, with the constants by name,
+	 plus the enum class under {@code keyType} so that {@link #valueOf(Map)} can read them back.
+
+	 */
+	@Override
+	public @NotNull Map<String, Object> serialize() {
+		Map<String, Object> serialized = super.serialize();
+		serialized.put("keyType", keyType.getName());
+		return serialized;
+	}
+
+	/**
+
+	 DESERIALIZATION FOR YamlConfiguration's:
+	 <p>
+	 Reads a dictionary written by {@link #serialize()}, resolving its keys with the enum class it names.
+	 Values keep the types YAML loaded them as. Named {@code valueOf} because the generic
+	 {@link Dictionary#deserialize(Map)} cannot be hidden; Bukkit looks for either name.
+
+	 @throws IllegalArgumentException if the enum class cannot be found
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public static <E extends Enum<E>, V> @NotNull EnumDictionary<E, V> valueOf(@NotNull Map<String, Object> map) {
+		Class keyType;
+		try{
+			keyType = Class.forName(String.valueOf(map.get("keyType")), false, EnumDictionary.class.getClassLoader());
+		}catch(ClassNotFoundException e){
+			throw new IllegalArgumentException("EnumDictionary.valueOf(Map<String, Object> map) -> unknown key type '" + map.get("keyType") + "'", e);
+		}
+		return valueOf(map, keyType, null);
+	}
+
+	/**
+
+	 DESERIALIZATION FOR YamlConfiguration's:
+	 <p>
+	 Reads a dictionary written by {@link #serialize()}, or by {@link Dictionary#serialize()} with enum keys,
+	 converting every value to the given class as {@link Dictionary#deserialize(Map, Class, Class)} does.
+
+	 @param map       the serialized dictionary
+	 @param keyType   the enum class of the keys
+	 @param valueType the class of the values, or {@code null} to keep the types YAML loaded them as
+
+	 @throws IllegalArgumentException if a key or value cannot be converted
+	 */
+	public static <E extends Enum<E>, V> @NotNull EnumDictionary<E, V> valueOf(@NotNull Map<String, Object> map, @NotNull Class<E> keyType, @Nullable Class<V> valueType) {
+		return YamlCodec.deserializeDictionary(map, keyType, valueType, capacity -> new EnumDictionary<>(keyType));
+	}
+
+	/**
+	 Streams a JSON object from {@code in} into a new enum dictionary. Names are read as constants
+	 the way {@link Gson} reads enums. See {@link JsonCodec} for the format.
+
+	 @param in           the reader to read from
+	 @param keyType      the enum class of the keys
+	 @param valueAdapter the adapter for the values
+
+	 @return a new enum dictionary holding the parsed pairs
+	 */
+	public static <E extends Enum<E>, V> EnumDictionary<E, V> fromJson(@NotNull Reader in, @NotNull Class<E> keyType, @NotNull TypeAdapter<V> valueAdapter) throws IOException{
+		return (EnumDictionary<E, V>) JsonCodec.dictionary(JsonCodec.gson().getAdapter(keyType), valueAdapter, () -> new EnumDictionary<>(keyType)).read(new JsonReader(in));
+	}
+
+	// Private helper methods
+
+	private boolean valid(Object k){
+		if(k == null) return false;
+		Class<?> type = k.getClass();
+		return type == keyType || type.getSuperclass() == keyType;
+	}
+
+	private E check(E k){
+		if(!valid(k)) throw new ClassCastException(k.getClass().getName() + " is not a constant of " + keyType.getName());
+		return k;
+	}
+
+	private static Object mask(Object v){
+		return v == null ? NULL : v;
+	}
+
+	@SuppressWarnings("unchecked")
+	private V unmask(Object v){
+		return v == NULL ? null : (V) v;
+	}
+}
@@ -1,15 +1,24 @@
 package me.vanturestudio.vantureapi.classes.arrays;
 
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.serialization.ConfigurationSerializable;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A custom list-like structure that stores elements with additional metadata, tags, and positional info.
@@ -18,29 +27,54 @@ import java.util.stream.Collectors;
  */
 public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSerializable {
 
-	private final List<Element<T>> elements = new ArrayList<>();
+	// Removals an index may lag behind before the tail is renumbered
+	private static final int MAX_PENDING_REMOVALS = 64;
+
+	private final ArrayList<Element<T>> elements = new ArrayList<>();
+
+	private boolean binarySerialization;
+	// Tag to the indices of the elements carrying it, null unless tags are indexed
+	private Dictionary<String, BitSet> tagIndex;
+	// Value to the elements holding it, null unless values are indexed; null values are not indexed
+	private Dictionary<T, List<Element<T>>> valueIndex;
+	// Bumped by every change to the elements or their tags, so tag views know when to re-run their query
+	private int version;
+	// Elements from this index on may hold stale indices, Integer.MAX_VALUE when none do
+	private int staleFrom = Integer.MAX_VALUE;
+	// Removals since the last renumbering, the most a stale index can be ahead of the true one
+	private int removals;
 
 	/**
-	 * Loads an Enumerator from a ConfigurationSection.
-	 * Note: Only string values are supported currently.
+	 * Loads an Enumerator of strings from a ConfigurationSection.
+	 * Reads the format written by {@link #serialize()} as well as the older per-element sections.
 	 *
 	 * @param section the section to read from
 	 * @return a new Enumerator
 	 */
 	public static @NotNull Enumerator<String> deserialize(@NotNull ConfigurationSection section) {
-		Enumerator<String> enumerator = new Enumerator<>();
-		for (String key : section.getKeys(false)) {
-			ConfigurationSection elementSection = section.getConfigurationSection(key);
-			if (elementSection != null) {
-				String value = elementSection.getString("value");
-				List<String> tags = elementSection.getStringList("tags");
-				Element<String> element = new Element<>(value);
-				element.getTags().addAll(tags);
-				enumerator.elements.add(element);
-			}
-		}
-		enumerator.updatePositions();
-		return enumerator;
+		return YamlCodec.deserializeEnumerator(YamlCodec.values(section), String.class);
+	}
+
+	/**
+	 * Loads an Enumerator written by {@link #serialize()}. Values keep the types YAML loaded them as.
+	 *
+	 * @param map the serialized Enumerator
+	 * @return a new Enumerator
+	 */
+	public static <T> @NotNull Enumerator<T> deserialize(@NotNull Map<String, Object> map) {
+		return YamlCodec.deserializeEnumerator(map, null);
+	}
+
+	/**
+	 * Loads an Enumerator written by {@link #serialize()}, converting every value to the given class.
+	 *
+	 * @param map the serialized Enumerator
+	 * @param type the class of the values
+	 * @return a new Enumerator
+	 * @throws IllegalArgumentException if a value cannot be converted
+	 */
+	public static <T> @NotNull Enumerator<T> deserialize(@NotNull Map<String, Object> map, @NotNull Class<T> type) {
+		return YamlCodec.deserializeEnumerator(map, type);
 	}
 
 	/**
@@ -50,9 +84,7 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 	 * @return new Enumerator
 	 */
 	public static <T> @NotNull Enumerator<T> fromList(@NotNull List<T> list) {
-		Enumerator<T> enumerator = new Enumerator<>();
-		list.forEach(enumerator::add);
-		return enumerator;
+		return new Enumerator<T>().addAll(list);
 	}
 
 	/**
@@ -63,73 +95,160 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 	 */
 	public static <T> @NotNull Enumerator<T> fromArray(T[] array) {
 		Enumerator<T> enumerator = new Enumerator<>();
-		Arrays.stream(array).forEach(enumerator::add);
+		enumerator.elements.ensureCapacity(array.length);
+		for (T value : array) enumerator.append(value);
 		return enumerator;
 	}
 
 	/**
 	 * Adds a new value to the Enumerator.
+	 * Appending in amortized O(1): no other element's index changes, and positions are derived from the size.
 	 *
 	 * @param value the value to add
 	 */
 	public Enumerator<T> add(T value) {
-		elements.add(new Element<>(value));
-		updatePositions();
+		append(value);
 		return this;
 	}
 
 	/**
-	 * Adds a collection of values to the Enumerator.
+	 * Adds a collection of values to the Enumerator, growing the backing list once up front.
 	 *
 	 * @param values the values to add
 	 */
 	public Enumerator<T> addAll(@NotNull Collection<T> values) {
-		values.forEach(this::add);
+		elements.ensureCapacity(elements.size() + values.size());
+		for (T value : values) append(value);
 		return this;
 	}
 
 	/**
-	 * Adds a collection of values to the Enumerator.
+	 * Adds a collection of values to the Enumerator, growing the backing list once up front.
 	 *
 	 * @param values the values to add
 	 */
 	@SafeVarargs
 	public final Enumerator<T> addAll(@NotNull T... values) {
-		for (T value: values) this.add(value);
+		elements.ensureCapacity(elements.size() + values.length);
+		for (T value: values) append(value);
 		return this;
 	}
 
 	/**
-	 * Removes a value from the Enumerator.
+	 * Removes every element holding a value from the Enumerator.
+	 * With an {@link #indexValues(boolean) index} the elements are found without comparing every value.
 	 *
 	 * @param value the value to remove
 	 * @return The Enumerator<T>
 	 */
 	public Enumerator<T> remove(T value) {
-		elements.removeIf(e -> Objects.equals(e.getValue(), value));
-		updatePositions();
+		if (valueIndex == null || value == null) {
+			ensureIndexed();
+			if (elements.removeIf(e -> Objects.equals(e.getValue(), value) && e.detach(e.index))) updateIndices(0);
+			return this;
+		}
+		List<Element<T>> holders = valueIndex.get(value);
+		if (holders == null) return this;
+		valueIndex.remove(value);
+		int[] indices = new int[holders.size()];
+		for (int i = 0; i < indices.length; i++) indices[i] = locate(holders.get(i));
+		Arrays.sort(indices);
+		for (int index : indices) elements.get(index).detach(index);
+		// From the back, so the earlier indices stay valid
+		for (int i = indices.length - 1; i >= 0; i--) elements.remove(indices[i]);
+		removed(indices[0], indices.length);
 		return this;
 	}
 
 	/**
-	 * Removes a value from the Enumerator.
+	 * Removes the element at an index from the Enumerator, shifting the ones after it down.
 	 *
-	 * @param value the value to remove
+	 * @param index the index of the element to remove
 	 * @return The Enumerator<T>
 	 */
 	public Enumerator<T> remove(int index) {
-		elements.removeIf(e -> Objects.equals(e.getIndex(), index));
-		updatePositions();
+		if (index < 0 || index >= elements.size()) return this;
+		Element<T> element = elements.get(index);
+		element.detach(index);
+		elements.remove(index);
+		unindex(element);
+		removed(index, 1);
 		return this;
 	}
 
+	/**
+	 * Checks if an element holds a value. O(1) expected with an {@link #indexValues(boolean) index},
+	 * a scan otherwise.
+	 *
+	 * @param value the value to look for
+	 * @return true if an element holds the value
+	 */
+	public boolean contains(T value) {
+		if (valueIndex != null && value != null) return valueIndex.containsKey(value);
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * Returns the index of the first element holding a value. O(1) expected with an
+	 * {@link #indexValues(boolean) index} plus the number of elements holding the value, a scan otherwise.
+	 *
+	 * @param value the value to look for
+	 * @return the index of the first element holding the value, or -1 if there is none
+	 */
+	public int indexOf(T value) {
+		if (valueIndex != null && value != null) {
+			List<Element<T>> holders = valueIndex.get(value);
+			if (holders == null) return -1;
+			int first = Integer.MAX_VALUE;
+			for (Element<T> holder : holders) first = Math.min(first, locate(holder));
+			return first;
+		}
+		for (int i = 0; i < elements.size(); i++) {
+			if (Objects.equals(elements.get(i).getValue(), value)) return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Keeps an index from every value to the elements holding it, so that {@link #contains(Object)},
+	 * {@link #indexOf(Object)} and {@link #remove(Object)} find them by hash instead of by scan.
+	 * Values must not change their {@code equals} and {@code hashCode} while they are held.
+	 * Removing still shifts the later elements down, as in any list backed by an array.
+	 *
+	 * @param enabled whether values should be indexed
+	 * @return The Enumerator<T>
+	 */
+	public Enumerator<T> indexValues(boolean enabled) {
+		if (!enabled) valueIndex = null;
+		else if (valueIndex == null) {
+			valueIndex = new Dictionary<>();
+			for (Element<T> element : elements) index(element);
+		}
+		return this;
+	}
+
+	/**
+	 * Checks if the Enumerator keeps an index of its values.
+	 *
+	 * @return true if values are indexed
+	 */
+	public boolean isIndexingValues() {
+		return valueIndex != null;
+	}
+
 	/**
 	 * Clears the Enumerator.
 	 *
 	 * @return The Enumerator<T>
 	 */
 	public Enumerator<T> clear() {
+		for (int i = 0; i < elements.size(); i++) elements.get(i).detach(i);
 		elements.clear();
+		staleFrom = Integer.MAX_VALUE;
+		removals = 0;
+		if (tagIndex != null) tagIndex.clear();
+		if (valueIndex != null) valueIndex.clear();
+		version++;
 		return this;
 	}
 
@@ -148,7 +267,7 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 	 * @return list of values
 	 */
 	public List<T> values() {
-		return elements.stream().map(Element::getValue).collect(Collectors.toList());
+		return list();
 	}
 
 	/**
@@ -156,6 +275,7 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 	 *
 	 * @param predicate the condition
 	 * @return a new filtered Enumerator
+	 * @see #view()
 	 */
 	public Enumerator<T> filter(Predicate<Element<T>> predicate) {
 		Enumerator<T> filtered = new Enumerator<>();
@@ -168,9 +288,68 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 	 *
 	 * @param tag the tag to match
 	 * @return a new Enumerator with matching elements
+	 * @see #view()
 	 */
 	public Enumerator<T> filterByTag(String tag) {
-		return filter(e -> e.hasTag(tag));
+		if (tagIndex == null) return filter(e -> e.hasTag(tag));
+		ensureIndexed();
+		Enumerator<T> filtered = new Enumerator<>();
+		BitSet indices = tagIndex.get(tag);
+		if (indices == null) return filtered;
+		filtered.elements.ensureCapacity(indices.cardinality());
+		for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+			filtered.append(elements.get(i).getValue());
+		}
+		return filtered;
+	}
+
+	/**
+	 * Returns a read-only live view of the elements carrying every one of the given tags, in order.
+	 * The query re-runs on the first read after the Enumerator or a tag changes; with an
+	 * {@link #indexTags(boolean) index} it intersects one bitset per tag instead of scanning the elements.
+	 *
+	 * @param tags the tags to match, all of them; none matches every element
+	 * @return a view of the matching elements
+	 */
+	public List<Element<T>> withAllTags(@NotNull String... tags) {
+		return new TagView(tags.clone(), true);
+	}
+
+	/**
+	 * Returns a read-only live view of the elements carrying at least one of the given tags, in order.
+	 * The query re-runs on the first read after the Enumerator or a tag changes; with an
+	 * {@link #indexTags(boolean) index} it unites one bitset per tag instead of scanning the elements.
+	 *
+	 * @param tags the tags to match, any of them; none matches no element
+	 * @return a view of the matching elements
+	 */
+	public List<Element<T>> withAnyTag(@NotNull String... tags) {
+		return new TagView(tags.clone(), false);
+	}
+
+	/**
+	 * Keeps an index from every tag to the elements carrying it, for Enumerators filtered by tag
+	 * more often than they change. Appending stays O(1); removing, sorting and shuffling rebuild the index.
+	 *
+	 * @param enabled whether tags should be indexed
+	 * @return The Enumerator<T>
+	 */
+	public Enumerator<T> indexTags(boolean enabled) {
+		if (!enabled) tagIndex = null;
+		else if (tagIndex == null) {
+			tagIndex = new Dictionary<>();
+			rebuildTagIndex();
+		}
+		return this;
+	}
+
+	/**
+	 * Checks if the Enumerator keeps an index of its tags.
+	 *
+	 * @return true if tags are indexed
+	 */
+	public boolean isIndexingTags() {
+		return tagIndex != null;
 	}
 
 	/**
@@ -211,7 +390,7 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 	 */
 	public Enumerator<T> sort(Comparator<T> comparator) {
 		elements.sort(Comparator.comparing(Element::getValue, comparator));
-		updatePositions();
+		updateIndices(0);
 		return this;
 	}
 
@@ -222,7 +401,7 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 	 */
 	public Enumerator<T> shuffle() {
 		Collections.shuffle(elements);
-		updatePositions();
+		updateIndices(0);
 		return this;
 	}
 
@@ -259,42 +438,72 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 	 *
 	 * @param mapper the transform function
 	 * @return a new mapped Enumerator
+	 * @see #view()
 	 */
 	public <R> Enumerator<R> map(Function<T, R> mapper) {
 		Enumerator<R> mapped = new Enumerator<>();
+		mapped.elements.ensureCapacity(elements.size());
 		for (Element<T> element : elements) {
-			mapped.add(mapper.apply(element.getValue()));
+			mapped.append(mapper.apply(element.getValue()));
 		}
 		return mapped;
 	}
 
 	public T[] array(Class<T> clazz) {
-		List<T> list = new ArrayList<>();
-		for (Element<T> element : getElements()) {
-			list.add(element.getValue());
-		}
 		@SuppressWarnings("unchecked")
-		T[] array = (T[]) Array.newInstance(clazz, list.size());
-		return list.toArray(array);
+		T[] array = (T[]) Array.newInstance(clazz, elements.size());
+		for (int i = 0; i < array.length; i++) {
+			array[i] = elements.get(i).getValue();
+		}
+		return array;
 	}
 
 	public List<T> list() {
-		List<T> list = new ArrayList<>();
-		for (Element<T> element: getElements()) {
+		List<T> list = new ArrayList<>(elements.size());
+		for (Element<T> element: elements) {
 			list.add(element.getValue());
 		}
 		return list;
 	}
 
 	/**
-	 * Converts the Enumerator to a simple JSON-style string.
+	 * Converts the Enumerator to a JSON array of its values as strings.
 	 *
 	 * @return string representation
 	 */
 	public String toJson() {
-		return elements.stream()
-				.map(e -> "\"" + e.getValue().toString() + "\"")
-				.collect(Collectors.joining(", ", "[", "]"));
+		StringWriter out = new StringWriter();
+		try {
+			JsonWriter writer = new JsonWriter(out);
+			writer.beginArray();
+			for (Element<T> element : elements) writer.value(String.valueOf(element.getValue()));
+			writer.endArray();
+		} catch (IOException e) {
+			throw new JsonIOException(e);
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Streams the Enumerator as a JSON array of its values to a writer.
+	 * Tags and metadata are not written. See {@link JsonCodec} for the format.
+	 *
+	 * @param out the writer to write to
+	 * @param valueAdapter the adapter for the values
+	 */
+	public void toJson(@NotNull Writer out, @NotNull TypeAdapter<T> valueAdapter) throws IOException {
+		JsonCodec.enumerator(valueAdapter).write(new JsonWriter(out), this);
+	}
+
+	/**
+	 * Streams a JSON array from a reader into a new Enumerator.
+	 *
+	 * @param in the reader to read from
+	 * @param valueAdapter the adapter for the values
+	 * @return new Enumerator
+	 */
+	public static <T> Enumerator<T> fromJson(@NotNull Reader in, @NotNull TypeAdapter<T> valueAdapter) throws IOException {
+		return JsonCodec.enumerator(valueAdapter).read(new JsonReader(in));
 	}
 
 	public Map<T, T> toMap() throws ArrayIndexOutOfBoundsException {
@@ -325,13 +534,15 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 	@Override
 	public Enumerator<T> clone() throws CloneNotSupportedException {
 		Enumerator<T> cloned = new Enumerator<>();
+		cloned.indexTags(tagIndex != null);
+		cloned.indexValues(valueIndex != null);
+		cloned.elements.ensureCapacity(elements.size());
 		for (Element<T> element : this.elements) {
-			Element<T> newElement = new Element<>(element.getValue());
+			Element<T> newElement = cloned.append(element.getValue());
 			newElement.getTags().addAll(element.getTags());
 			newElement.getMetadata().addAll(element.getMetadata());
-			cloned.elements.add(newElement);
 		}
-		cloned.updatePositions();
+		cloned.binarySerialization = binarySerialization;
 		return cloned;
 	}
 
@@ -346,38 +557,155 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 	}
 
 	/**
-	 * Serializes the Enumerator.
+	 * Switches between native YAML and binary serialization. A binary Enumerator is written as one
+	 * base64 blob, which loads faster when large but needs serializable values.
+	 *
+	 * @param enabled whether the Enumerator should serialize to a binary blob
+	 * @return The Enumerator<T>
+	 */
+	public Enumerator<T> binarySerialization(boolean enabled) {
+		this.binarySerialization = enabled;
+		return this;
+	}
+
+	/**
+	 * Checks if the Enumerator serializes to a binary blob.
+	 *
+	 * @return true if binary serialization is enabled
+	 */
+	public boolean isBinarySerialization() {
+		return binarySerialization;
+	}
+
+	/**
+	 * Serializes the Enumerator as a native YAML list of values (with their tags), or as a base64 blob.
 	 *
 	 * @return The configuration section mapped out.
 	 */
 	@Override
 	public @NotNull Map<String, Object> serialize() {
-		Map<String, Object> section = new HashMap<>();
-		int i = 0;
-		for (Element<T> e : elements) {
-			String key = "elements" + i++;
-			section.put(key + "value", e.getValue().toString()); // assume toString is enough
-			section.put(key + "tags", new ArrayList<>(e.getTags()));
+		return YamlCodec.serialize(this, binarySerialization);
+	}
+
+	private Element<T> append(T value) {
+		Element<T> element = new Element<>(value);
+		element.attach(this, elements.size());
+		elements.add(element);
+		if (valueIndex != null) index(element);
+		version++;
+		return element;
+	}
+
+	// Only needed after reorderings from an index on; positions follow from the indices and the size
+	private void updateIndices(int from) {
+		staleFrom = Math.min(staleFrom, from);
+		version++;
+		ensureIndexed();
+	}
+
+	// After removals from an index on, the renumbering waits until enough of them have piled up,
+	// so a run of removals walks the tail once instead of once per removal
+	private void removed(int from, int count) {
+		staleFrom = Math.min(staleFrom, from);
+		removals += count;
+		version++;
+		if (removals > MAX_PENDING_REMOVALS) ensureIndexed();
+	}
+
+	private void ensureIndexed() {
+		if (staleFrom == Integer.MAX_VALUE) return;
+		for (int i = staleFrom; i < elements.size(); i++) {
+			elements.get(i).setIndex(i);
 		}
-		return section;
+		staleFrom = Integer.MAX_VALUE;
+		removals = 0;
+		if (tagIndex != null) rebuildTagIndex();
 	}
 
-	private void updatePositions() {
+	// The true index of an element of this Enumerator: only removals leave indices stale, and each
+	// moves an element down by one, so it sits at most `removals` slots below its stored index
+	private int locate(Element<T> element) {
+		int index = element.index;
+		if (index < staleFrom) return index;
+		int low = Math.max(staleFrom, index - removals);
+		for (int i = Math.min(index, elements.size() - 1); i >= low; i--) {
+			if (elements.get(i) == element) return element.index = i;
+		}
+		throw new IllegalStateException("Enumerator.locate(Element<T> element) -> element is not held by this Enumerator");
+	}
+
+	private void index(Element<T> element) {
+		if (element.value != null) valueIndex.computeIfAbsent(element.value, v -> new ArrayList<>(1)).add(element);
+	}
+
+	private void unindex(Element<T> element) {
+		if (valueIndex == null || element.value == null) return;
+		List<Element<T>> holders = valueIndex.get(element.value);
+		if (holders == null) return;
+		holders.remove(element);
+		if (holders.isEmpty()) valueIndex.remove(element.value);
+	}
+
+	private void rebuildTagIndex() {
+		tagIndex.clear();
 		for (int i = 0; i < elements.size(); i++) {
-			Element<T> e = elements.get(i);
-			e.setIndex(i);
-			e.setPosition(Position.from(i, elements.size()));
+			for (String tag : elements.get(i).tags) {
+				tagIndex.computeIfAbsent(tag, t -> new BitSet()).set(i);
+			}
+		}
+	}
+
+	// Called by an element of this Enumerator whose tag was added or removed
+	private void tagged(Element<T> element, String tag, boolean added) {
+		version++;
+		if (tagIndex == null) return;
+		ensureIndexed();
+		if (added) tagIndex.computeIfAbsent(tag, t -> new BitSet()).set(element.index);
+		else {
+			BitSet indices = tagIndex.get(tag);
+			if (indices == null) return;
+			indices.clear(element.index);
+			if (indices.isEmpty()) tagIndex.remove(tag);
 		}
 	}
 
 	/**
-	 * Returns an iterator over elements of type {@code T}.
+	 * Returns an iterator over elements of type {@code T}. It reads the Enumerator itself rather
+	 * than a copy: {@link Iterator#remove()} removes from the Enumerator, and any other change
+	 * while iterating makes it throw a {@link ConcurrentModificationException}.
 	 *
 	 * @return an Iterator.
 	 */
 	@Override
 	public @NotNull Iterator<T> iterator() {
-		return list().iterator();
+		return new Iterator<>() {
+			private int cursor;
+			private int last = -1;
+			private int expectedSize = elements.size();
+
+			@Override
+			public boolean hasNext() {
+				return cursor < elements.size();
+			}
+
+			@Override
+			public T next() {
+				if (elements.size() != expectedSize) throw new ConcurrentModificationException();
+				if (cursor >= expectedSize) throw new NoSuchElementException();
+				last = cursor;
+				return elements.get(cursor++).getValue();
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0) throw new IllegalStateException();
+				if (elements.size() != expectedSize) throw new ConcurrentModificationException();
+				Enumerator.this.remove(last);
+				cursor = last;
+				last = -1;
+				expectedSize--;
+			}
+		};
 	}
 
 	/**
@@ -401,31 +729,154 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 	 */
 	@Override
 	public void forEach(Consumer<? super T> action) {
-		list().forEach(action);
+		if (action == null) throw new NullPointerException("Enumerator.forEach(Consumer<T> action) -> 'action' cannot be null");
+		int size = elements.size();
+		for (int i = 0; i < size && elements.size() == size; i++) {
+			action.accept(elements.get(i).getValue());
+		}
+		if (elements.size() != size) throw new ConcurrentModificationException();
 	}
 
 	/**
-	 * Creates a {@link Spliterator} over the elements described by this
-	 * {@code Iterable}.
+	 * Creates a {@link Spliterator} over the values, read straight from the backing array.
+	 * It is {@link Spliterator#ORDERED ORDERED}, {@link Spliterator#SIZED SIZED} and
+	 * {@link Spliterator#SUBSIZED SUBSIZED}, splits in halves by index, binds late and fails fast
+	 * on a change to the Enumerator, as the spliterator of an {@link ArrayList} does.
 	 *
-	 * @return a {@code Spliterator} over the elements described by this
-	 * {@code Iterable}.
-	 * @implSpec The default implementation creates an
-	 * <em><a href="../util/Spliterator.html#binding">early-binding</a></em>
-	 * spliterator from the iterable's {@code Iterator}.  The spliterator
-	 * inherits the <em>fail-fast</em> properties of the iterable's iterator.
-	 * @implNote The default implementation should usually be overridden.  The
-	 * spliterator returned by the default implementation has poor splitting
-	 * capabilities, is unsized, and does not report any spliterator
-	 * characteristics. Implementing classes can nearly always provide a
-	 * better implementation.
-	 * @since 1.8
+	 * @return a {@code Spliterator} over the values of the Enumerator.
 	 */
 	@Override
 	public Spliterator<T> spliterator() {
-		return list().spliterator();
+		return new Values<>(elements.spliterator());
+	}
+
+	/**
+	 * Returns a sequential stream of the values, without copying them.
+	 *
+	 * @return a stream of the values
+	 */
+	public Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false);
 	}
 
+	/**
+	 * Returns a parallel stream of the values, without copying them. The values are split
+	 * by index into equal halves, so every thread gets an even share of the work.
+	 *
+	 * @return a possibly parallel stream of the values
+	 */
+	public Stream<T> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	/**
+	 * The values of a spliterator over the elements, which does the splitting, sizing and fail-fast checks.
+	 */
+	private static final class Values<T> implements Spliterator<T> {
+		private final Spliterator<Element<T>> elements;
+
+		private Values(Spliterator<Element<T>> elements) {
+			this.elements = elements;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			return elements.tryAdvance(element -> action.accept(element.getValue()));
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			elements.forEachRemaining(element -> action.accept(element.getValue()));
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			Spliterator<Element<T>> prefix = elements.trySplit();
+			return prefix == null ? null : new Values<>(prefix);
+		}
+
+		@Override
+		public long estimateSize() {
+			return elements.estimateSize();
+		}
+
+		@Override
+		public int characteristics() {
+			return elements.characteristics();
+		}
+	}
+
+
+	/**
+	 * The elements matching a tag query. It keeps the indices of the matches, never copies of the
+	 * elements, and recomputes them when the Enumerator has changed since they were computed.
+	 */
+	private final class TagView extends AbstractList<Element<T>> implements RandomAccess {
+		private final String[] tags;
+		private final boolean all;
+		private int[] matches;
+		private int computedAt;
+
+		private TagView(String[] tags, boolean all) {
+			this.tags = tags;
+			this.all = all;
+		}
+
+		@Override
+		public Element<T> get(int index) {
+			int[] indices = matches();
+			Objects.checkIndex(index, indices.length);
+			return elements.get(indices[index]);
+		}
+
+		@Override
+		public int size() {
+			return matches().length;
+		}
+
+		private int[] matches() {
+			if (matches == null || computedAt != version) {
+				ensureIndexed();
+				matches = (tagIndex != null ? indexed() : scanned()).stream().toArray();
+				computedAt = version;
+			}
+			return matches;
+		}
+
+		private BitSet indexed() {
+			BitSet result = null;
+			for (String tag : tags) {
+				BitSet indices = tagIndex.get(tag);
+				if (indices == null) {
+					if (all) return new BitSet();
+					continue;
+				}
+				if (result == null) result = (BitSet) indices.clone();
+				else if (all) result.and(indices);
+				else result.or(indices);
+			}
+			if (result != null) return result;
+			result = new BitSet();
+			if (all && tags.length == 0) result.set(0, elements.size());
+			return result;
+		}
+
+		private BitSet scanned() {
+			BitSet result = new BitSet();
+			for (int i = 0; i < elements.size(); i++) {
+				Element<T> element = elements.get(i);
+				boolean match = all;
+				for (String tag : tags) {
+					if (element.hasTag(tag) != all) {
+						match = !all;
+						break;
+					}
+				}
+				if (match) result.set(i);
+			}
+			return result;
+		}
+	}
 
 	/**
 	 * Describes the position of an element in the Enumerator.
@@ -453,7 +904,11 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 		private final T value;
 		private final Set<String> tags = new HashSet<>();
 		private final List<Object> metadata = new ArrayList<>();
+		private Set<String> tagView;
+		// The Enumerator holding this element, which its position is derived from
+		private Enumerator<T> owner;
 		private int index;
+		// The last position of an element that was removed, null for one never added
 		private Position position;
 
 		public Element(T value) {
@@ -465,7 +920,7 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 		}
 
 		public int getIndex() {
-			return index;
+			return owner == null ? index : owner.locate(this);
 		}
 
 		private void setIndex(int index) {
@@ -473,15 +928,29 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 		}
 
 		public Position getPosition() {
-			return position;
+			return owner == null ? position : Position.from(getIndex(), owner.size());
+		}
+
+		private void attach(Enumerator<T> owner, int index) {
+			this.owner = owner;
+			this.index = index;
 		}
 
-		private void setPosition(Position position) {
-			this.position = position;
+		// Freezes the position of an element about to be removed from an index; always true, so it can sit in a removeIf filter
+		private boolean detach(int index) {
+			this.index = index;
+			position = Position.from(index, owner.size());
+			owner = null;
+			return true;
 		}
 
+		/**
+		 * Returns the tags of this element. Changes made through the set, its iterator included,
+		 * reach the tag index of the Enumerator holding the element.
+		 */
 		public Set<String> getTags() {
-			return tags;
+			Set<String> view = tagView;
+			return view != null ? view : (tagView = new Tags());
 		}
 
 		public boolean hasTag(String tag) {
@@ -493,12 +962,12 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 		}
 
 		public Element<T> addTag(String tag) {
-			tags.add(tag);
+			if (tags.add(tag) && owner != null) owner.tagged(this, tag, true);
 			return this;
 		}
 
 		public Element<T> removeTag(String tag) {
-			tags.remove(tag);
+			if (tags.remove(tag) && owner != null) owner.tagged(this, tag, false);
 			return this;
 		}
 
@@ -518,9 +987,70 @@ public class Enumerator<T> implements Iterable<T>, Cloneable, ConfigurationSeria
 					.map(type::cast)
 					.findFirst();
 		}
+
+		private final class Tags extends AbstractSet<String> {
+			@Override
+			public @NotNull Iterator<String> iterator() {
+				Iterator<String> iterator = tags.iterator();
+				return new Iterator<>() {
+					private String current;
+
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public String next() {
+						return current = iterator.next();
+					}
+
+					@Override
+					public void remove() {
+						iterator.remove();
+						if (owner != null) owner.tagged(Element.this, current, false);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return tags.size();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return tags.contains(o);
+			}
+
+			@Override
+			public boolean add(String tag) {
+				int size = tags.size();
+				addTag(tag);
+				return tags.size() != size;
+			}
+
+			@Override
+			public boolean remove(Object o) {
+				if (!(o instanceof String tag) || !tags.contains(tag)) return false;
+				removeTag(tag);
+				return true;
+			}
+		}
 	}
 
 	public PaginatedEnumerator<T> paginate(int page, int itemsPerPage) {
 		return new PaginatedEnumerator<>(this, page, itemsPerPage);
 	}
+
+	/**
+	 * Returns a lazy view of the Enumerator. Its filter, map and sort steps copy nothing;
+	 * they run fused, in a single pass, once a terminal operation such as
+	 * {@link EnumeratorView#page(int, int)} reads them.
+	 *
+	 * @return a view over the elements of the Enumerator
+	 */
+	public EnumeratorView<T> view() {
+		return new EnumeratorView<>(this);
+	}
 }
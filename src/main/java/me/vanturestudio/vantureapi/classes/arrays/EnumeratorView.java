@@ -0,0 +1,497 @@
+package me.vanturestudio.vantureapi.classes.arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A lazy pipeline over the elements of an {@link Enumerator}, made by {@link Enumerator#view()}.
+ * Steps such as {@link #filter(Predicate)}, {@link #map(Function)} and {@link #sorted(Comparator)} are only
+ * recorded; a terminal operation such as {@link #page(int, int)} or {@link #toList()} then runs all of them
+ * in one pass over the Enumerator, without the intermediate Enumerators and elements that
+ * {@link Enumerator#filter(Predicate)} and {@link Enumerator#map(Function)} build. Only what the terminal
+ * operation returns is materialized: a sorted page keeps the elements up to the end of the page, not all of them.
+ * <p>
+ * Every step returns a new view and leaves this one as it was. A view reads the Enumerator each time a
+ * terminal operation runs, so it can be kept and run again; the Enumerator must not change while one runs.
+ *
+ * @param <T> the type of the values at the end of the pipeline
+ */
+public class EnumeratorView<T> {
+
+	// Stands for every element where a step reads all of them
+	private static final long ALL = Long.MAX_VALUE;
+
+	private final Enumerator<?> source;
+	private final Step[] steps;
+	// Whether a map step has replaced the values of the source elements
+	private final boolean mapped;
+
+	EnumeratorView(@NotNull Enumerator<T> source) {
+		this(source, new Step[0], false);
+	}
+
+	private EnumeratorView(Enumerator<?> source, Step[] steps, boolean mapped) {
+		this.source = source;
+		this.steps = steps;
+		this.mapped = mapped;
+	}
+
+	/**
+	 * Keeps the values matching a condition.
+	 *
+	 * @param predicate the condition
+	 * @return a new view with the step added
+	 */
+	@SuppressWarnings("unchecked")
+	public EnumeratorView<T> filter(@NotNull Predicate<? super T> predicate) {
+		return then((need, size, downstream) -> new Sink(downstream) {
+			@Override
+			boolean accept(Enumerator.Element<?> element, Object value) {
+				return !predicate.test((T) value) || downstream.accept(element, value);
+			}
+		}, mapped);
+	}
+
+	/**
+	 * Keeps the elements carrying a tag. Tags belong to the elements of the Enumerator,
+	 * so this works before and after a {@link #map(Function)} alike.
+	 *
+	 * @param tag the tag to match
+	 * @return a new view with the step added
+	 */
+	public EnumeratorView<T> filterByTag(@NotNull String tag) {
+		return withAllTags(tag);
+	}
+
+	/**
+	 * Keeps the elements carrying every one of the tags. As the first step, it reads the
+	 * {@link Enumerator#indexTags(boolean) tag index} instead of every element.
+	 *
+	 * @param tags the tags to match
+	 * @return a new view with the step added
+	 */
+	public EnumeratorView<T> withAllTags(@NotNull String... tags) {
+		return then(new TagStep(tags.clone(), true), mapped);
+	}
+
+	/**
+	 * Keeps the elements carrying at least one of the tags. As the first step, it reads the
+	 * {@link Enumerator#indexTags(boolean) tag index} instead of every element.
+	 *
+	 * @param tags the tags to match
+	 * @return a new view with the step added
+	 */
+	public EnumeratorView<T> withAnyTag(@NotNull String... tags) {
+		return then(new TagStep(tags.clone(), false), mapped);
+	}
+
+	/**
+	 * Transforms the values. The function only runs for values a later step or the terminal operation reads:
+	 * {@link #count()} never runs it, and {@link #page(int, int)} only for the values on the page.
+	 *
+	 * @param mapper the transform function
+	 * @return a new view of the mapped values
+	 */
+	@SuppressWarnings("unchecked")
+	public <R> EnumeratorView<R> map(@NotNull Function<? super T, ? extends R> mapper) {
+		return then(new MapStep((Function<Object, Object>) mapper), true);
+	}
+
+	/**
+	 * Sorts the values, keeping elements that compare equal in their order. When only the first
+	 * values are read, as by {@link #page(int, int)}, {@link #limit(int)} or {@link #findFirst()},
+	 * only that many are kept while sorting.
+	 *
+	 * @param comparator the order of the values
+	 * @return a new view with the step added
+	 */
+	public EnumeratorView<T> sorted(@NotNull Comparator<? super T> comparator) {
+		return then((need, size, downstream) -> new SortSink<>(comparator, need, size, downstream), mapped);
+	}
+
+	/**
+	 * Keeps at most the first values.
+	 *
+	 * @param maxSize the number of values to keep
+	 * @return a new view with the step added
+	 */
+	public EnumeratorView<T> limit(int maxSize) {
+		if (maxSize < 0) throw new IllegalArgumentException("EnumeratorView.limit(int maxSize) -> 'maxSize' cannot be negative");
+		return then(new Step() {
+			@Override
+			public Sink wrap(long need, int size, Sink downstream) {
+				return new Sink(downstream) {
+					private long sent;
+
+					@Override
+					boolean accept(Enumerator.Element<?> element, Object value) {
+						return sent < maxSize && downstream.accept(element, value) && ++sent < maxSize;
+					}
+
+					@Override
+					void passed(long n) {
+						long left = Math.min(n, maxSize - sent);
+						sent += left;
+						downstream.passed(left);
+					}
+				};
+			}
+
+			@Override
+			public long upstream(long need) {
+				return Math.min(need, maxSize);
+			}
+
+			@Override
+			public boolean readsValues() {
+				return false;
+			}
+		}, mapped);
+	}
+
+	/**
+	 * Runs the pipeline and cuts one page out of its values. Every value is counted for
+	 * {@link PaginatedEnumerator#getTotalPages()}, but only those on the page are kept.
+	 * Unless the pipeline maps them, the page holds the elements of the Enumerator themselves.
+	 *
+	 * @param page         the page, counted from 1
+	 * @param itemsPerPage the number of values per page
+	 * @return the page
+	 */
+	@SuppressWarnings("unchecked")
+	public PaginatedEnumerator<T> page(int page, int itemsPerPage) {
+		int number = Math.max(1, page);
+		int perPage = Math.max(1, itemsPerPage);
+		long from = (long) (number - 1) * perPage;
+		List<Enumerator.Element<T>> kept = new ArrayList<>();
+		long[] total = new long[1];
+		run(from + perPage, new Terminal() {
+			@Override
+			boolean accept(Enumerator.Element<?> element, Object value) {
+				long at = total[0]++;
+				if (at >= from && at < from + perPage) {
+					kept.add(mapped ? new Enumerator.Element<>((T) finish.apply(value)) : (Enumerator.Element<T>) element);
+				}
+				return true;
+			}
+
+			@Override
+			void passed(long n) {
+				total[0] += n;
+			}
+		});
+		return new PaginatedEnumerator<>(kept, number, perPage, (int) total[0]);
+	}
+
+	/**
+	 * Runs the pipeline and collects its values.
+	 *
+	 * @return a new list of the values
+	 */
+	public List<T> toList() {
+		List<T> list = new ArrayList<>();
+		forEach(list::add);
+		return list;
+	}
+
+	/**
+	 * Runs the pipeline and collects its values into a new Enumerator.
+	 *
+	 * @return a new Enumerator of the values
+	 */
+	public Enumerator<T> toEnumerator() {
+		return Enumerator.fromList(toList());
+	}
+
+	/**
+	 * Runs the pipeline and performs an action for each of its values.
+	 *
+	 * @param action the action to be performed for each value
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(@NotNull Consumer<? super T> action) {
+		run(ALL, new Terminal() {
+			@Override
+			boolean accept(Enumerator.Element<?> element, Object value) {
+				action.accept((T) finish.apply(value));
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Runs the pipeline and counts its values, without keeping any of them.
+	 *
+	 * @return the number of values
+	 */
+	public int count() {
+		long[] total = new long[1];
+		run(0, new Terminal() {
+			@Override
+			boolean accept(Enumerator.Element<?> element, Object value) {
+				total[0]++;
+				return true;
+			}
+
+			@Override
+			void passed(long n) {
+				total[0] += n;
+			}
+		});
+		return (int) total[0];
+	}
+
+	/**
+	 * Runs the pipeline until its first value.
+	 *
+	 * @return the first value, or empty if there is none or it is null
+	 */
+	@SuppressWarnings("unchecked")
+	public Optional<T> findFirst() {
+		Object[] first = new Object[1];
+		run(1, new Terminal() {
+			@Override
+			boolean accept(Enumerator.Element<?> element, Object value) {
+				first[0] = finish.apply(value);
+				return false;
+			}
+		});
+		return Optional.ofNullable((T) first[0]);
+	}
+
+	/**
+	 * Runs the pipeline until a value matches a condition.
+	 *
+	 * @param predicate the condition
+	 * @return true if any value matches
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean anyMatch(@NotNull Predicate<? super T> predicate) {
+		boolean[] found = new boolean[1];
+		run(ALL, new Terminal() {
+			@Override
+			boolean accept(Enumerator.Element<?> element, Object value) {
+				return !(found[0] = predicate.test((T) finish.apply(value)));
+			}
+		});
+		return found[0];
+	}
+
+	// Private helper methods
+
+	@SuppressWarnings("unchecked")
+	private <R> EnumeratorView<R> then(Step step, boolean mapped) {
+		Step[] next = Arrays.copyOf(steps, steps.length + 1);
+		next[steps.length] = step;
+		return new EnumeratorView<>(source, next, mapped);
+	}
+
+	// Chains the steps into the terminal sink from the back, then pushes every source element through once
+	private void run(long need, Terminal terminal) {
+		List<? extends Enumerator.Element<?>> elements = source.getElements();
+		int first = 0;
+		if (steps.length > 0 && steps[0] instanceof TagStep tagStep && source.isIndexingTags()) {
+			elements = tagStep.all ? source.withAllTags(tagStep.tags) : source.withAnyTag(tagStep.tags);
+			first = 1;
+		}
+		int size = elements.size();
+		Sink sink = terminal;
+		// Maps with no step after them that reads values are left to the terminal operation, for the values it reads
+		boolean read = false;
+		for (int i = steps.length - 1; i >= first; i--) {
+			if (!read && steps[i] instanceof MapStep mapStep) {
+				terminal.finish = mapStep.mapper.andThen(terminal.finish);
+				continue;
+			}
+			sink = steps[i].wrap(need, size, sink);
+			need = steps[i].upstream(need);
+			read |= steps[i].readsValues();
+		}
+		for (int i = 0; i < size; i++) {
+			Enumerator.Element<?> element = elements.get(i);
+			if (!sink.accept(element, element.getValue())) break;
+		}
+		sink.end();
+	}
+
+	/**
+	 * A recorded step, turned into a sink when a terminal operation runs.
+	 */
+	@FunctionalInterface
+	private interface Step {
+		// `need` is the most values the steps after this one read, `size` the most elements the source holds
+		Sink wrap(long need, int size, Sink downstream);
+
+		// The most values this step reads when the steps after it read `need`
+		default long upstream(long need) {
+			return ALL;
+		}
+
+		// Whether the step looks at the values, rather than only at the elements or their number
+		default boolean readsValues() {
+			return true;
+		}
+	}
+
+	/**
+	 * Receives the elements of one run, each with its value as the steps before have made it.
+	 */
+	private abstract static class Sink {
+		final Sink downstream;
+
+		Sink(Sink downstream) {
+			this.downstream = downstream;
+		}
+
+		// Returns false once no more values are wanted
+		abstract boolean accept(Enumerator.Element<?> element, Object value);
+
+		// Counts n more values after the accepted ones that were not sent, as a bounded sort does;
+		// only steps that keep every value get these, since a bound is only set through them
+		void passed(long n) {
+			if (downstream != null) downstream.passed(n);
+		}
+
+		void end() {
+			if (downstream != null) downstream.end();
+		}
+	}
+
+	/**
+	 * The sink at the end of a run, which applies the maps left to it to every value it reads.
+	 */
+	private abstract static class Terminal extends Sink {
+		Function<Object, Object> finish = Function.identity();
+
+		Terminal() {
+			super(null);
+		}
+	}
+
+	private static final class MapStep implements Step {
+		private final Function<Object, Object> mapper;
+
+		private MapStep(Function<Object, Object> mapper) {
+			this.mapper = mapper;
+		}
+
+		@Override
+		public Sink wrap(long need, int size, Sink downstream) {
+			return new Sink(downstream) {
+				@Override
+				boolean accept(Enumerator.Element<?> element, Object value) {
+					return downstream.accept(element, mapper.apply(value));
+				}
+			};
+		}
+
+		@Override
+		public long upstream(long need) {
+			return need;
+		}
+	}
+
+	private static final class TagStep implements Step {
+		private final String[] tags;
+		private final boolean all;
+
+		private TagStep(String[] tags, boolean all) {
+			this.tags = tags;
+			this.all = all;
+		}
+
+		@Override
+		public Sink wrap(long need, int size, Sink downstream) {
+			return new Sink(downstream) {
+				@Override
+				boolean accept(Enumerator.Element<?> element, Object value) {
+					return !matches(element) || downstream.accept(element, value);
+				}
+			};
+		}
+
+		@Override
+		public boolean readsValues() {
+			return false;
+		}
+
+		private boolean matches(Enumerator.Element<?> element) {
+			for (String tag : tags) {
+				if (element.hasTag(tag) != all) return !all;
+			}
+			return all;
+		}
+	}
+
+	/**
+	 * Holds the values until the end of the run, then sends them on in order. With fewer values needed
+	 * than the source holds, it keeps only the smallest ones in a heap, and counts the rest.
+	 */
+	private static final class SortSink<T> extends Sink {
+		private final Comparator<? super T> comparator;
+		private final Comparator<Entry> order;
+		private final int bound;
+		private final PriorityQueue<Entry> heap;
+		private final List<Entry> all;
+		private long seen;
+
+		@SuppressWarnings("unchecked")
+		private SortSink(Comparator<? super T> comparator, long need, int size, Sink downstream) {
+			super(downstream);
+			this.comparator = comparator;
+			Comparator<Entry> byValue = (a, b) -> comparator.compare((T) a.value, (T) b.value);
+			// The arrival order breaks ties, so the sort is stable with or without the heap
+			this.order = byValue.thenComparingLong(e -> e.seen);
+			this.bound = (int) Math.min(need, size);
+			this.heap = need < size ? new PriorityQueue<>(Math.max(1, bound), order.reversed()) : null;
+			this.all = heap == null ? new ArrayList<>() : null;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		boolean accept(Enumerator.Element<?> element, Object value) {
+			long arrival = seen++;
+			if (heap == null) all.add(new Entry(element, value, arrival));
+			else if (heap.size() < bound) heap.add(new Entry(element, value, arrival));
+			// A later value only displaces a strictly greater one, so most values are turned away without an entry
+			else if (bound > 0 && comparator.compare((T) value, (T) heap.peek().value) < 0) {
+				heap.poll();
+				heap.add(new Entry(element, value, arrival));
+			}
+			return true;
+		}
+
+		@Override
+		void end() {
+			Entry[] sorted = (heap == null ? all : heap).toArray(new Entry[0]);
+			Arrays.sort(sorted, order);
+			boolean open = true;
+			for (Entry entry : sorted) {
+				if (!(open = downstream.accept(entry.element, entry.value))) break;
+			}
+			if (open && seen > sorted.length) downstream.passed(seen - sorted.length);
+			downstream.end();
+		}
+
+		private static final class Entry {
+			private final Enumerator.Element<?> element;
+			private final Object value;
+			private final long seen;
+
+			private Entry(Enumerator.Element<?> element, Object value, long seen) {
+				this.element = element;
+				this.value = value;
+				this.seen = seen;
+			}
+		}
+	}
+}
@@ -0,0 +1,754 @@
+package me.vanturestudio.vantureapi.classes.arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A {@link Dictionary} counterpart keyed by primitive {@code int}s, built for small dense
+ * key ranges such as inventory slots. Keys are stored unboxed in an open-addressing table,
+ * so lookups and insertions never allocate.
+ * <p>
+ * Key {@code 0} cannot double as the free-slot marker, so it is kept in a dedicated field.
+ *
+ * @param <V> the type of mapped values
+ */
+public class IntDictionary<V> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+	private static final double DEFAULT_LOAD_FACTOR = 0.75;
+
+	// A zero key marks a free slot; the real key 0 lives in zeroValue
+	private int[] keys;
+	private Object[] values;
+	private int mask;
+	private int threshold;
+	private int size;
+
+	private boolean hasZeroKey;
+	private V zeroValue;
+
+	private final double loadFactor;
+
+	// Boxed view, created on first use
+	private DictionaryView<V> dictionaryView;
+
+	/**
+	 Constructs an empty dictionary with an initial capacity of {@code DEFAULT_CAPACITY}.
+	 */
+	public IntDictionary(){
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 Constructs an empty dictionary able to hold {@code CAPACITY} keys without resizing.
+	 */
+	public IntDictionary(final int CAPACITY){
+		if(CAPACITY < 0) throw new IllegalArgumentException("Illegal capacity: " + CAPACITY);
+		this.loadFactor = DEFAULT_LOAD_FACTOR;
+		allocate(tableSizeFor((int) Math.ceil(CAPACITY / loadFactor)));
+	}
+
+	/**
+	 Adds a key-value pair to the dictionary. If the key already exists, updates the value.
+
+	 @param k the key with which the specified value is to be associated
+	 @param v the value to be associated with the specified key
+
+	 @return if the object got put into the dictionary
+	 */
+	public boolean put(int k, V v){
+		if(k == 0){
+			if(!hasZeroKey){
+				hasZeroKey = true;
+				size++;
+			}
+			zeroValue = v;
+			return true;
+		}
+		int[] ks = keys;
+		int m = mask;
+		int i = spread(k) & m;
+		int current;
+		while((current = ks[i]) != 0){
+			if(current == k){
+				values[i] = v;
+				return true;
+			}
+			i = (i + 1) & m;
+		}
+		ks[i] = k;
+		values[i] = v;
+		if(++size > threshold){
+			resize(ks.length << 1);
+		}
+		return true;
+	}
+
+	/**
+	 Adds a key-value pair to the dictionary if the key does not already exist.
+
+	 @param k the key with which the specified value is to be associated
+	 @param v the value to be associated with the specified key
+	 */
+	public IntDictionary<V> putIfAbsent(int k, V v){
+		if(!containsKey(k)){
+			put(k, v);
+		}
+		return this;
+	}
+
+	/**
+	 Adds a key-value pair to the dictionary. If the key already exists, update the value. Then returns the dictionary.
+
+	 @param k the key with which the specified value is to be associated
+	 @param v the value to be associated with the specified key
+	 */
+	public IntDictionary<V> putAndReturn(int k, V v){
+		put(k, v);
+		return this;
+	}
+
+	/**
+	 Retrieves the value associated with the specified key from the dictionary.
+
+	 @param k the key whose associated value is to be returned
+
+	 @return the value to which the specified key is mapped, or {@code null} if this dictionary contains no mapping for the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int k){
+		if(k == 0) return zeroValue;
+		int i = indexOf(k);
+		return i < 0 ? null : (V) values[i];
+	}
+
+	/**
+	 Retrieves the value associated with the specified key from the dictionary,
+	 or returns a default value if the key is not found.
+
+	 @param k  the key whose associated value is to be returned
+	 @param dv the default value to return if the key is not found
+
+	 @return the value to which the specified key is mapped, or {@code defaultValue} if the key is not found
+	 */
+	public V getOrDefault(int k, V dv){
+		V value = get(k);
+		return (value != null) ? value : dv;
+	}
+
+	/**
+	 Checks if the dictionary contains the specified key.
+
+	 @param k the key whose presence in this dictionary is to be tested
+
+	 @return {@code true} if this dictionary contains a mapping for the specified key, {@code false} otherwise
+	 */
+	public boolean containsKey(int k){
+		return k == 0 ? hasZeroKey : indexOf(k) >= 0;
+	}
+
+	/**
+	 Checks if the dictionary contains at least one key-value pair with the specified value.
+
+	 @param v the value whose presence in this dictionary is to be tested
+
+	 @return {@code true} if this dictionary contains at least one key-value pair with the specified value, {@code false} otherwise
+	 */
+	public boolean containsValue(V v){
+		if(hasZeroKey && Objects.equals(zeroValue, v)) return true;
+		for(int i = 0; i < keys.length; i++){
+			if(keys[i] != 0 && Objects.equals(values[i], v)){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 Replaces the value associated with the specified key in the dictionary.
+
+	 @param k the key whose associated value is to be replaced
+	 @param v the new value to be associated with the specified key
+	 */
+	public IntDictionary<V> replace(int k, V v){
+		if(k == 0){
+			if(hasZeroKey) zeroValue = v;
+			return this;
+		}
+		int i = indexOf(k);
+		if(i >= 0){
+			values[i] = v;
+		}
+		return this;
+	}
+
+	/**
+	 Removes the key-value pair associated with the specified key from the dictionary.
+
+	 @param k the key whose mapping is to be removed from the dictionary
+
+	 @return {@code true} if a mapping was removed, {@code false} if there was no mapping for the key
+	 */
+	public boolean remove(int k){
+		if(k == 0){
+			if(!hasZeroKey) return false;
+			hasZeroKey = false;
+			zeroValue = null;
+			size--;
+			return true;
+		}
+		int i = indexOf(k);
+		if(i < 0) return false;
+		removeAt(i);
+		return true;
+	}
+
+	/**
+	 Removes all key-value pairs from the dictionary.
+	 The dictionary will be empty after this call returns.
+	 */
+	public IntDictionary<V> clear(){
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, null);
+		hasZeroKey = false;
+		zeroValue = null;
+		size = 0;
+		return this;
+	}
+
+	/**
+	 Checks if the dictionary is empty (contains no key-value pairs).
+
+	 @return {@code true} if this dictionary contains no key-value pairs, {@code false} otherwise
+	 */
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 Returns the number of key-value pairs in the dictionary.
+
+	 @return the number of key-value pairs in this dictionary
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 Returns the capacity of the dictionary (number of slots).
+
+	 @return the current capacity (number of slots) of this dictionary
+	 */
+	public int capacity(){
+		return keys.length;
+	}
+
+	/**
+	 Returns all keys present in the dictionary.
+
+	 @return a new array holding every key of this dictionary
+	 */
+	public int[] keys(){
+		int[] result = new int[size];
+		int n = 0;
+		if(hasZeroKey) result[n++] = 0;
+		for(int key: keys){
+			if(key != 0) result[n++] = key;
+		}
+		return result;
+	}
+
+	/**
+	 Performs the given action for each key-value pair in the dictionary without boxing the keys.
+
+	 @param action the action to be performed for each key-value pair
+	 */
+	@SuppressWarnings("unchecked")
+	public IntDictionary<V> forEach(@NotNull IntObjConsumer<? super V> action){
+		if(hasZeroKey) action.accept(0, zeroValue);
+		int[] ks = keys;
+		Object[] vs = values;
+		for(int i = 0; i < ks.length; i++){
+			if(ks[i] != 0){
+				action.accept(ks[i], (V) vs[i]);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 Returns a cursor positioned before the first key-value pair of the dictionary.
+	 Call {@link Cursor#advance()} before reading the first pair.
+
+	 @return a new cursor over this dictionary
+	 */
+	public Cursor<V> cursor(){
+		return new Cursor<>(this);
+	}
+
+	/**
+	 Returns a live {@link Dictionary} view of this dictionary, for APIs that hand out
+	 {@code Dictionary<Integer, V>}. Writes through the view change this dictionary and the other
+	 way round. Every access through the view boxes its key, so code that owns the dictionary
+	 should keep using the primitive methods.
+
+	 @return a live, boxed view of this dictionary
+	 */
+	public Dictionary<Integer, V> asDictionary(){
+		if(dictionaryView == null) dictionaryView = new DictionaryView<>(this);
+		return dictionaryView;
+	}
+
+	/**
+	 Returns a string representation of the dictionary.
+
+	 @return a string representation of the dictionary
+	 */
+	@Override
+	public String toString(){
+		StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		forEach((k, v) -> sb.append(k).append("=").append(v).append(", "));
+		if(sb.length() > 1){
+			sb.setLength(sb.length() - 2); // Remove the last ", "
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+
+	// Private helper methods
+
+	private static int spread(int h){
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static int tableSizeFor(int capacity){
+		if(capacity <= 2) return 2;
+		if(capacity >= MAXIMUM_CAPACITY) return MAXIMUM_CAPACITY;
+		return Integer.highestOneBit(capacity - 1) << 1;
+	}
+
+	private int indexOf(int k){
+		int[] ks = keys;
+		int m = mask;
+		int i = spread(k) & m;
+		int current;
+		while((current = ks[i]) != 0){
+			if(current == k) return i;
+			i = (i + 1) & m;
+		}
+		return -1;
+	}
+
+	private void removeAt(int i){
+		int[] ks = keys;
+		Object[] vs = values;
+		int m = mask;
+		int j = i;
+		while(true){
+			j = (j + 1) & m;
+			int current = ks[j];
+			if(current == 0) break;
+			int home = spread(current) & m;
+			if(((j - home) & m) >= ((j - i) & m)){
+				ks[i] = current;
+				vs[i] = vs[j];
+				i = j;
+			}
+		}
+		ks[i] = 0;
+		vs[i] = null;
+		size--;
+	}
+
+	private void allocate(int capacity){
+		keys = new int[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+	}
+
+	private void resize(int capacity){
+		if(keys.length == MAXIMUM_CAPACITY){
+			if(size >= MAXIMUM_CAPACITY - 1) throw new IllegalStateException("IntDictionary capacity exceeded");
+			return;
+		}
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(capacity);
+		int[] ks = keys;
+		int m = mask;
+		for(int j = 0; j < oldKeys.length; j++){
+			int key = oldKeys[j];
+			if(key == 0) continue;
+			int i = spread(key) & m;
+			while(ks[i] != 0){
+				i = (i + 1) & m;
+			}
+			ks[i] = key;
+			values[i] = oldValues[j];
+		}
+	}
+
+	/**
+	 * Receives a primitive key together with its value.
+	 *
+	 * @param <V> the type of the value
+	 */
+	@FunctionalInterface
+	public interface IntObjConsumer<V> {
+		void accept(int key, V value);
+	}
+
+	/**
+	 * A reusable forward cursor over an {@link IntDictionary}. Reading the current key
+	 * never boxes, and the cursor allocates nothing after it has been created.
+	 * The dictionary must not be structurally modified while a cursor walks it.
+	 *
+	 * @param <V> the type of mapped values
+	 */
+	public static final class Cursor<V> {
+		private final IntDictionary<V> dictionary;
+		// -2 before the first pair, -1 on the zero key, otherwise a slot index
+		private int index = -2;
+
+		private Cursor(IntDictionary<V> dictionary){
+			this.dictionary = dictionary;
+		}
+
+		/**
+		 Moves to the next key-value pair.
+
+		 @return {@code true} if the cursor now points at a pair, {@code false} once the dictionary is exhausted
+		 */
+		public boolean advance(){
+			int[] ks = dictionary.keys;
+			if(index == -2){
+				index = -1;
+				if(dictionary.hasZeroKey) return true;
+			}
+			while(++index < ks.length){
+				if(ks[index] != 0) return true;
+			}
+			index = ks.length;
+			return false;
+		}
+
+		/**
+		 @return the key of the current pair
+		 */
+		public int key(){
+			check();
+			return index == -1 ? 0 : dictionary.keys[index];
+		}
+
+		/**
+		 @return the value of the current pair
+		 */
+		@SuppressWarnings("unchecked")
+		public V value(){
+			check();
+			return index == -1 ? dictionary.zeroValue : (V) dictionary.values[index];
+		}
+
+		/**
+		 Replaces the value of the current pair.
+
+		 @param v the new value
+		 */
+		public void setValue(V v){
+			check();
+			if(index == -1) dictionary.zeroValue = v;
+			else dictionary.values[index] = v;
+		}
+
+		/**
+		 Rewinds the cursor so it can walk the dictionary again.
+		 */
+		public Cursor<V> reset(){
+			index = -2;
+			return this;
+		}
+
+		private void check(){
+			if(index < -1 || index >= dictionary.keys.length) throw new NoSuchElementException();
+		}
+	}
+
+	/**
+	 * The {@link Dictionary} returned by {@link IntDictionary#asDictionary()}. Every operation is
+	 * forwarded to the backing dictionary; {@code null} keys are never mapped.
+	 *
+	 * @param <V> the type of mapped values
+	 */
+	private static final class DictionaryView<V> extends Dictionary<Integer, V> {
+
+		// Header and fields of the view and of the backing dictionary
+		private static final int SHALLOW_BYTES = 168;
+
+		private final IntDictionary<V> dictionary;
+
+		private DictionaryView(IntDictionary<V> dictionary){
+			super(0);
+			this.dictionary = dictionary;
+		}
+
+		@Override
+		public boolean put(Integer k, V v){
+			if(k == null) throw new NullPointerException("IntDictionary.asDictionary().put(Integer k, V v) -> 'k' cannot be null");
+			return dictionary.put(k, v);
+		}
+
+		@Override
+		public Dictionary<Integer, V> putAll(@NotNull Map<? extends Integer, ? extends V> map){
+			map.forEach(this::put);
+			return this;
+		}
+
+		@Override
+		public V get(Integer k){
+			return k == null ? null : dictionary.get(k);
+		}
+
+		@Override
+		public V getOrDefaultAndPut(Integer k, V dv){
+			V value = get(k);
+			if(value != null) return value;
+			put(k, dv);
+			return dv;
+		}
+
+		@Override
+		public V computeIfAbsent(Integer k, @NotNull Function<? super Integer, ? extends V> mappingFunction){
+			V value = get(k);
+			if(value != null) return value;
+			value = mappingFunction.apply(k);
+			if(value != null) put(k, value);
+			return value;
+		}
+
+		@Override
+		public V computeIfPresent(Integer k, @NotNull BiFunction<? super Integer, ? super V, ? extends V> remappingFunction){
+			V value = get(k);
+			if(value == null) return null;
+			value = remappingFunction.apply(k, value);
+			if(value == null) remove(k);
+			else put(k, value);
+			return value;
+		}
+
+		@Override
+		public V compute(Integer k, @NotNull BiFunction<? super Integer, ? super V, ? extends V> remappingFunction){
+			V value = remappingFunction.apply(k, get(k));
+			if(value == null) remove(k);
+			else put(k, value);
+			return value;
+		}
+
+		@Override
+		public boolean containsKey(Integer k){
+			return k != null && dictionary.containsKey(k);
+		}
+
+		@Override
+		public Dictionary<Integer, V> replace(Integer k, V v){
+			if(k != null) dictionary.replace(k, v);
+			return this;
+		}
+
+		@Override
+		public boolean replace(Integer k, V ov, V nv){
+			if(!containsKey(k) || !Objects.equals(dictionary.get(k), ov)) return false;
+			dictionary.put(k, nv);
+			return true;
+		}
+
+		@Override
+		public Dictionary<Integer, V> merge(Integer k, V v, BiFunction<? super V, ? super V, ? extends V> remappingFunction){
+			if(k == null) throw new NullPointerException("IntDictionary.asDictionary().merge(Integer k, V v, BiFunction<V, V, V> remappingFunction) -> 'k' cannot be null");
+			V value = dictionary.get(k);
+			if(value == null) put(k, v);
+			else dictionary.put(k, remappingFunction.apply(value, v));
+			return this;
+		}
+
+		@Override
+		public boolean containsValue(V v){
+			return dictionary.containsValue(v);
+		}
+
+		@Override
+		public boolean remove(Integer k){
+			return k != null && dictionary.remove(k);
+		}
+
+		@Override
+		public Dictionary<Integer, V> clear(){
+			dictionary.clear();
+			return this;
+		}
+
+		@Override
+		public boolean isEmpty(){
+			return dictionary.isEmpty();
+		}
+
+		@Override
+		public int size(){
+			return dictionary.size();
+		}
+
+		@Override
+		public int capacity(){
+			return dictionary.capacity();
+		}
+
+		/**
+		 The backing dictionary never shrinks its table, so this does nothing.
+		 */
+		@Override
+		public Dictionary<Integer, V> trimToSize(){
+			return this;
+		}
+
+		/**
+		 Estimates the bytes held by the backing dictionary's key and value arrays, excluding the values.
+		 */
+		@Override
+		public long estimatedRetainedBytes(){
+			int capacity = dictionary.capacity();
+			return SHALLOW_BYTES + intArrayBytes(capacity) + referenceArrayBytes(capacity);
+		}
+
+		/**
+		 The backing dictionary is written to directly, which a persistent copy could not follow,
+		 so {@link #snapshot()} always copies the current pairs.
+
+		 @throws UnsupportedOperationException when enabling tracking
+		 */
+		@Override
+		public Dictionary<Integer, V> trackSnapshots(boolean enabled){
+			if(enabled) throw new UnsupportedOperationException("IntDictionary.asDictionary().trackSnapshots(boolean enabled) -> snapshots are copied on demand");
+			return this;
+		}
+
+		/**
+		 The backing dictionary is not instrumented, so there is nothing to measure.
+
+		 @throws UnsupportedOperationException when enabling recording
+		 */
+		@Override
+		public Dictionary<Integer, V> recordMetrics(boolean enabled){
+			if(enabled) throw new UnsupportedOperationException("IntDictionary.asDictionary().recordMetrics(boolean enabled) -> metrics are not available");
+			return this;
+		}
+
+		/**
+		 Returns only the size and capacity, with every counter and table measure zero, since the backing dictionary is not instrumented.
+		 */
+		@Override
+		public Metrics metrics(){
+			return Metrics.unmeasured(size(), capacity());
+		}
+
+		/**
+		 The backing dictionary always resizes in one pass, so this does nothing.
+		 */
+		@Override
+		public Dictionary<Integer, V> incrementalResize(boolean enabled){
+			return this;
+		}
+
+		@Override
+		public boolean isIncrementalResize(){
+			return false;
+		}
+
+		/**
+		 The backing dictionary mixes its primitive keys with a fixed multiplier, so this does nothing.
+		 */
+		@Override
+		public Dictionary<Integer, V> floodProtection(boolean enabled){
+			return this;
+		}
+
+		@Override
+		public boolean isFloodProtected(){
+			return false;
+		}
+
+		@Override
+		public Dictionary<Integer, V> forEach(BiConsumer<? super Integer, ? super V> action){
+			dictionary.forEach(action::accept);
+			return this;
+		}
+
+		@Override
+		public Spliterator<Map.Entry<Integer, V>> spliterator(){
+			return cursorSpliterator(Spliterator.SIZED);
+		}
+
+		/**
+		 Returns a cursor over the keys present when it was created, so that {@link Cursor#remove()}
+		 can remove through the backing dictionary without disturbing the walk.
+		 */
+		@Override
+		public Cursor<Integer, V> cursor(){
+			return new Cursor<>(){
+				private final int[] keys = dictionary.keys();
+				private int index = -1;
+				private boolean current;
+
+				@Override
+				public boolean advance(){
+					current = false;
+					while(++index < keys.length){
+						if(dictionary.containsKey(keys[index])) return current = true;
+					}
+					return false;
+				}
+
+				@Override
+				public Integer key(){
+					check();
+					return keys[index];
+				}
+
+				@Override
+				public V value(){
+					check();
+					return dictionary.get(keys[index]);
+				}
+
+				@Override
+				public V setValue(V v){
+					check();
+					V previous = dictionary.get(keys[index]);
+					dictionary.put(keys[index], v);
+					return previous;
+				}
+
+				@Override
+				public void remove(){
+					check();
+					dictionary.remove(keys[index]);
+					current = false;
+				}
+
+				private void check(){
+					if(!current) throw new NoSuchElementException();
+				}
+			};
+		}
+	}
+}
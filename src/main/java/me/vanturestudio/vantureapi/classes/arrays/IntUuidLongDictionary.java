@@ -0,0 +1,352 @@
+package me.vanturestudio.vantureapi.classes.arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * A primitive map from a composite key, a small non-negative {@code int} id and a {@link UUID},
+ * to a {@code long}, for per-(command, player) state such as cooldowns and rate limits.
+ * The UUID is stored as its two halves and the value unboxed, in flat arrays probed linearly,
+ * so one lookup is one probe run and neither reads nor writes allocate.
+ * <p>
+ * Since values are primitive, reads take the value to return when the key is absent.
+ */
+public class IntUuidLongDictionary {
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int MAXIMUM_CAPACITY = 1 << 29;
+	private static final double LOAD_FACTOR = 0.75;
+	// Longs per slot in the data array: most significant bits, least significant bits, value
+	private static final int STRIDE = 3;
+
+	// The id plus one per slot, 0 marks a free slot
+	private int[] tags;
+	private long[] data;
+	private int mask;
+	private int threshold;
+	private int size;
+
+	private final int initialCapacity;
+
+	/**
+	 Constructs an empty dictionary with an initial capacity of {@code DEFAULT_CAPACITY}.
+	 */
+	public IntUuidLongDictionary(){
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 Constructs an empty dictionary able to hold {@code CAPACITY} keys without resizing.
+	 */
+	public IntUuidLongDictionary(final int CAPACITY){
+		if(CAPACITY < 0) throw new IllegalArgumentException("Illegal capacity: " + CAPACITY);
+		this.initialCapacity = tableSizeFor((int) Math.ceil(CAPACITY / LOAD_FACTOR));
+		allocate(initialCapacity);
+	}
+
+	/**
+	 Associates a value with an id and a UUID. If the key already exists, updates the value.
+
+	 @param id   the non-negative id, for example of a command
+	 @param uuid the UUID, for example of a player
+	 @param v    the value to be associated with the key
+
+	 @return if the value got put into the dictionary
+	 */
+	public boolean put(int id, @NotNull UUID uuid, long v){
+		return put(id, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), v);
+	}
+
+	/**
+	 Associates a value with an id and the two halves of a UUID. If the key already exists, updates the value.
+
+	 @param id    the non-negative id
+	 @param most  the most significant bits of the UUID
+	 @param least the least significant bits of the UUID
+	 @param v     the value to be associated with the key
+
+	 @return if the value got put into the dictionary
+	 */
+	public boolean put(int id, long most, long least, long v){
+		if(id < 0) throw new IllegalArgumentException("IntUuidLongDictionary.put(int id, long most, long least, long v) -> 'id' cannot be negative");
+		int tag = id + 1;
+		int[] ts = tags;
+		long[] d = data;
+		int m = mask;
+		int i = hash(id, most, least) & m;
+		int current;
+		while((current = ts[i]) != 0){
+			int at = i * STRIDE;
+			if(current == tag && d[at] == most && d[at + 1] == least){
+				d[at + 2] = v;
+				return true;
+			}
+			i = (i + 1) & m;
+		}
+		int at = i * STRIDE;
+		ts[i] = tag;
+		d[at] = most;
+		d[at + 1] = least;
+		d[at + 2] = v;
+		if(++size > threshold){
+			resize(ts.length << 1);
+		}
+		return true;
+	}
+
+	/**
+	 Retrieves the value associated with an id and a UUID.
+
+	 @param id   the id
+	 @param uuid the UUID
+	 @param dv   the value to return if the key is not found
+
+	 @return the value of the key, or {@code dv} if this dictionary contains no mapping for it
+	 */
+	public long getOrDefault(int id, @NotNull UUID uuid, long dv){
+		return getOrDefault(id, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dv);
+	}
+
+	/**
+	 Retrieves the value associated with an id and the two halves of a UUID.
+
+	 @param id    the id
+	 @param most  the most significant bits of the UUID
+	 @param least the least significant bits of the UUID
+	 @param dv    the value to return if the key is not found
+
+	 @return the value of the key, or {@code dv} if this dictionary contains no mapping for it
+	 */
+	public long getOrDefault(int id, long most, long least, long dv){
+		int i = indexOf(id, most, least);
+		return i < 0 ? dv : data[i * STRIDE + 2];
+	}
+
+	/**
+	 Checks if the dictionary contains a value for an id and a UUID.
+
+	 @param id   the id
+	 @param uuid the UUID
+
+	 @return {@code true} if this dictionary contains a mapping for the key, {@code false} otherwise
+	 */
+	public boolean containsKey(int id, @NotNull UUID uuid){
+		return indexOf(id, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) >= 0;
+	}
+
+	/**
+	 Removes the value associated with an id and a UUID.
+
+	 @param id   the id
+	 @param uuid the UUID
+
+	 @return {@code true} if a mapping was removed, {@code false} if there was no mapping for the key
+	 */
+	public boolean remove(int id, @NotNull UUID uuid){
+		int i = indexOf(id, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+		if(i < 0) return false;
+		removeAt(i);
+		return true;
+	}
+
+	/**
+	 Removes every entry the filter accepts, then shrinks the table if it has become sparse.
+	 The filter may be called more than once for an entry it keeps.
+
+	 @param filter decides which entries are removed
+
+	 @return the number of entries removed
+	 */
+	public int removeIf(@NotNull EntryPredicate filter){
+		int removed = 0;
+		int[] ts = tags;
+		long[] d = data;
+		for(int i = 0; i < ts.length; i++){
+			// A removal shifts a later entry into this slot, so the slot is looked at again
+			while(ts[i] != 0){
+				int at = i * STRIDE;
+				if(!filter.test(ts[i] - 1, d[at], d[at + 1], d[at + 2])) break;
+				removeAt(i);
+				removed++;
+			}
+		}
+		if(removed > 0 && ts.length > initialCapacity && size <= ts.length / 8){
+			resize(Math.max(initialCapacity, tableSizeFor(size << 2)));
+		}
+		return removed;
+	}
+
+	/**
+	 Removes all entries from the dictionary.
+	 The dictionary will be empty after this call returns.
+	 */
+	public IntUuidLongDictionary clear(){
+		if(tags.length > initialCapacity) allocate(initialCapacity);
+		else Arrays.fill(tags, 0);
+		size = 0;
+		return this;
+	}
+
+	/**
+	 Checks if the dictionary is empty (contains no entries).
+
+	 @return {@code true} if this dictionary contains no entries, {@code false} otherwise
+	 */
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 Returns the number of entries in the dictionary.
+
+	 @return the number of entries in this dictionary
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 Returns the capacity of the dictionary (number of slots).
+
+	 @return the current capacity (number of slots) of this dictionary
+	 */
+	public int capacity(){
+		return tags.length;
+	}
+
+	/**
+	 Performs the given action for each entry in the dictionary without boxing.
+
+	 @param action the action to be performed for each entry
+	 */
+	public IntUuidLongDictionary forEach(@NotNull EntryConsumer action){
+		int[] ts = tags;
+		long[] d = data;
+		for(int i = 0; i < ts.length; i++){
+			if(ts[i] != 0){
+				int at = i * STRIDE;
+				action.accept(ts[i] - 1, d[at], d[at + 1], d[at + 2]);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 Returns a string representation of the dictionary.
+
+	 @return a string representation of the dictionary
+	 */
+	@Override
+	public String toString(){
+		StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		forEach((id, most, least, v) -> sb.append('(').append(id).append(", ").append(new UUID(most, least)).append(")=").append(v).append(", "));
+		if(sb.length() > 1){
+			sb.setLength(sb.length() - 2); // Remove the last ", "
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+
+	// Private helper methods
+
+	private static int hash(int id, long most, long least){
+		// Mixes all 160 key bits, so ids that differ only in the UUID or only in the id still spread
+		long h = most ^ (least * 0x9E3779B97F4A7C15L) ^ (id * 0xC2B2AE3D27D4EB4FL);
+		h ^= h >>> 32;
+		h *= 0xD6E8FEB86659FD93L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private static int tableSizeFor(int capacity){
+		if(capacity <= 2) return 2;
+		if(capacity >= MAXIMUM_CAPACITY) return MAXIMUM_CAPACITY;
+		return Integer.highestOneBit(capacity - 1) << 1;
+	}
+
+	private int indexOf(int id, long most, long least){
+		if(id < 0) return -1;
+		int tag = id + 1;
+		int[] ts = tags;
+		long[] d = data;
+		int m = mask;
+		int i = hash(id, most, least) & m;
+		int current;
+		while((current = ts[i]) != 0){
+			int at = i * STRIDE;
+			if(current == tag && d[at] == most && d[at + 1] == least) return i;
+			i = (i + 1) & m;
+		}
+		return -1;
+	}
+
+	private void removeAt(int i){
+		int[] ts = tags;
+		long[] d = data;
+		int m = mask;
+		int j = i;
+		while(true){
+			j = (j + 1) & m;
+			int current = ts[j];
+			if(current == 0) break;
+			int at = j * STRIDE;
+			int home = hash(current - 1, d[at], d[at + 1]) & m;
+			if(((j - home) & m) >= ((j - i) & m)){
+				ts[i] = current;
+				System.arraycopy(d, at, d, i * STRIDE, STRIDE);
+				i = j;
+			}
+		}
+		ts[i] = 0;
+		size--;
+	}
+
+	private void allocate(int capacity){
+		tags = new int[capacity];
+		data = new long[capacity * STRIDE];
+		mask = capacity - 1;
+		threshold = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+	}
+
+	private void resize(int capacity){
+		if(capacity > MAXIMUM_CAPACITY){
+			if(size >= MAXIMUM_CAPACITY - 1) throw new IllegalStateException("IntUuidLongDictionary capacity exceeded");
+			return;
+		}
+		int[] oldTags = tags;
+		long[] oldData = data;
+		allocate(capacity);
+		int[] ts = tags;
+		long[] d = data;
+		int m = mask;
+		for(int j = 0; j < oldTags.length; j++){
+			int tag = oldTags[j];
+			if(tag == 0) continue;
+			int from = j * STRIDE;
+			int i = hash(tag - 1, oldData[from], oldData[from + 1]) & m;
+			while(ts[i] != 0){
+				i = (i + 1) & m;
+			}
+			ts[i] = tag;
+			System.arraycopy(oldData, from, d, i * STRIDE, STRIDE);
+		}
+	}
+
+	/**
+	 * Receives the id, the two halves of the UUID and the value of an entry.
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer {
+		void accept(int id, long most, long least, long value);
+	}
+
+	/**
+	 * Decides on an entry from its id, the two halves of its UUID and its value.
+	 */
+	@FunctionalInterface
+	public interface EntryPredicate {
+		boolean test(int id, long most, long least, long value);
+	}
+}
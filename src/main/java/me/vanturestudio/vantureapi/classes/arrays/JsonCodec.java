@@ -0,0 +1,335 @@
+package me.vanturestudio.vantureapi.classes.arrays;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Streaming JSON codec for the {@code classes.arrays} collections, built on Gson's
+ * {@link JsonWriter} and {@link JsonReader}. Entries are written straight out of the
+ * collection and read straight into a new one, so neither an intermediate {@link Map}
+ * nor a JSON tree is ever built.
+ * <p>
+ * Formats:
+ * <ul>
+ *     <li>{@link Dictionary}: a JSON object, {@code {"key": value, ...}}. Keys are written as
+ *     names, so their adapter should produce JSON primitives (strings, numbers, enums, UUIDs);
+ *     any other key falls back to {@link String#valueOf(Object)}, as Gson does for maps.</li>
+ *     <li>{@link Enumerator}: a JSON array of the element values. Tags and metadata are not written.</li>
+ *     <li>{@link Table}: {@code {"rows": r, "cols": c, "cells": [[row, col, value], ...]}}.</li>
+ * </ul>
+ * Register {@link #FACTORY} on a {@link GsonBuilder} to use these formats wherever Gson meets
+ * one of these collections, for example as a field of a stored data object.
+ */
+public final class JsonCodec {
+
+	/**
+	 * Creates adapters for {@link Dictionary}, {@link Enumerator}, {@link Table} and their subclasses,
+	 * using the adapters the {@link Gson} instance resolves for their type arguments.
+	 * Subclasses need a no-argument constructor, except {@link EnumDictionary}, which is built for its key type.
+	 */
+	public static final TypeAdapterFactory FACTORY = new CollectionAdapterFactory();
+
+	private static final Gson GSON = new GsonBuilder().registerTypeAdapterFactory(FACTORY).create();
+	private static final TypeAdapter<String> STRING = GSON.getAdapter(String.class);
+	private static final TypeAdapter<Object> OBJECT = GSON.getAdapter(Object.class);
+
+	private JsonCodec(){
+	}
+
+	/**
+	 * Returns a shared {@link Gson} instance with {@link #FACTORY} registered.
+	 *
+	 * @return the shared Gson instance
+	 */
+	public static @NotNull Gson gson(){
+		return GSON;
+	}
+
+	/**
+	 * Returns an adapter writing and reading a {@link Dictionary} as a JSON object.
+	 *
+	 * @param keyAdapter   the adapter for the keys, which are written as object names
+	 * @param valueAdapter the adapter for the values
+	 * @return the dictionary adapter
+	 */
+	public static <K, V> @NotNull TypeAdapter<Dictionary<K, V>> dictionary(@NotNull TypeAdapter<K> keyAdapter, @NotNull TypeAdapter<V> valueAdapter){
+		return new DictionaryAdapter<>(keyAdapter, valueAdapter, Dictionary::new);
+	}
+
+	// The dictionary adapter reading into the given kind of dictionary
+	static <K, V> @NotNull TypeAdapter<Dictionary<K, V>> dictionary(@NotNull TypeAdapter<K> keyAdapter, @NotNull TypeAdapter<V> valueAdapter, @NotNull Supplier<? extends Dictionary<K, V>> constructor){
+		return new DictionaryAdapter<>(keyAdapter, valueAdapter, constructor);
+	}
+
+	/**
+	 * Returns an adapter writing and reading an {@link Enumerator} as a JSON array of its values.
+	 *
+	 * @param valueAdapter the adapter for the values
+	 * @return the enumerator adapter
+	 */
+	public static <T> @NotNull TypeAdapter<Enumerator<T>> enumerator(@NotNull TypeAdapter<T> valueAdapter){
+		return new EnumeratorAdapter<>(valueAdapter, Enumerator::new);
+	}
+
+	/**
+	 * Returns an adapter writing and reading a {@link Table} with its dimensions and occupied cells.
+	 *
+	 * @param valueAdapter the adapter for the cell values
+	 * @return the table adapter
+	 */
+	public static <V> @NotNull TypeAdapter<Table<V>> table(@NotNull TypeAdapter<V> valueAdapter){
+		return new TableAdapter<>(valueAdapter);
+	}
+
+	/**
+	 * Returns an adapter for values of any type, written by their runtime type and read
+	 * back as Gson's natural types (strings, doubles, booleans, lists and maps).
+	 *
+	 * @return the untyped adapter
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> TypeAdapter<T> untyped(){
+		return (TypeAdapter<T>) OBJECT;
+	}
+
+	/**
+	 * Returns the adapter used for plain string keys and values.
+	 *
+	 * @return the string adapter
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> TypeAdapter<T> strings(){
+		return (TypeAdapter<T>) STRING;
+	}
+
+	// Private helper methods
+
+	private static Type typeArgument(Type type, int index){
+		if(!(type instanceof ParameterizedType parameterized)) return Object.class;
+		Type[] arguments = parameterized.getActualTypeArguments();
+		if(index >= arguments.length) return Object.class;
+		Type argument = arguments[index];
+		if(argument instanceof WildcardType wildcard) argument = wildcard.getUpperBounds()[0];
+		return argument;
+	}
+
+	private static <T> Supplier<T> instantiator(Class<?> rawType){
+		return () -> {
+			try{
+				@SuppressWarnings("unchecked")
+				T instance = (T) rawType.getDeclaredConstructor().newInstance();
+				return instance;
+			}catch(ReflectiveOperationException e){
+				throw new JsonIOException("JsonCodec -> " + rawType.getName() + " needs a no-argument constructor", e);
+			}
+		};
+	}
+
+	private static final class CollectionAdapterFactory implements TypeAdapterFactory {
+
+		@Override
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken){
+			Class<? super T> rawType = typeToken.getRawType();
+			Type type = typeToken.getType();
+			if(rawType == EnumDictionary.class){
+				Class keyType = TypeToken.get(typeArgument(type, 0)).getRawType();
+				TypeAdapter keyAdapter = gson.getAdapter(keyType);
+				TypeAdapter valueAdapter = gson.getAdapter(TypeToken.get(typeArgument(type, 1)));
+				return (TypeAdapter<T>) new DictionaryAdapter(keyAdapter, valueAdapter, () -> new EnumDictionary(keyType));
+			}
+			if(Dictionary.class.isAssignableFrom(rawType)){
+				TypeAdapter keyAdapter = gson.getAdapter(TypeToken.get(typeArgument(type, 0)));
+				TypeAdapter valueAdapter = gson.getAdapter(TypeToken.get(typeArgument(type, 1)));
+				return (TypeAdapter<T>) new DictionaryAdapter(keyAdapter, valueAdapter, rawType == Dictionary.class ? Dictionary::new : instantiator(rawType));
+			}
+			if(Enumerator.class.isAssignableFrom(rawType)){
+				TypeAdapter valueAdapter = gson.getAdapter(TypeToken.get(typeArgument(type, 0)));
+				return (TypeAdapter<T>) new EnumeratorAdapter(valueAdapter, rawType == Enumerator.class ? Enumerator::new : instantiator(rawType));
+			}
+			if(rawType == Table.class){
+				TypeAdapter valueAdapter = gson.getAdapter(TypeToken.get(typeArgument(type, 0)));
+				return (TypeAdapter<T>) new TableAdapter(valueAdapter);
+			}
+			return null;
+		}
+	}
+
+	private static final class DictionaryAdapter<K, V> extends TypeAdapter<Dictionary<K, V>> {
+		private final TypeAdapter<K> keyAdapter;
+		private final TypeAdapter<V> valueAdapter;
+		private final Supplier<? extends Dictionary<K, V>> constructor;
+
+		private DictionaryAdapter(TypeAdapter<K> keyAdapter, TypeAdapter<V> valueAdapter, Supplier<? extends Dictionary<K, V>> constructor){
+			this.keyAdapter = keyAdapter;
+			this.valueAdapter = valueAdapter.nullSafe();
+			this.constructor = constructor;
+		}
+
+		@Override
+		public void write(JsonWriter out, Dictionary<K, V> dictionary) throws IOException{
+			if(dictionary == null){
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			// A cursor rather than forEach, so IOExceptions reach the caller unwrapped
+			Dictionary.Cursor<K, V> cursor = dictionary.cursor();
+			while(cursor.advance()){
+				out.name(name(cursor.key()));
+				valueAdapter.write(out, cursor.value());
+			}
+			out.endObject();
+		}
+
+		@Override
+		public Dictionary<K, V> read(JsonReader in) throws IOException{
+			if(in.peek() == JsonToken.NULL){
+				in.nextNull();
+				return null;
+			}
+			Dictionary<K, V> dictionary = constructor.get();
+			in.beginObject();
+			while(in.hasNext()){
+				K key = key(in.nextName());
+				dictionary.put(key, valueAdapter.read(in));
+			}
+			in.endObject();
+			return dictionary;
+		}
+
+		private String name(K key){
+			if(key instanceof String string) return string;
+			JsonElement tree = keyAdapter.toJsonTree(key);
+			return tree.isJsonPrimitive() ? tree.getAsString() : String.valueOf(key);
+		}
+
+		@SuppressWarnings("unchecked")
+		private K key(String name){
+			if((Object) keyAdapter == STRING) return (K) name;
+			return keyAdapter.fromJsonTree(new JsonPrimitive(name));
+		}
+	}
+
+	private static final class EnumeratorAdapter<T> extends TypeAdapter<Enumerator<T>> {
+		private final TypeAdapter<T> valueAdapter;
+		private final Supplier<? extends Enumerator<T>> constructor;
+
+		private EnumeratorAdapter(TypeAdapter<T> valueAdapter, Supplier<? extends Enumerator<T>> constructor){
+			this.valueAdapter = valueAdapter.nullSafe();
+			this.constructor = constructor;
+		}
+
+		@Override
+		public void write(JsonWriter out, Enumerator<T> enumerator) throws IOException{
+			if(enumerator == null){
+				out.nullValue();
+				return;
+			}
+			out.beginArray();
+			for(Enumerator.Element<T> element: enumerator.getElements()){
+				valueAdapter.write(out, element.getValue());
+			}
+			out.endArray();
+		}
+
+		@Override
+		public Enumerator<T> read(JsonReader in) throws IOException{
+			if(in.peek() == JsonToken.NULL){
+				in.nextNull();
+				return null;
+			}
+			List<T> values = new ArrayList<>();
+			in.beginArray();
+			while(in.hasNext()){
+				values.add(valueAdapter.read(in));
+			}
+			in.endArray();
+			return constructor.get().addAll(values);
+		}
+	}
+
+	private static final class TableAdapter<V> extends TypeAdapter<Table<V>> {
+		private final TypeAdapter<V> valueAdapter;
+
+		private TableAdapter(TypeAdapter<V> valueAdapter){
+			this.valueAdapter = valueAdapter.nullSafe();
+		}
+
+		@Override
+		public void write(JsonWriter out, Table<V> table) throws IOException{
+			if(table == null){
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name("rows").value(table.getItemsPerColumn());
+			out.name("cols").value(table.getItemsPerRow());
+			out.name("cells").beginArray();
+			for(Map.Entry<Integer, Map<Integer, V>> row: table.asMap().entrySet()){
+				for(Map.Entry<Integer, V> cell: row.getValue().entrySet()){
+					out.beginArray().value(row.getKey()).value(cell.getKey());
+					valueAdapter.write(out, cell.getValue());
+					out.endArray();
+				}
+			}
+			out.endArray();
+			out.endObject();
+		}
+
+		@Override
+		public Table<V> read(JsonReader in) throws IOException{
+			if(in.peek() == JsonToken.NULL){
+				in.nextNull();
+				return null;
+			}
+			int rows = -1, cols = -1;
+			Table<V> table = null;
+			in.beginObject();
+			while(in.hasNext()){
+				switch(in.nextName()){
+					case "rows" -> rows = in.nextInt();
+					case "cols" -> cols = in.nextInt();
+					case "cells" -> {
+						if(rows < 0 || cols < 0) throw new JsonParseException("JsonCodec -> table 'cells' must follow 'rows' and 'cols' at " + in.getPath());
+						table = new Table<>(rows, cols);
+						in.beginArray();
+						while(in.hasNext()){
+							in.beginArray();
+							int row = in.nextInt();
+							int col = in.nextInt();
+							table.place(row, col, valueAdapter.read(in));
+							in.endArray();
+						}
+						in.endArray();
+					}
+					default -> in.skipValue();
+				}
+			}
+			in.endObject();
+			if(table != null) return table;
+			if(rows < 0 || cols < 0) throw new JsonParseException("JsonCodec -> table is missing 'rows' or 'cols' at " + in.getPath());
+			return new Table<>(rows, cols);
+		}
+	}
+}
@@ -0,0 +1,762 @@
+package me.vanturestudio.vantureapi.classes.arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A {@link Dictionary} of strings kept outside the Java heap, for large tables such as language
+ * files or persisted lookups. Keys and values are stored as UTF-8 records appended to a direct
+ * {@link ByteBuffer}, or to a memory-mapped file with {@link #mapped(Path)}. The only heap objects are
+ * two {@code int} arrays indexing the records by open addressing, so the garbage collector
+ * has nothing to trace however many entries there are.
+ * <p>
+ * Reads decode the value into a new {@link String}, or wrap it in a {@link #getView(String) CharSequence view}.
+ * Writes append a new record and mark the old one dead. The space of dead records is reclaimed
+ * by compacting the buffer in place once it is at least half garbage, and the buffer doubles otherwise.
+ * <p>
+ * Neither keys nor values may be {@code null}. Like a {@link Dictionary}, it is not thread-safe.
+ */
+public class OffHeapDictionary extends Dictionary<String, String> implements Closeable {
+
+	// "VDIC", marks a file written by this class
+	private static final int MAGIC = 0x56444943;
+	private static final int VERSION = 1;
+	// Magic number, version, end of the records and bytes held by dead records
+	private static final int HEADER_BYTES = 16;
+	// Key length and value length in front of every record
+	private static final int RECORD_HEADER_BYTES = 8;
+	// Set on the key length of a removed or replaced record
+	private static final int DEAD = 0x80000000;
+	private static final int DEFAULT_DATA_BYTES = 1 << 16;
+	private static final int MAXIMUM_DATA_BYTES = Integer.MAX_VALUE - 8;
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final double LOAD_FACTOR = 0.75;
+	// Header and fields of an off-heap dictionary
+	private static final int SHALLOW_BYTES = 128;
+
+	private final FileChannel channel;
+	private ByteBuffer data;
+	private int end;
+	private int dead;
+
+	// Record offset per slot, 0 marks a free slot since no record starts inside the header
+	private int[] offsets;
+	private int[] hashes;
+	private int mask;
+	private int threshold;
+	private int size;
+
+	/**
+	 Constructs an empty dictionary backed by a direct buffer of {@code DEFAULT_DATA_BYTES} bytes.
+	 */
+	public OffHeapDictionary(){
+		this(DEFAULT_DATA_BYTES);
+	}
+
+	/**
+	 Constructs an empty dictionary backed by a direct buffer of {@code DATA_BYTES} bytes,
+	 for tables whose size in UTF-8 is known up front.
+	 */
+	public OffHeapDictionary(final int DATA_BYTES){
+		super(0);
+		if(DATA_BYTES < 0) throw new IllegalArgumentException("Illegal data size: " + DATA_BYTES);
+		this.channel = null;
+		this.data = ByteBuffer.allocateDirect(HEADER_BYTES + Math.min(DATA_BYTES, MAXIMUM_DATA_BYTES - HEADER_BYTES));
+		this.end = HEADER_BYTES;
+		writeHeader();
+		allocate(DEFAULT_CAPACITY);
+	}
+
+	private OffHeapDictionary(FileChannel channel, MappedByteBuffer data) throws IOException{
+		super(0);
+		this.channel = channel;
+		this.data = data;
+		if(data.getInt(0) == 0){
+			this.end = HEADER_BYTES;
+			writeHeader();
+		}else if(data.getInt(0) != MAGIC || data.getInt(4) != VERSION || data.getInt(8) < HEADER_BYTES || data.getInt(8) > data.capacity()){
+			throw new IOException("OffHeapDictionary.mapped(Path file) -> not an off-heap dictionary file");
+		}else{
+			this.end = data.getInt(8);
+			this.dead = data.getInt(12);
+		}
+		allocate(DEFAULT_CAPACITY);
+		index();
+	}
+
+	/**
+	 Opens a dictionary backed by a memory-mapped file, creating the file if it does not exist.
+	 An existing file is read back with every entry it held when it was last {@link #force() forced}
+	 or {@link #close() closed}. The file keeps its length when entries are removed.
+
+	 @param file the file holding the records
+
+	 @return a dictionary backed by the file
+	 */
+	public static @NotNull OffHeapDictionary mapped(@NotNull Path file) throws IOException{
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try{
+			long length = Math.max(channel.size(), DEFAULT_DATA_BYTES);
+			if(length > MAXIMUM_DATA_BYTES) throw new IOException("OffHeapDictionary.mapped(Path file) -> file is larger than 2 GB");
+			return new OffHeapDictionary(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, length));
+		}catch(IOException | RuntimeException e){
+			channel.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public boolean put(String k, String v){
+		if(k == null) throw new NullPointerException("OffHeapDictionary.put(String k, String v) -> 'k' cannot be null");
+		if(v == null) throw new NullPointerException("OffHeapDictionary.put(String k, String v) -> 'v' cannot be null");
+		store(k.getBytes(StandardCharsets.UTF_8), v.getBytes(StandardCharsets.UTF_8), true);
+		return true;
+	}
+
+	@Override
+	public Dictionary<String, String> putAll(@NotNull Map<? extends String, ? extends String> map){
+		map.forEach(this::put);
+		return this;
+	}
+
+	@Override
+	public String get(String k){
+		int i = find(k);
+		return i < 0 ? null : decodeValue(offsets[i]);
+	}
+
+	/**
+	 Returns a view of the value associated with the specified key that reads the off-heap bytes in place.
+	 Values made of ASCII characters are never copied; others are decoded on first access.
+	 The view is only valid until the next write to the dictionary.
+
+	 @param k the key whose associated value is to be returned
+
+	 @return a view of the value, or {@code null} if this dictionary contains no mapping for the key
+	 */
+	public CharSequence getView(String k){
+		int i = find(k);
+		if(i < 0) return null;
+		int offset = offsets[i];
+		int from = offset + RECORD_HEADER_BYTES + data.getInt(offset);
+		return new Utf8View(data, from, data.getInt(offset + 4));
+	}
+
+	@Override
+	public String getOrDefaultAndPut(String k, String dv){
+		String value = get(k);
+		if(value != null) return value;
+		put(k, dv);
+		return dv;
+	}
+
+	@Override
+	public String computeIfAbsent(String k, @NotNull Function<? super String, ? extends String> mappingFunction){
+		String value = get(k);
+		if(value != null) return value;
+		value = mappingFunction.apply(k);
+		if(value != null) put(k, value);
+		return value;
+	}
+
+	@Override
+	public String computeIfPresent(String k, @NotNull BiFunction<? super String, ? super String, ? extends String> remappingFunction){
+		String value = get(k);
+		if(value == null) return null;
+		return remap(k, remappingFunction.apply(k, value));
+	}
+
+	@Override
+	public String compute(String k, @NotNull BiFunction<? super String, ? super String, ? extends String> remappingFunction){
+		return remap(k, remappingFunction.apply(k, get(k)));
+	}
+
+	@Override
+	public boolean containsKey(String k){
+		return find(k) >= 0;
+	}
+
+	@Override
+	public Dictionary<String, String> replace(String k, String v){
+		if(containsKey(k)) put(k, v);
+		return this;
+	}
+
+	@Override
+	public boolean replace(String k, String ov, String nv){
+		String value = get(k);
+		if(value == null || !value.equals(ov)) return false;
+		put(k, nv);
+		return true;
+	}
+
+	/**
+	 Merges a key with a new value using a remapping function if the key already exists,
+	 or adds the key-value pair if the key does not exist. A {@code null} result removes the key.
+
+	 @param k                 the key with which the specified value is to be associated
+	 @param v                 the value to be associated with the specified key
+	 @param remappingFunction function to merge the old value and new value if the key exists
+	 */
+	@Override
+	public Dictionary<String, String> merge(String k, String v, BiFunction<? super String, ? super String, ? extends String> remappingFunction){
+		if(k == null) throw new NullPointerException("OffHeapDictionary.merge(String k, String v, BiFunction<String, String, String> remappingFunction) -> 'k' cannot be null");
+		String value = get(k);
+		remap(k, value == null ? v : remappingFunction.apply(value, v));
+		return this;
+	}
+
+	/**
+	 Checks if at least one key is mapped to the specified value by comparing the UTF-8 bytes
+	 of every record, without decoding them.
+	 */
+	@Override
+	public boolean containsValue(String v){
+		if(v == null || size == 0) return false;
+		byte[] value = v.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer d = buffer();
+		for(int offset = HEADER_BYTES; offset < end; offset += recordBytes(d, offset)){
+			int keyLength = d.getInt(offset);
+			if((keyLength & DEAD) == 0 && bytesEqual(d, offset + RECORD_HEADER_BYTES + keyLength, d.getInt(offset + 4), value)) return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean remove(String k){
+		int i = find(k);
+		if(i < 0) return false;
+		kill(offsets[i]);
+		removeAt(i);
+		writeHeader();
+		return true;
+	}
+
+	@Override
+	public Dictionary<String, String> clear(){
+		buffer();
+		end = HEADER_BYTES;
+		dead = 0;
+		writeHeader();
+		if(offsets.length > DEFAULT_CAPACITY) allocate(DEFAULT_CAPACITY);
+		else Arrays.fill(offsets, 0);
+		size = 0;
+		return this;
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	@Override
+	public int size(){
+		return size;
+	}
+
+	@Override
+	public int capacity(){
+		return offsets.length;
+	}
+
+	/**
+	 Returns the number of bytes of the off-heap buffer, which {@link #estimatedRetainedBytes()} leaves out.
+
+	 @return the capacity of the buffer holding the records
+	 */
+	public long offHeapBytes(){
+		return buffer().capacity();
+	}
+
+	/**
+	 Compacts away dead records and shrinks the index to the current number of entries.
+	 A direct buffer is also shrunk to the records; a mapped file keeps its length.
+	 */
+	@Override
+	public Dictionary<String, String> trimToSize(){
+		ByteBuffer d = buffer();
+		if(dead > 0) compact();
+		if(channel == null && d.capacity() > end){
+			ByteBuffer trimmed = ByteBuffer.allocateDirect(end);
+			trimmed.put(0, d, 0, end);
+			data = trimmed;
+		}
+		int capacity = Dictionary.tableSizeFor((int) Math.ceil(Math.max(size, 1) / LOAD_FACTOR));
+		if(capacity < offsets.length) resize(capacity);
+		return this;
+	}
+
+	/**
+	 Estimates the heap bytes held by the index, the only part of this dictionary the garbage collector traces.
+	 */
+	@Override
+	public long estimatedRetainedBytes(){
+		return SHALLOW_BYTES + 2 * intArrayBytes(offsets.length);
+	}
+
+	/**
+	 Writes the records of a mapped file through to the storage device. Does nothing for a direct buffer.
+	 */
+	public OffHeapDictionary force(){
+		if(buffer() instanceof MappedByteBuffer mapped) mapped.force();
+		return this;
+	}
+
+	/**
+	 Forces a mapped file and closes it. A direct buffer is released to the garbage collector.
+	 The dictionary cannot be used afterwards.
+	 */
+	@Override
+	public void close() throws IOException{
+		if(data == null) return;
+		force();
+		data = null;
+		if(channel != null) channel.close();
+	}
+
+	/**
+	 Snapshots would have to copy the records onto the heap, which defeats the purpose of this dictionary.
+
+	 @throws UnsupportedOperationException when enabling tracking
+	 */
+	@Override
+	public Dictionary<String, String> trackSnapshots(boolean enabled){
+		if(enabled) throw new UnsupportedOperationException("OffHeapDictionary.trackSnapshots(boolean enabled) -> snapshots are not available");
+		return this;
+	}
+
+	/**
+	 @throws UnsupportedOperationException when enabling recording
+	 */
+	@Override
+	public Dictionary<String, String> recordMetrics(boolean enabled){
+		if(enabled) throw new UnsupportedOperationException("OffHeapDictionary.recordMetrics(boolean enabled) -> metrics are not available");
+		return this;
+	}
+
+	/**
+	 Returns only the size and capacity, with every counter and table measure zero, since its index is not instrumented.
+	 */
+	@Override
+	public Metrics metrics(){
+		return Metrics.unmeasured(size(), capacity());
+	}
+
+	/**
+	 The index is rebuilt in one pass over the records when it grows, so this does nothing.
+	 */
+	@Override
+	public Dictionary<String, String> incrementalResize(boolean enabled){
+		return this;
+	}
+
+	@Override
+	public boolean isIncrementalResize(){
+		return false;
+	}
+
+	/**
+	 Keys are hashed from their UTF-8 bytes without overflow trees, so this does nothing.
+	 */
+	@Override
+	public Dictionary<String, String> floodProtection(boolean enabled){
+		return this;
+	}
+
+	@Override
+	public boolean isFloodProtected(){
+		return false;
+	}
+
+	/**
+	 Performs the given action for each key-value pair, decoding both, in the order the records were written.
+
+	 @param action the action to be performed for each key-value pair
+	 */
+	@Override
+	public Dictionary<String, String> forEach(BiConsumer<? super String, ? super String> action){
+		ByteBuffer d = buffer();
+		for(int offset = HEADER_BYTES; offset < end; offset += recordBytes(d, offset)){
+			if((d.getInt(offset) & DEAD) == 0) action.accept(decodeKey(offset), decodeValue(offset));
+		}
+		return this;
+	}
+
+	@Override
+	public Cursor<String, String> cursor(){
+		buffer();
+		return new Cursor<>(){
+			// Records appended by setValue land past the fence and are not visited again
+			private final int fence = end;
+			private int next = HEADER_BYTES;
+			private int offset = -1;
+
+			@Override
+			public boolean advance(){
+				offset = -1;
+				while(next < fence){
+					int at = next;
+					next += recordBytes(data, at);
+					if((data.getInt(at) & DEAD) == 0){
+						offset = at;
+						return true;
+					}
+				}
+				return false;
+			}
+
+			@Override
+			public String key(){
+				return decodeKey(check());
+			}
+
+			@Override
+			public String value(){
+				return decodeValue(check());
+			}
+
+			@Override
+			public String setValue(String v){
+				if(v == null) throw new NullPointerException("OffHeapDictionary.Cursor.setValue(String v) -> 'v' cannot be null");
+				int at = check();
+				String previous = decodeValue(at);
+				// Appending without compacting keeps the offsets of the records still ahead of the cursor
+				store(keyBytes(at), v.getBytes(StandardCharsets.UTF_8), false);
+				return previous;
+			}
+
+			@Override
+			public void remove(){
+				int at = check();
+				byte[] key = keyBytes(at);
+				removeAt(indexOf(key, hash(key)));
+				kill(at);
+				writeHeader();
+				offset = -1;
+			}
+
+			private int check(){
+				if(offset < 0) throw new NoSuchElementException();
+				return offset;
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<Map.Entry<String, String>> spliterator(){
+		return cursorSpliterator(Spliterator.SIZED);
+	}
+
+	// Private helper methods
+
+	private ByteBuffer buffer(){
+		ByteBuffer d = data;
+		if(d == null) throw new IllegalStateException("OffHeapDictionary -> the dictionary is closed");
+		return d;
+	}
+
+	private static int hash(byte[] key){
+		int h = 0x811C9DC5;
+		for(byte b: key){
+			h = (h ^ b) * 0x01000193;
+		}
+		return Dictionary.spread(h);
+	}
+
+	private static int hash(ByteBuffer d, int from, int length){
+		int h = 0x811C9DC5;
+		for(int i = from, to = from + length; i < to; i++){
+			h = (h ^ d.get(i)) * 0x01000193;
+		}
+		return Dictionary.spread(h);
+	}
+
+	private static int recordBytes(ByteBuffer d, int offset){
+		return RECORD_HEADER_BYTES + (d.getInt(offset) & ~DEAD) + d.getInt(offset + 4);
+	}
+
+	private static boolean bytesEqual(ByteBuffer d, int from, int length, byte[] bytes){
+		if(length != bytes.length) return false;
+		for(int i = 0; i < length; i++){
+			if(d.get(from + i) != bytes[i]) return false;
+		}
+		return true;
+	}
+
+	private int find(String k){
+		buffer();
+		if(k == null || size == 0) return -1;
+		byte[] key = k.getBytes(StandardCharsets.UTF_8);
+		return indexOf(key, hash(key));
+	}
+
+	/**
+	 Finds the slot of the record holding the given key.
+
+	 @return the slot index, or {@code -1 - slot} of the free slot ending the probe run if the key is not present
+	 */
+	private int indexOf(byte[] key, int h){
+		ByteBuffer d = buffer();
+		int[] os = offsets;
+		int m = mask;
+		int i = h & m;
+		int offset;
+		while((offset = os[i]) != 0){
+			if(hashes[i] == h && bytesEqual(d, offset + RECORD_HEADER_BYTES, d.getInt(offset), key)) return i;
+			i = (i + 1) & m;
+		}
+		return -1 - i;
+	}
+
+	private void store(byte[] key, byte[] value, boolean compactable){
+		int offset = append(key, value, compactable);
+		int h = hash(key);
+		// Looked up after appending, since a compaction rebuilds the index
+		int i = indexOf(key, h);
+		if(i >= 0){
+			kill(offsets[i]);
+			offsets[i] = offset;
+		}else{
+			i = -1 - i;
+			offsets[i] = offset;
+			hashes[i] = h;
+			if(++size > threshold) resize(offsets.length << 1);
+		}
+		writeHeader();
+	}
+
+	private String remap(String k, String value){
+		if(value != null) put(k, value);
+		else remove(k);
+		return value;
+	}
+
+	private int append(byte[] key, byte[] value, boolean compactable){
+		long length = (long) RECORD_HEADER_BYTES + key.length + value.length;
+		ByteBuffer d = buffer();
+		if(end + length > d.capacity()){
+			if(compactable && dead >= (end - HEADER_BYTES) / 2) compact();
+			if(end + length > data.capacity()) grow(end + length);
+			d = data;
+		}
+		int offset = end;
+		d.putInt(offset, key.length);
+		d.putInt(offset + 4, value.length);
+		d.put(offset + RECORD_HEADER_BYTES, key);
+		d.put(offset + RECORD_HEADER_BYTES + key.length, value);
+		end += (int) length;
+		return offset;
+	}
+
+	private void kill(int offset){
+		ByteBuffer d = data;
+		dead += recordBytes(d, offset);
+		d.putInt(offset, d.getInt(offset) | DEAD);
+	}
+
+	/**
+	 Slides the live records down over the dead ones, then rebuilds the index.
+	 Records only ever move towards the start, so the copy can be done in place.
+	 */
+	private void compact(){
+		ByteBuffer d = data;
+		int write = HEADER_BYTES;
+		for(int read = HEADER_BYTES; read < end;){
+			int length = recordBytes(d, read);
+			if((d.getInt(read) & DEAD) == 0){
+				if(write != read) d.put(write, d, read, length);
+				write += length;
+			}
+			read += length;
+		}
+		end = write;
+		dead = 0;
+		writeHeader();
+		Arrays.fill(offsets, 0);
+		index();
+	}
+
+	private void grow(long required){
+		if(required > MAXIMUM_DATA_BYTES) throw new IllegalStateException("OffHeapDictionary capacity exceeded");
+		int capacity = (int) Math.min(MAXIMUM_DATA_BYTES, Math.max(required, (long) data.capacity() << 1));
+		if(channel != null){
+			try{
+				data = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+			}catch(IOException e){
+				throw new UncheckedIOException(e);
+			}
+			return;
+		}
+		ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+		grown.put(0, data, 0, end);
+		data = grown;
+	}
+
+	private void allocate(int capacity){
+		offsets = new int[capacity];
+		hashes = new int[capacity];
+		mask = capacity - 1;
+		threshold = (int) (capacity * LOAD_FACTOR);
+	}
+
+	/**
+	 Inserts every live record into an empty index, growing it first if the records would not fit.
+	 */
+	private void index(){
+		ByteBuffer d = data;
+		int count = 0;
+		for(int offset = HEADER_BYTES; offset < end; offset += recordBytes(d, offset)){
+			if((d.getInt(offset) & DEAD) == 0) count++;
+		}
+		if(count > threshold) allocate(Dictionary.tableSizeFor((int) Math.ceil(count / LOAD_FACTOR) + 1));
+		int[] os = offsets;
+		int m = mask;
+		for(int offset = HEADER_BYTES; offset < end; offset += recordBytes(d, offset)){
+			int keyLength = d.getInt(offset);
+			if((keyLength & DEAD) != 0) continue;
+			int h = hash(d, offset + RECORD_HEADER_BYTES, keyLength);
+			int i = h & m;
+			while(os[i] != 0){
+				i = (i + 1) & m;
+			}
+			os[i] = offset;
+			hashes[i] = h;
+		}
+		size = count;
+	}
+
+	private void resize(int capacity){
+		if(capacity > Dictionary.MAXIMUM_CAPACITY) throw new IllegalStateException("OffHeapDictionary capacity exceeded");
+		int[] oldOffsets = offsets;
+		int[] oldHashes = hashes;
+		allocate(capacity);
+		int[] os = offsets;
+		int m = mask;
+		for(int j = 0; j < oldOffsets.length; j++){
+			if(oldOffsets[j] == 0) continue;
+			int i = oldHashes[j] & m;
+			while(os[i] != 0){
+				i = (i + 1) & m;
+			}
+			os[i] = oldOffsets[j];
+			hashes[i] = oldHashes[j];
+		}
+	}
+
+	private void removeAt(int i){
+		int[] os = offsets;
+		int[] hs = hashes;
+		int m = mask;
+		int j = i;
+		while(true){
+			j = (j + 1) & m;
+			if(os[j] == 0) break;
+			int home = hs[j] & m;
+			if(((j - home) & m) >= ((j - i) & m)){
+				os[i] = os[j];
+				hs[i] = hs[j];
+				i = j;
+			}
+		}
+		os[i] = 0;
+		size--;
+	}
+
+	private void writeHeader(){
+		ByteBuffer d = data;
+		d.putInt(0, MAGIC);
+		d.putInt(4, VERSION);
+		d.putInt(8, end);
+		d.putInt(12, dead);
+	}
+
+	private byte[] keyBytes(int offset){
+		byte[] key = new byte[data.getInt(offset) & ~DEAD];
+		data.get(offset + RECORD_HEADER_BYTES, key);
+		return key;
+	}
+
+	private String decodeKey(int offset){
+		return new String(keyBytes(offset), StandardCharsets.UTF_8);
+	}
+
+	private String decodeValue(int offset){
+		ByteBuffer d = data;
+		byte[] value = new byte[d.getInt(offset + 4)];
+		d.get(offset + RECORD_HEADER_BYTES + (d.getInt(offset) & ~DEAD), value);
+		return new String(value, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * A {@link CharSequence} over UTF-8 bytes of an off-heap record. ASCII bytes map one to one to
+	 * characters and are read in place; anything else is decoded into a string on first access.
+	 */
+	private static final class Utf8View implements CharSequence {
+		private final ByteBuffer data;
+		private final int from;
+		private final int length;
+		private final boolean ascii;
+		private String decoded;
+
+		private Utf8View(ByteBuffer data, int from, int length){
+			this.data = data;
+			this.from = from;
+			this.length = length;
+			boolean ascii = true;
+			for(int i = from, to = from + length; i < to && ascii; i++){
+				ascii = data.get(i) >= 0;
+			}
+			this.ascii = ascii;
+		}
+
+		@Override
+		public int length(){
+			return ascii ? length : decoded().length();
+		}
+
+		@Override
+		public char charAt(int index){
+			if(!ascii) return decoded().charAt(index);
+			if(index < 0 || index >= length) throw new IndexOutOfBoundsException(index);
+			return (char) data.get(from + index);
+		}
+
+		@Override
+		public @NotNull CharSequence subSequence(int start, int end){
+			if(!ascii) return decoded().subSequence(start, end);
+			if(start < 0 || end > length || start > end) throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+			return new Utf8View(data, from + start, end - start);
+		}
+
+		@Override
+		public @NotNull String toString(){
+			return decoded();
+		}
+
+		private String decoded(){
+			String value = decoded;
+			if(value == null){
+				byte[] bytes = new byte[length];
+				data.get(from, bytes);
+				decoded = value = new String(bytes, StandardCharsets.UTF_8);
+			}
+			return value;
+		}
+	}
+}
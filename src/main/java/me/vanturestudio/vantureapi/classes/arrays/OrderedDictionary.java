@@ -0,0 +1,567 @@
+package me.vanturestudio.vantureapi.classes.arrays;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A {@link Dictionary} that iterates in insertion order, for GUI layouts, config output and
+ * anything else that should come out the way it went in. Replacing the value of a key keeps its
+ * position; removing and re-adding a key moves it to the end.
+ * <p>
+ * Entries are appended to dense parallel arrays, and a separate open-addressed table of
+ * {@code int} positions finds them by key. Iteration walks the dense arrays front to back,
+ * and an entry costs about half of what a {@link java.util.LinkedHashMap} node does.
+ * Removed entries leave a hole that is compacted away once holes make up a quarter of the arrays.
+ * <p>
+ * Serialization, JSON and the views keep the insertion order. Flood protection seeds the hash,
+ * but keys whose {@code hashCode} values are fully equal are not moved to a tree.
+ *
+ * @param <K> the type of keys maintained by this dictionary
+ * @param <V> the type of mapped values
+ */
+public class OrderedDictionary<K, V> extends Dictionary<K, V> {
+
+	// Header and fields of an ordered dictionary
+	private static final int SHALLOW_BYTES = 144;
+
+	// Open-addressed table of entry positions plus one, 0 marks a free slot
+	private int[] index;
+	private int mask;
+	// Dense entry arrays in insertion order, a null key marks a removed entry
+	private Object[] entryKeys;
+	private Object[] entryValues;
+	private int[] entryHashes;
+	// Entries appended so far, removed ones included
+	private int used;
+	private int size;
+	private int seed;
+
+	private final int initialCapacity;
+
+	/**
+	 Constructs an empty ordered dictionary with the default initial capacity.
+	 */
+	public OrderedDictionary(){
+		super();
+		this.initialCapacity = super.capacity();
+	}
+
+	/**
+	 Constructs an empty ordered dictionary with an initial capacity of {@code CAPACITY},
+	 rounded up to the next power of two.
+	 */
+	public OrderedDictionary(final int CAPACITY){
+		super(CAPACITY);
+		this.initialCapacity = super.capacity();
+	}
+
+	/**
+	 Constructs an empty ordered dictionary with an initial capacity of {@code CAPACITY},
+	 rounded up to the next power of two, that grows once {@code LOAD_FACTOR} is exceeded.
+	 */
+	public OrderedDictionary(final int CAPACITY, final double LOAD_FACTOR){
+		super(CAPACITY, LOAD_FACTOR);
+		this.initialCapacity = super.capacity();
+	}
+
+	@Override
+	public boolean put(K k, V v){
+		if(k == null) throw new NullPointerException("OrderedDictionary.put(K k, V v) -> 'k' cannot be null");
+		if(index == null) rebuild(initialCapacity);
+		int h = hash(k);
+		int slot = slotOf(k, h);
+		if(slot >= 0){
+			entryValues[index[slot] - 1] = v;
+		}else{
+			append(-1 - slot, k, h, v);
+		}
+		return true;
+	}
+
+	@Override
+	public Dictionary<K, V> putAll(@NotNull Map<? extends K, ? extends V> map){
+		reserve(size + map.size());
+		map.forEach(this::put);
+		return this;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(K k){
+		int e = entryOf(k);
+		return e < 0 ? null : (V) entryValues[e];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V getOrDefaultAndPut(K k, V dv){
+		int e = entryOf(k);
+		if(e >= 0 && entryValues[e] != null) return (V) entryValues[e];
+		if(e >= 0) entryValues[e] = dv;
+		else put(k, dv);
+		return dv;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V computeIfAbsent(K k, @NotNull Function<? super K, ? extends V> mappingFunction){
+		int e = entryOf(k);
+		if(e >= 0 && entryValues[e] != null) return (V) entryValues[e];
+		V value = mappingFunction.apply(k);
+		if(value != null) store(e, k, value);
+		return value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V computeIfPresent(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+		int e = entryOf(k);
+		if(e < 0 || entryValues[e] == null) return null;
+		V value = remappingFunction.apply(k, (V) entryValues[e]);
+		if(value == null) remove(k);
+		else store(e, k, value);
+		return value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V compute(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+		int e = entryOf(k);
+		V value = remappingFunction.apply(k, e < 0 ? null : (V) entryValues[e]);
+		if(value == null){
+			if(e >= 0) remove(k);
+		}else{
+			store(e, k, value);
+		}
+		return value;
+	}
+
+	@Override
+	public boolean containsKey(K k){
+		return entryOf(k) >= 0;
+	}
+
+	@Override
+	public Dictionary<K, V> replace(K k, V v){
+		int e = entryOf(k);
+		if(e >= 0) entryValues[e] = v;
+		return this;
+	}
+
+	@Override
+	public boolean replace(K k, V ov, V nv){
+		int e = entryOf(k);
+		if(e < 0 || !Objects.equals(entryValues[e], ov)) return false;
+		entryValues[e] = nv;
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Dictionary<K, V> merge(K k, V v, BiFunction<? super V, ? super V, ? extends V> remappingFunction){
+		if(k == null) throw new NullPointerException("OrderedDictionary.merge(K k, V v, BiFunction<V, V, V> remappingFunction) -> 'k' cannot be null");
+		int e = entryOf(k);
+		if(e < 0) put(k, v);
+		else store(e, k, remappingFunction.apply((V) entryValues[e], v));
+		return this;
+	}
+
+	@Override
+	public boolean containsValue(V v){
+		for(int e = 0; e < used; e++){
+			if(entryKeys[e] != null && Objects.equals(entryValues[e], v)) return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean remove(K k){
+		if(k == null || size == 0) return false;
+		int slot = slotOf(k, hash(k));
+		if(slot < 0) return false;
+		removeSlot(slot);
+		shrinkIfSparse();
+		return true;
+	}
+
+	@Override
+	public Dictionary<K, V> clear(){
+		if(index != null && isAutoShrink() && index.length > initialCapacity){
+			release();
+			return this;
+		}
+		if(index != null){
+			Arrays.fill(index, 0);
+			Arrays.fill(entryKeys, 0, used, null);
+			Arrays.fill(entryValues, 0, used, null);
+		}
+		used = 0;
+		size = 0;
+		return this;
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	@Override
+	public int size(){
+		return size;
+	}
+
+	@Override
+	public int capacity(){
+		return index == null ? initialCapacity : index.length;
+	}
+
+	@Override
+	public Dictionary<K, V> trimToSize(){
+		if(index == null) return this;
+		if(size == 0){
+			release();
+			return this;
+		}
+		int capacity = tableSizeFor((int) Math.min(MAXIMUM_CAPACITY, (long) (size / loadFactor()) + 2));
+		if(capacity < index.length || used > size || entryKeys.length > size) rebuild(Math.min(capacity, index.length), size);
+		return this;
+	}
+
+	/**
+	 Estimates the bytes held by the position table and the entry arrays, excluding keys and values.
+	 */
+	@Override
+	public long estimatedRetainedBytes(){
+		if(index == null) return SHALLOW_BYTES;
+		return SHALLOW_BYTES + intArrayBytes(index.length) + 2 * referenceArrayBytes(entryKeys.length) + intArrayBytes(entryHashes.length);
+	}
+
+	/**
+	 A {@link PersistentDictionary} does not keep insertion order, so {@link #snapshot()} always
+	 copies the live pairs instead.
+
+	 @throws UnsupportedOperationException when enabling tracking
+	 */
+	@Override
+	public Dictionary<K, V> trackSnapshots(boolean enabled){
+		if(enabled) throw new UnsupportedOperationException("OrderedDictionary.trackSnapshots(boolean enabled) -> snapshots are copied on demand");
+		return this;
+	}
+
+	/**
+	 An ordered dictionary keeps its own tables, which are not instrumented.
+
+	 @throws UnsupportedOperationException when enabling recording
+	 */
+	@Override
+	public Dictionary<K, V> recordMetrics(boolean enabled){
+		if(enabled) throw new UnsupportedOperationException("OrderedDictionary.recordMetrics(boolean enabled) -> metrics are not available");
+		return this;
+	}
+
+	/**
+	 Returns only the size and capacity, with every counter and table measure zero, since its index is not instrumented.
+	 */
+	@Override
+	public Metrics metrics(){
+		return Metrics.unmeasured(size(), capacity());
+	}
+
+	/**
+	 The position index is rebuilt together with the entry arrays in one step, so this does nothing.
+	 */
+	@Override
+	public Dictionary<K, V> incrementalResize(boolean enabled){
+		return this;
+	}
+
+	@Override
+	public boolean isIncrementalResize(){
+		return false;
+	}
+
+	/**
+	 Mixes a random per-instance seed into the hashes of the keys. Switching rehashes every entry
+	 and keeps the order.
+	 */
+	@Override
+	public Dictionary<K, V> floodProtection(boolean enabled){
+		if(enabled == (seed != 0)) return this;
+		int newSeed = 0;
+		while(enabled && newSeed == 0){
+			newSeed = ThreadLocalRandom.current().nextInt();
+		}
+		seed = newSeed;
+		if(index == null) return this;
+		for(int e = 0; e < used; e++){
+			if(entryKeys[e] != null) entryHashes[e] = hash(entryKeys[e]);
+		}
+		rebuild(index.length);
+		return this;
+	}
+
+	@Override
+	public boolean isFloodProtected(){
+		return seed != 0;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Dictionary<K, V> forEach(BiConsumer<? super K, ? super V> action){
+		Object[] ks = entryKeys;
+		Object[] vs = entryValues;
+		for(int e = 0, n = used; e < n; e++){
+			if(ks[e] != null) action.accept((K) ks[e], (V) vs[e]);
+		}
+		return this;
+	}
+
+	/**
+	 Returns a spliterator over the entries in insertion order.
+	 */
+	@Override
+	public Spliterator<Map.Entry<K, V>> spliterator(){
+		return cursorSpliterator(Spliterator.ORDERED | Spliterator.SIZED);
+	}
+
+	@Override
+	public Cursor<K, V> cursor(){
+		return new OrderedCursor();
+	}
+
+	/**
+
+	 DESERIALIZATION FOR YamlConfiguration's:
+	 <p>
+	 Reads a dictionary written by {@link #serialize()}, in the order it was written.
+
+	 */
+	public static <K, V> @NotNull OrderedDictionary<K, V> deserialize(@NotNull Map<String, Object> map) {
+		return YamlCodec.deserializeDictionary(map, null, null, OrderedDictionary::new);
+	}
+
+	/**
+
+	 DESERIALIZATION FOR YamlConfiguration's:
+	 <p>
+	 Reads a dictionary written by {@link #serialize()} in the order it was written, converting every key
+	 and value to the given classes as {@link Dictionary#deserialize(Map, Class, Class)} does.
+
+	 @param map       the serialized dictionary
+	 @param keyType   the class of the keys
+	 @param valueType the class of the values
+
+	 @throws IllegalArgumentException if a key or value cannot be converted
+	 */
+	public static <K, V> @NotNull OrderedDictionary<K, V> deserialize(@NotNull Map<String, Object> map, @NotNull Class<K> keyType, @NotNull Class<V> valueType) {
+		return YamlCodec.deserializeDictionary(map, keyType, valueType, OrderedDictionary::new);
+	}
+
+	/**
+	 Streams a JSON object from {@code in} into a new ordered dictionary, in the order of its names.
+	 See {@link JsonCodec} for the format.
+
+	 @param in           the reader to read from
+	 @param keyAdapter   the adapter for the keys, read from the object names
+	 @param valueAdapter the adapter for the values
+
+	 @return a new ordered dictionary holding the parsed pairs
+	 */
+	public static <K, V> OrderedDictionary<K, V> fromJson(@NotNull Reader in, @NotNull TypeAdapter<K> keyAdapter, @NotNull TypeAdapter<V> valueAdapter) throws IOException{
+		return (OrderedDictionary<K, V>) JsonCodec.dictionary(keyAdapter, valueAdapter, OrderedDictionary::new).read(new JsonReader(in));
+	}
+
+	// Private helper methods
+
+	private int hash(Object k){
+		return hash(k.hashCode(), seed);
+	}
+
+	// The position of the entry holding k, or -1
+	private int entryOf(Object k){
+		if(k == null || size == 0) return -1;
+		int slot = slotOf(k, hash(k));
+		return slot < 0 ? -1 : index[slot] - 1;
+	}
+
+	// The slot pointing at the entry holding k, or -1 - the free slot ending its probe run
+	private int slotOf(Object k, int h){
+		int[] idx = index;
+		int m = mask;
+		int i = h & m;
+		int p;
+		while((p = idx[i]) != 0){
+			Object current = entryKeys[p - 1];
+			if(entryHashes[p - 1] == h && (current == k || k.equals(current))) return i;
+			i = (i + 1) & m;
+		}
+		return -1 - i;
+	}
+
+	// Sets the value of entry e if a user function left it in place, and puts it again otherwise
+	private void store(int e, K k, V v){
+		if(e >= 0 && e < used && entryKeys[e] == k) entryValues[e] = v;
+		else put(k, v);
+	}
+
+	private void append(int slot, K k, int h, V v){
+		if(used == entryKeys.length){
+			// Compact when at least a quarter of the entries are holes; otherwise grow the entry arrays,
+			// and the index with them once they already take all it holds. Either way the probe is redone
+			boolean holes = used - size >= Math.max(1, used >> 2);
+			rebuild(holes || entryKeys.length < limit(index.length) ? index.length : index.length << 1);
+			slot = -1 - slotOf(k, h);
+		}
+		entryKeys[used] = k;
+		entryValues[used] = v;
+		entryHashes[used] = h;
+		index[slot] = ++used;
+		size++;
+	}
+
+	private void removeSlot(int slot){
+		int e = index[slot] - 1;
+		entryKeys[e] = null;
+		entryValues[e] = null;
+		deleteSlot(slot);
+		if(--size == 0) used = 0;
+		else if(e == used - 1) used--;
+	}
+
+	// Backward-shift deletion, so no probe run is ever broken by a free slot
+	private void deleteSlot(int slot){
+		int[] idx = index;
+		int m = mask;
+		int free = slot;
+		int i = slot;
+		int p;
+		while((p = idx[i = (i + 1) & m]) != 0){
+			int home = entryHashes[p - 1] & m;
+			if(((i - home) & m) >= ((i - free) & m)){
+				idx[free] = p;
+				free = i;
+			}
+		}
+		idx[free] = 0;
+	}
+
+	private void shrinkIfSparse(){
+		if(!isAutoShrink() || index == null) return;
+		int length = index.length;
+		if(length <= initialCapacity || size > length / 8) return;
+		rebuild(Math.max(initialCapacity, tableSizeFor(size << 2)));
+	}
+
+	private void reserve(int expected){
+		if(index == null) rebuild(initialCapacity);
+		if(expected <= entryKeys.length) return;
+		rebuild(tableSizeFor((int) Math.min(MAXIMUM_CAPACITY, (long) (expected / loadFactor()) + 2)));
+	}
+
+	private void rebuild(int capacity){
+		rebuild(capacity, limit(capacity));
+	}
+
+	// The number of entries a position table of the given capacity takes
+	private int limit(int capacity){
+		return Math.max(1, Math.min(capacity - 1, (int) (capacity * loadFactor())));
+	}
+
+	// Moves the live entries to the front of new arrays of the given length, in order, and reindexes them
+	private void rebuild(int capacity, int entries){
+		if(capacity <= 0 || capacity > MAXIMUM_CAPACITY) throw new IllegalStateException("OrderedDictionary capacity exceeded");
+		Object[] oldKeys = entryKeys;
+		Object[] oldValues = entryValues;
+		int[] oldHashes = entryHashes;
+		int oldUsed = used;
+		index = new int[capacity];
+		mask = capacity - 1;
+		entryKeys = new Object[entries];
+		entryValues = new Object[entries];
+		entryHashes = new int[entries];
+		used = 0;
+		for(int e = 0; e < oldUsed; e++){
+			if(oldKeys[e] == null) continue;
+			int h = oldHashes[e];
+			int i = h & mask;
+			while(index[i] != 0){
+				i = (i + 1) & mask;
+			}
+			entryKeys[used] = oldKeys[e];
+			entryValues[used] = oldValues[e];
+			entryHashes[used] = h;
+			index[i] = ++used;
+		}
+	}
+
+	private void release(){
+		index = null;
+		entryKeys = null;
+		entryValues = null;
+		entryHashes = null;
+		used = 0;
+		size = 0;
+	}
+
+	private final class OrderedCursor implements Cursor<K, V> {
+		private int position = -1;
+		private boolean current;
+
+		@Override
+		public boolean advance(){
+			current = false;
+			while(++position < used){
+				if(entryKeys[position] != null) return current = true;
+			}
+			return false;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public K key(){
+			check();
+			return (K) entryKeys[position];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V value(){
+			check();
+			return (V) entryValues[position];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V setValue(V v){
+			check();
+			V previous = (V) entryValues[position];
+			entryValues[position] = v;
+			return previous;
+		}
+
+		@Override
+		public void remove(){
+			check();
+			// Removing never moves other entries, so the position stays valid; shrinking would, so it waits
+			removeSlot(slotOf(entryKeys[position], entryHashes[position]));
+			current = false;
+		}
+
+		private void check(){
+			if(!current) throw new NoSuchElementException();
+		}
+	}
+}
@@ -34,6 +34,15 @@ public class PaginatedEnumerator<T> {
 				source.getElements().subList(fromIndex, toIndex);
 	}
 
+	// A page cut out by an EnumeratorView, which counted every value but kept only those on the page
+	PaginatedEnumerator(@NotNull List<Enumerator.Element<T>> pageElements, int page, int itemsPerPage, int total) {
+		this.source = null;
+		this.page = page;
+		this.itemsPerPage = itemsPerPage;
+		this.totalPages = (int) Math.ceil((double) total / itemsPerPage);
+		this.currentPageElements = pageElements;
+	}
+
 	public List<Enumerator.Element<T>> getElements() {
 		return Collections.unmodifiableList(currentPageElements);
 	}
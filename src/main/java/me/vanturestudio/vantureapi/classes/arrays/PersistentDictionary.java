@@ -0,0 +1,518 @@
+package me.vanturestudio.vantureapi.classes.arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable dictionary stored as a hash array mapped trie (HAMT). {@link #with(Object, Object)}
+ * and {@link #without(Object)} return a new dictionary that shares every untouched branch with
+ * this one, copying only the O(log32 n) nodes on the path to the changed key.
+ * <p>
+ * Instances never change after construction, so they can be handed to any thread and read
+ * without locks or copies. {@link Dictionary#snapshot()} returns one for a mutable dictionary.
+ * Keys must not be {@code null}; values may be.
+ *
+ * @param <K> the type of keys maintained by this dictionary
+ * @param <V> the type of mapped values
+ */
+public final class PersistentDictionary<K, V> {
+
+	private static final PersistentDictionary<?, ?> EMPTY = new PersistentDictionary<>(null, 0);
+
+	private final Node root;
+	private final int size;
+
+	private PersistentDictionary(Node root, int size){
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 Returns the empty persistent dictionary.
+
+	 @return an empty dictionary
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> @NotNull PersistentDictionary<K, V> empty(){
+		return (PersistentDictionary<K, V>) EMPTY;
+	}
+
+	/**
+	 Returns a persistent dictionary holding the current pairs of {@code dictionary}.
+
+	 @param dictionary the dictionary to copy
+
+	 @return a persistent copy of the dictionary
+	 */
+	public static <K, V> @NotNull PersistentDictionary<K, V> copyOf(@NotNull Dictionary<K, V> dictionary){
+		Node[] root = {null};
+		int[] size = {0};
+		boolean[] added = new boolean[1];
+		dictionary.forEach((k, v) -> {
+			added[0] = false;
+			root[0] = root[0] == null ? BitmapNode.EMPTY.with(0, hash(k), k, v, added) : root[0].with(0, hash(k), k, v, added);
+			if(added[0]) size[0]++;
+		});
+		return size[0] == 0 ? empty() : new PersistentDictionary<>(root[0], size[0]);
+	}
+
+	/**
+	 Returns a dictionary that maps {@code k} to {@code v} and otherwise equals this one.
+
+	 @param k the key with which the specified value is to be associated
+	 @param v the value to be associated with the specified key
+
+	 @return the updated dictionary, or this one if {@code k} was already mapped to {@code v}
+	 */
+	public @NotNull PersistentDictionary<K, V> with(K k, V v){
+		if(k == null) throw new NullPointerException("PersistentDictionary.with(K k, V v) -> 'k' cannot be null");
+		boolean[] added = new boolean[1];
+		Node base = root == null ? BitmapNode.EMPTY : root;
+		Node updated = base.with(0, hash(k), k, v, added);
+		if(updated == root) return this;
+		return new PersistentDictionary<>(updated, added[0] ? size + 1 : size);
+	}
+
+	/**
+	 Returns a dictionary without a mapping for {@code k} that otherwise equals this one.
+
+	 @param k the key whose mapping is to be left out
+
+	 @return the updated dictionary, or this one if {@code k} was not mapped
+	 */
+	public @NotNull PersistentDictionary<K, V> without(K k){
+		if(k == null || root == null) return this;
+		Node updated = root.without(0, hash(k), k);
+		if(updated == root) return this;
+		return updated == null ? empty() : new PersistentDictionary<>(updated, size - 1);
+	}
+
+	/**
+	 Retrieves the value associated with the specified key.
+
+	 @param k the key whose associated value is to be returned
+
+	 @return the value to which the specified key is mapped, or {@code null} if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(K k){
+		if(k == null || root == null) return null;
+		Object value = root.find(0, hash(k), k, Node.ABSENT);
+		return value == Node.ABSENT ? null : (V) value;
+	}
+
+	/**
+	 Retrieves the value associated with the specified key, or returns a default value if the key is not found.
+
+	 @param k  the key whose associated value is to be returned
+	 @param dv the default value to return if the key is not found
+
+	 @return the value to which the specified key is mapped, or {@code dv} if the key is not found
+	 */
+	public V getOrDefault(K k, V dv){
+		V value = get(k);
+		return value != null ? value : dv;
+	}
+
+	/**
+	 Checks if the dictionary contains the specified key.
+
+	 @param k the key whose presence is to be tested
+
+	 @return {@code true} if this dictionary contains a mapping for the key
+	 */
+	public boolean containsKey(K k){
+		return k != null && root != null && root.find(0, hash(k), k, Node.ABSENT) != Node.ABSENT;
+	}
+
+	/**
+	 Returns the number of key-value pairs in the dictionary.
+
+	 @return the number of key-value pairs
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 Checks if the dictionary is empty.
+
+	 @return {@code true} if this dictionary contains no key-value pairs
+	 */
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 Performs the given action for each key-value pair in the dictionary.
+
+	 @param action the action to be performed for each key-value pair
+	 */
+	public PersistentDictionary<K, V> forEach(@NotNull BiConsumer<? super K, ? super V> action){
+		if(root != null) root.forEach(action);
+		return this;
+	}
+
+	/**
+	 Returns an unmodifiable view of the keys of this dictionary.
+
+	 @return the keys of this dictionary
+	 */
+	public @NotNull Set<K> keys(){
+		return new AbstractSet<>(){
+			@Override
+			public @NotNull Iterator<K> iterator(){
+				return new TrieIterator<>(root, true);
+			}
+
+			@Override
+			public int size(){
+				return size;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public boolean contains(Object o){
+				return containsKey((K) o);
+			}
+		};
+	}
+
+	/**
+	 Returns an unmodifiable view of the values of this dictionary.
+
+	 @return the values of this dictionary
+	 */
+	public @NotNull Collection<V> values(){
+		return new AbstractCollection<>(){
+			@Override
+			public @NotNull Iterator<V> iterator(){
+				return new TrieIterator<>(root, false);
+			}
+
+			@Override
+			public int size(){
+				return size;
+			}
+		};
+	}
+
+	/**
+	 Copies this dictionary into a new mutable {@link Dictionary}.
+
+	 @return a new mutable dictionary holding the same pairs
+	 */
+	public @NotNull Dictionary<K, V> toDictionary(){
+		Dictionary<K, V> dictionary = new Dictionary<>((int) Math.ceil((size + 1) / 0.8));
+		forEach(dictionary::put);
+		return dictionary;
+	}
+
+	/**
+	 Estimates the bytes held by the trie nodes of this dictionary, excluding keys and values.
+	 Nodes shared with other versions are counted as well.
+	 */
+	long estimatedBytes(){
+		return Dictionary.align(Dictionary.OBJECT_HEADER_BYTES + Dictionary.REFERENCE_BYTES + 4) + (root == null ? 0 : root.estimatedBytes());
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean equals(Object o){
+		if(this == o) return true;
+		if(!(o instanceof PersistentDictionary<?, ?> other) || other.size != size) return false;
+		boolean[] equal = {true};
+		forEach((k, v) -> {
+			if(equal[0]){
+				Object value = other.root.find(0, hash(k), k, Node.ABSENT);
+				equal[0] = value != Node.ABSENT && Objects.equals(value, v);
+			}
+		});
+		return equal[0];
+	}
+
+	@Override
+	public int hashCode(){
+		int[] hash = {0};
+		forEach((k, v) -> hash[0] += k.hashCode() ^ Objects.hashCode(v));
+		return hash[0];
+	}
+
+	@Override
+	public String toString(){
+		StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		forEach((k, v) -> sb.append(k).append("=").append(v).append(", "));
+		if(sb.length() > 1){
+			sb.setLength(sb.length() - 2); // Remove the last ", "
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+
+	// Private helper methods
+
+	private static int hash(Object k){
+		return Dictionary.spread(k.hashCode());
+	}
+
+	/**
+	 * A trie node. Nodes are never modified once they are reachable from a dictionary.
+	 */
+	private abstract static class Node {
+		static final Object ABSENT = new Object();
+
+		abstract Node with(int shift, int hash, Object key, Object value, boolean[] added);
+
+		// Returns this node if the key is absent, or null once the node is empty
+		abstract Node without(int shift, int hash, Object key);
+
+		abstract Object find(int shift, int hash, Object key, Object absent);
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		abstract void forEach(BiConsumer action);
+
+		abstract long estimatedBytes();
+	}
+
+	/**
+	 * Holds up to 32 children selected by 5 bits of the hash. Each present child takes two array
+	 * slots: a key and its value, or {@code null} and the sub-node for keys sharing those bits.
+	 */
+	private static final class BitmapNode extends Node {
+		static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+		private final int bitmap;
+		private final Object[] array;
+
+		private BitmapNode(int bitmap, Object[] array){
+			this.bitmap = bitmap;
+			this.array = array;
+		}
+
+		@Override
+		Node with(int shift, int hash, Object key, Object value, boolean[] added){
+			int bit = 1 << ((hash >>> shift) & 31);
+			int i = Integer.bitCount(bitmap & (bit - 1)) << 1;
+			if((bitmap & bit) == 0){
+				Object[] copy = new Object[array.length + 2];
+				System.arraycopy(array, 0, copy, 0, i);
+				copy[i] = key;
+				copy[i + 1] = value;
+				System.arraycopy(array, i, copy, i + 2, array.length - i);
+				added[0] = true;
+				return new BitmapNode(bitmap | bit, copy);
+			}
+			Object current = array[i];
+			Object valueOrNode = array[i + 1];
+			if(current == null){
+				Node child = ((Node) valueOrNode).with(shift + 5, hash, key, value, added);
+				return child == valueOrNode ? this : replace(i + 1, child);
+			}
+			if(current == key || current.equals(key)){
+				return valueOrNode == value ? this : replace(i + 1, value);
+			}
+			added[0] = true;
+			Object[] copy = array.clone();
+			copy[i] = null;
+			copy[i + 1] = split(shift + 5, current, valueOrNode, hash, key, value);
+			return new BitmapNode(bitmap, copy);
+		}
+
+		@Override
+		Node without(int shift, int hash, Object key){
+			int bit = 1 << ((hash >>> shift) & 31);
+			if((bitmap & bit) == 0) return this;
+			int i = Integer.bitCount(bitmap & (bit - 1)) << 1;
+			Object current = array[i];
+			Object valueOrNode = array[i + 1];
+			if(current == null){
+				Node child = ((Node) valueOrNode).without(shift + 5, hash, key);
+				if(child == valueOrNode) return this;
+				if(child != null) return replace(i + 1, child);
+			}else if(!(current == key || current.equals(key))){
+				return this;
+			}
+			if(bitmap == bit) return null;
+			Object[] copy = new Object[array.length - 2];
+			System.arraycopy(array, 0, copy, 0, i);
+			System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+			return new BitmapNode(bitmap ^ bit, copy);
+		}
+
+		@Override
+		Object find(int shift, int hash, Object key, Object absent){
+			int bit = 1 << ((hash >>> shift) & 31);
+			if((bitmap & bit) == 0) return absent;
+			int i = Integer.bitCount(bitmap & (bit - 1)) << 1;
+			Object current = array[i];
+			if(current == null) return ((Node) array[i + 1]).find(shift + 5, hash, key, absent);
+			return current == key || current.equals(key) ? array[i + 1] : absent;
+		}
+
+		@Override
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		void forEach(BiConsumer action){
+			for(int i = 0; i < array.length; i += 2){
+				if(array[i] != null) action.accept(array[i], array[i + 1]);
+				else ((Node) array[i + 1]).forEach(action);
+			}
+		}
+
+		@Override
+		long estimatedBytes(){
+			long bytes = Dictionary.align(Dictionary.OBJECT_HEADER_BYTES + 4 + Dictionary.REFERENCE_BYTES) + Dictionary.referenceArrayBytes(array.length);
+			for(int i = 0; i < array.length; i += 2){
+				if(array[i] == null) bytes += ((Node) array[i + 1]).estimatedBytes();
+			}
+			return bytes;
+		}
+
+		private BitmapNode replace(int i, Object o){
+			Object[] copy = array.clone();
+			copy[i] = o;
+			return new BitmapNode(bitmap, copy);
+		}
+
+		private static Node split(int shift, Object key1, Object value1, int hash2, Object key2, Object value2){
+			int hash1 = hash(key1);
+			if(hash1 == hash2) return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+			boolean[] added = new boolean[1];
+			return EMPTY.with(shift, hash1, key1, value1, added).with(shift, hash2, key2, value2, added);
+		}
+	}
+
+	/**
+	 * Holds keys whose spread hashes are fully equal, as flat key-value pairs.
+	 */
+	private static final class CollisionNode extends Node {
+		private final int hash;
+		private final Object[] array;
+
+		private CollisionNode(int hash, Object[] array){
+			this.hash = hash;
+			this.array = array;
+		}
+
+		@Override
+		Node with(int shift, int hash, Object key, Object value, boolean[] added){
+			if(hash != this.hash){
+				// Push this node one level down next to the new key
+				BitmapNode parent = new BitmapNode(1 << ((this.hash >>> shift) & 31), new Object[]{null, this});
+				return parent.with(shift, hash, key, value, added);
+			}
+			int i = indexOf(key);
+			if(i >= 0){
+				if(array[i + 1] == value) return this;
+				Object[] copy = array.clone();
+				copy[i + 1] = value;
+				return new CollisionNode(hash, copy);
+			}
+			Object[] copy = new Object[array.length + 2];
+			System.arraycopy(array, 0, copy, 0, array.length);
+			copy[array.length] = key;
+			copy[array.length + 1] = value;
+			added[0] = true;
+			return new CollisionNode(hash, copy);
+		}
+
+		@Override
+		Node without(int shift, int hash, Object key){
+			int i = indexOf(key);
+			if(i < 0) return this;
+			if(array.length == 2) return null;
+			Object[] copy = new Object[array.length - 2];
+			System.arraycopy(array, 0, copy, 0, i);
+			System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+			return new CollisionNode(hash, copy);
+		}
+
+		@Override
+		Object find(int shift, int hash, Object key, Object absent){
+			int i = indexOf(key);
+			return i < 0 ? absent : array[i + 1];
+		}
+
+		@Override
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		void forEach(BiConsumer action){
+			for(int i = 0; i < array.length; i += 2){
+				action.accept(array[i], array[i + 1]);
+			}
+		}
+
+		@Override
+		long estimatedBytes(){
+			return Dictionary.align(Dictionary.OBJECT_HEADER_BYTES + 4 + Dictionary.REFERENCE_BYTES) + Dictionary.referenceArrayBytes(array.length);
+		}
+
+		private int indexOf(Object key){
+			for(int i = 0; i < array.length; i += 2){
+				if(array[i] == key || array[i].equals(key)) return i;
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * Walks the trie depth first with an explicit stack of nodes and positions.
+	 */
+	private static final class TrieIterator<E> implements Iterator<E> {
+		// Seven 5-bit levels plus a collision node
+		private final Object[][] arrays = new Object[8][];
+		private final int[] positions = new int[8];
+		private final boolean keys;
+		private int depth = -1;
+		private Object nextKey;
+		private Object nextValue;
+		private boolean ready;
+
+		private TrieIterator(Node root, boolean keys){
+			this.keys = keys;
+			if(root != null) push(root);
+		}
+
+		@Override
+		public boolean hasNext(){
+			if(ready) return true;
+			while(depth >= 0){
+				Object[] array = arrays[depth];
+				int i = positions[depth];
+				if(i >= array.length){
+					depth--;
+					continue;
+				}
+				positions[depth] = i + 2;
+				if(array[i] == null){
+					push((Node) array[i + 1]);
+					continue;
+				}
+				nextKey = array[i];
+				nextValue = array[i + 1];
+				return ready = true;
+			}
+			return false;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next(){
+			if(!hasNext()) throw new NoSuchElementException();
+			ready = false;
+			return (E) (keys ? nextKey : nextValue);
+		}
+
+		private void push(Node node){
+			arrays[++depth] = node instanceof BitmapNode bitmap ? bitmap.array : ((CollisionNode) node).array;
+			positions[depth] = 0;
+		}
+	}
+}
@@ -1,5 +1,12 @@
 package me.vanturestudio.vantureapi.classes.arrays;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
@@ -148,6 +155,27 @@ public class Table<V> {
 		return Optional.empty();
 	}
 
+	/**
+	 * Streams the table as JSON to a writer. See {@link JsonCodec} for the format.
+	 *
+	 * @param out the writer to write to
+	 * @param valueAdapter the adapter for the cell values
+	 */
+	public void toJson(Writer out, TypeAdapter<V> valueAdapter) throws IOException {
+		JsonCodec.table(valueAdapter).write(new JsonWriter(out), this);
+	}
+
+	/**
+	 * Streams a table from a reader.
+	 *
+	 * @param in the reader to read from
+	 * @param valueAdapter the adapter for the cell values
+	 * @return new Table
+	 */
+	public static <V> Table<V> fromJson(Reader in, TypeAdapter<V> valueAdapter) throws IOException {
+		return JsonCodec.table(valueAdapter).read(new JsonReader(in));
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder out = new StringBuilder("Table:\n");
@@ -0,0 +1,594 @@
+package me.vanturestudio.vantureapi.classes.arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A {@link Dictionary} that holds its keys weakly and compares them by identity, for keys
+ * such as {@code Player}s or {@code Inventory}s that are only meaningful while the server
+ * still references them. Once a key is garbage collected its entry is evicted, so caches
+ * keyed on Bukkit objects no longer keep logged-off players or closed inventories alive.
+ * <p>
+ * Keys are matched with {@code ==} and hashed with {@link System#identityHashCode(Object)},
+ * like {@link java.util.IdentityHashMap}. Collected keys are drained from a {@link ReferenceQueue}
+ * on every write and by {@link #size()}, {@link #isEmpty()} and {@link #expungeStaleEntries()};
+ * lookups never drain, so they are safe while a cursor walks the dictionary.
+ * <p>
+ * Values are held strongly: a value that references its own key keeps that entry alive.
+ *
+ * @param <K> the type of keys maintained by this dictionary
+ * @param <V> the type of mapped values
+ */
+public class WeakDictionary<K, V> extends Dictionary<K, V> {
+
+	// Header and fields of a WeakKey
+	private static final int WEAK_KEY_BYTES = 32;
+
+	private final ReferenceQueue<K> queue = new ReferenceQueue<>();
+
+	// Parallel slot arrays, a null reference marks a free slot
+	private WeakKey<K>[] keys;
+	private Object[] values;
+	private int mask;
+	private int threshold;
+	private int size;
+	private long evictions;
+	// Told of every entry evicted for a collected key, null unless a BiDictionary indexes this one
+	private EvictionListener<? super V> evictionListener;
+
+	private final int initialCapacity;
+
+	/**
+	 Constructs an empty weak dictionary with the default initial capacity.
+	 */
+	public WeakDictionary(){
+		super();
+		this.initialCapacity = super.capacity();
+	}
+
+	/**
+	 Constructs an empty weak dictionary with an initial capacity of {@code CAPACITY},
+	 rounded up to the next power of two.
+	 */
+	public WeakDictionary(final int CAPACITY){
+		super(CAPACITY);
+		this.initialCapacity = super.capacity();
+	}
+
+	/**
+	 Constructs an empty weak dictionary with an initial capacity of {@code CAPACITY},
+	 rounded up to the next power of two, that grows once {@code LOAD_FACTOR} is exceeded.
+	 */
+	public WeakDictionary(final int CAPACITY, final double LOAD_FACTOR){
+		super(CAPACITY, LOAD_FACTOR);
+		this.initialCapacity = super.capacity();
+	}
+
+	@Override
+	public boolean put(K k, V v){
+		if(k == null) throw new NullPointerException("WeakDictionary.put(K k, V v) -> 'k' cannot be null");
+		expungeStaleEntries();
+		if(keys == null) allocate(initialCapacity);
+		int h = hash(k);
+		WeakKey<K>[] ks = keys;
+		int m = mask;
+		int i = h & m;
+		WeakKey<K> current;
+		while((current = ks[i]) != null){
+			if(current.hash == h && current.get() == k){
+				values[i] = v;
+				return true;
+			}
+			i = (i + 1) & m;
+		}
+		ks[i] = new WeakKey<>(k, h, queue);
+		values[i] = v;
+		if(++size > threshold){
+			resize(ks.length << 1);
+		}
+		return true;
+	}
+
+	@Override
+	public Dictionary<K, V> putIfAbsent(K k, V v){
+		if(!containsKey(k)) put(k, v);
+		return this;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(K k){
+		int i = indexOf(k);
+		return i < 0 ? null : (V) values[i];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V getOrDefaultAndPut(K k, V dv){
+		int i = indexOf(k);
+		if(i >= 0 && values[i] != null) return (V) values[i];
+		put(k, dv);
+		return dv;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V computeIfAbsent(K k, @NotNull Function<? super K, ? extends V> mappingFunction){
+		int i = indexOf(k);
+		if(i >= 0 && values[i] != null) return (V) values[i];
+		V value = mappingFunction.apply(k);
+		if(value != null) put(k, value);
+		return value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V computeIfPresent(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+		int i = indexOf(k);
+		if(i < 0 || values[i] == null) return null;
+		V value = remappingFunction.apply(k, (V) values[i]);
+		if(value == null) remove(k);
+		else put(k, value);
+		return value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V compute(K k, @NotNull BiFunction<? super K, ? super V, ? extends V> remappingFunction){
+		int i = indexOf(k);
+		V value = remappingFunction.apply(k, i < 0 ? null : (V) values[i]);
+		if(value == null) remove(k);
+		else put(k, value);
+		return value;
+	}
+
+	@Override
+	public Dictionary<K, V> putAll(@NotNull Map<? extends K, ? extends V> map){
+		map.forEach(this::put);
+		return this;
+	}
+
+	@Override
+	public boolean containsKey(K k){
+		return indexOf(k) >= 0;
+	}
+
+	@Override
+	public Dictionary<K, V> replace(K k, V v){
+		int i = indexOf(k);
+		if(i >= 0) values[i] = v;
+		return this;
+	}
+
+	@Override
+	public boolean replace(K k, V ov, V nv){
+		int i = indexOf(k);
+		if(i >= 0 && Objects.equals(values[i], ov)){
+			values[i] = nv;
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Dictionary<K, V> merge(K k, V v, BiFunction<? super V, ? super V, ? extends V> remappingFunction){
+		int i = indexOf(k);
+		if(i >= 0) values[i] = remappingFunction.apply((V) values[i], v);
+		else put(k, v);
+		return this;
+	}
+
+	@Override
+	public boolean containsValue(V v){
+		if(keys == null) return false;
+		for(int i = 0; i < keys.length; i++){
+			if(keys[i] != null && keys[i].get() != null && Objects.equals(values[i], v)) return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean remove(K k){
+		expungeStaleEntries();
+		int i = indexOf(k);
+		if(i < 0) return false;
+		removeAt(i, null);
+		shrinkIfSparse();
+		return true;
+	}
+
+	@Override
+	public Dictionary<K, V> clear(){
+		if(keys != null && isAutoShrink() && keys.length > initialCapacity){
+			keys = null;
+			values = null;
+		}else if(keys != null){
+			Arrays.fill(keys, null);
+			Arrays.fill(values, null);
+		}
+		// References of the dropped keys may still be enqueued, they are simply not found anymore
+		while(queue.poll() != null);
+		size = 0;
+		return this;
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return size() == 0;
+	}
+
+	/**
+	 Returns the number of key-value pairs in the dictionary, after evicting collected keys.
+	 Keys collected but not yet enqueued by the garbage collector are still counted.
+
+	 @return the number of key-value pairs in this dictionary
+	 */
+	@Override
+	public int size(){
+		expungeStaleEntries();
+		return size;
+	}
+
+	@Override
+	public int capacity(){
+		return keys == null ? initialCapacity : keys.length;
+	}
+
+	/**
+	 A tracked snapshot would hold every key strongly and stop them from being collected,
+	 so {@link #snapshot()} always copies the live pairs instead.
+
+	 @throws UnsupportedOperationException when enabling tracking
+	 */
+	@Override
+	public Dictionary<K, V> trackSnapshots(boolean enabled){
+		if(enabled) throw new UnsupportedOperationException("WeakDictionary.trackSnapshots(boolean enabled) -> snapshots are copied on demand");
+		return this;
+	}
+
+	/**
+	 A weak dictionary keeps its own slot table, which is not instrumented.
+
+	 @throws UnsupportedOperationException when enabling recording
+	 */
+	@Override
+	public Dictionary<K, V> recordMetrics(boolean enabled){
+		if(enabled) throw new UnsupportedOperationException("WeakDictionary.recordMetrics(boolean enabled) -> metrics are not available");
+		return this;
+	}
+
+	/**
+	 Returns only the size and capacity, with every counter and table measure zero, since its slot table is not instrumented.
+	 */
+	@Override
+	public Metrics metrics(){
+		return Metrics.unmeasured(size(), capacity());
+	}
+
+	/**
+	 A weak dictionary rehashes its own slot table in one step when it grows, so this does nothing.
+	 */
+	@Override
+	public Dictionary<K, V> incrementalResize(boolean enabled){
+		return this;
+	}
+
+	@Override
+	public boolean isIncrementalResize(){
+		return false;
+	}
+
+	/**
+	 Keys are hashed by identity, which players cannot steer, so this does nothing.
+	 */
+	@Override
+	public Dictionary<K, V> floodProtection(boolean enabled){
+		return this;
+	}
+
+	@Override
+	public boolean isFloodProtected(){
+		return false;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Dictionary<K, V> forEach(BiConsumer<? super K, ? super V> action){
+		WeakKey<K>[] ks = keys;
+		if(ks == null) return this;
+		Object[] vs = values;
+		for(int i = 0; i < ks.length; i++){
+			if(ks[i] == null) continue;
+			K key = ks[i].get();
+			if(key != null) action.accept(key, (V) vs[i]);
+		}
+		return this;
+	}
+
+	/**
+	 Returns a spliterator over the entries whose keys are still reachable, copied in batches from
+	 {@link #cursor()}. The copies hold their keys strongly until they are dropped.
+	 */
+	@Override
+	public Spliterator<Map.Entry<K, V>> spliterator(){
+		return cursorSpliterator(0);
+	}
+
+	@Override
+	public Cursor<K, V> cursor(){
+		return new WeakCursor();
+	}
+
+	@Override
+	public Dictionary<K, V> trimToSize(){
+		expungeStaleEntries();
+		if(keys == null) return this;
+		if(size == 0){
+			keys = null;
+			values = null;
+			return this;
+		}
+		int capacity = tableSizeFor((int) Math.min(MAXIMUM_CAPACITY, (long) (size / loadFactor()) + 2));
+		if(capacity < keys.length) resize(capacity);
+		return this;
+	}
+
+	/**
+	 Estimates the bytes held by the slot arrays and the weak references, excluding keys and values.
+	 */
+	@Override
+	public long estimatedRetainedBytes(){
+		if(keys == null) return OBJECT_HEADER_BYTES + 64;
+		return OBJECT_HEADER_BYTES + 64 + 2 * referenceArrayBytes(keys.length) + (long) size * WEAK_KEY_BYTES;
+	}
+
+	/**
+	 Evicts every entry whose key has been garbage collected and enqueued since the last call.
+
+	 @return the number of entries evicted by this call
+	 */
+	@SuppressWarnings("unchecked")
+	public int expungeStaleEntries(){
+		int evicted = 0;
+		Reference<? extends K> reference;
+		while((reference = queue.poll()) != null){
+			int i = slotOf((WeakKey<?>) reference);
+			if(i >= 0){
+				V value = (V) values[i];
+				removeAt(i, null);
+				evicted++;
+				if(evictionListener != null) evictionListener.evicted(((WeakKey<?>) reference).hash, value);
+			}
+		}
+		evictions += evicted;
+		return evicted;
+	}
+
+	/**
+	 Returns how many entries have been evicted because their key was garbage collected.
+
+	 @return the total number of evictions
+	 */
+	public long evictions(){
+		return evictions;
+	}
+
+	// Package-private hooks for BiDictionary
+
+	void onEviction(EvictionListener<? super V> listener){
+		this.evictionListener = listener;
+	}
+
+	// Removes the entries of a hash whose key has been cleared, without waiting for the queue to hand them over.
+	// Every weak reference to a key is cleared at once, so another dictionary's eviction of a key means it is cleared here too
+	void removeCleared(int hash){
+		WeakKey<K>[] ks = keys;
+		if(ks == null) return;
+		int m = mask;
+		int i = hash & m;
+		WeakKey<K> current;
+		while((current = ks[i]) != null){
+			if(current.hash == hash && current.get() == null){
+				// The shift may have moved another entry of the run into this slot, so it is looked at again
+				removeAt(i, null);
+				evictions++;
+				continue;
+			}
+			i = (i + 1) & m;
+		}
+	}
+
+	// Private helper methods
+
+	private static int hash(Object k){
+		return spread(System.identityHashCode(k));
+	}
+
+	private int indexOf(Object k){
+		if(k == null || keys == null) return -1;
+		int h = hash(k);
+		WeakKey<K>[] ks = keys;
+		int m = mask;
+		int i = h & m;
+		WeakKey<K> current;
+		while((current = ks[i]) != null){
+			if(current.hash == h && current.get() == k) return i;
+			i = (i + 1) & m;
+		}
+		return -1;
+	}
+
+	// Finds a cleared reference by identity, its referent is gone
+	private int slotOf(WeakKey<?> reference){
+		WeakKey<K>[] ks = keys;
+		if(ks == null) return -1;
+		int m = mask;
+		int i = reference.hash & m;
+		WeakKey<K> current;
+		while((current = ks[i]) != null){
+			if(current == reference) return i;
+			i = (i + 1) & m;
+		}
+		return -1;
+	}
+
+	/**
+	 Empties a slot and shifts the following entries of its probe run back, keeping a walking
+	 cursor consistent the same way {@link Dictionary} does.
+
+	 @param i      the slot to empty
+	 @param cursor the cursor walking the table, or {@code null}
+	 */
+	private void removeAt(int i, WeakCursor cursor){
+		WeakKey<K>[] ks = keys;
+		Object[] vs = values;
+		int m = mask;
+		int p = i;
+		int j = i;
+		while(true){
+			j = (j + 1) & m;
+			WeakKey<K> current = ks[j];
+			if(current == null) break;
+			int home = current.hash & m;
+			if(((j - home) & m) >= ((j - i) & m)){
+				if(cursor != null){
+					if(i == p && j > p) cursor.index--;
+					else if(i > p && j < p) cursor.skip(current);
+				}
+				ks[i] = current;
+				vs[i] = vs[j];
+				i = j;
+			}
+		}
+		ks[i] = null;
+		vs[i] = null;
+		size--;
+	}
+
+	private void shrinkIfSparse(){
+		if(!isAutoShrink() || keys == null) return;
+		int length = keys.length;
+		if(length <= initialCapacity || size > length / 8) return;
+		int capacity = Math.max(initialCapacity, tableSizeFor(size << 2));
+		if(capacity < length) resize(capacity);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void allocate(int capacity){
+		keys = (WeakKey<K>[]) new WeakKey<?>[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		threshold = Math.min(capacity - 2, (int) (capacity * loadFactor()));
+	}
+
+	private void resize(int capacity){
+		if(keys.length == MAXIMUM_CAPACITY && capacity >= MAXIMUM_CAPACITY){
+			if(size >= MAXIMUM_CAPACITY - 2) throw new IllegalStateException("WeakDictionary capacity exceeded");
+			return;
+		}
+		WeakKey<K>[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(capacity);
+		WeakKey<K>[] ks = keys;
+		int m = mask;
+		for(int j = 0; j < oldKeys.length; j++){
+			WeakKey<K> key = oldKeys[j];
+			if(key == null) continue;
+			int i = key.hash & m;
+			while(ks[i] != null){
+				i = (i + 1) & m;
+			}
+			ks[i] = key;
+			values[i] = oldValues[j];
+		}
+	}
+
+	/**
+	 * Receives the identity hash and the value of an entry evicted because its key was collected.
+	 */
+	@FunctionalInterface
+	interface EvictionListener<V> {
+		void evicted(int hash, V value);
+	}
+
+	private static final class WeakKey<K> extends WeakReference<K> {
+		private final int hash;
+
+		private WeakKey(K referent, int hash, ReferenceQueue<? super K> queue){
+			super(referent, queue);
+			this.hash = hash;
+		}
+	}
+
+	/**
+	 * Walks the slot table, holding the current key strongly so it cannot be collected mid-step.
+	 */
+	private final class WeakCursor implements Cursor<K, V> {
+		private int index = -1;
+		private K key;
+		// Already visited entries that a removal shifted ahead of the cursor
+		private List<WeakKey<K>> skipped;
+
+		@Override
+		public boolean advance(){
+			key = null;
+			WeakKey<K>[] ks = keys;
+			if(ks == null) return false;
+			while(++index < ks.length){
+				WeakKey<K> reference = ks[index];
+				if(reference == null || (skipped != null && skipped.remove(reference))) continue;
+				key = reference.get();
+				if(key != null) return true;
+			}
+			return false;
+		}
+
+		@Override
+		public @NotNull K key(){
+			if(key == null) throw new NoSuchElementException();
+			return key;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V value(){
+			key();
+			return (V) values[index];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V setValue(V v){
+			key();
+			V previous = (V) values[index];
+			values[index] = v;
+			return previous;
+		}
+
+		@Override
+		public void remove(){
+			key();
+			key = null;
+			removeAt(index, this);
+		}
+
+		private void skip(WeakKey<K> reference){
+			if(skipped == null) skipped = new ArrayList<>(2);
+			skipped.add(reference);
+		}
+	}
+}
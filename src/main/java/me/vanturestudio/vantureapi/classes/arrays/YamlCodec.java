@@ -0,0 +1,261 @@
+package me.vanturestudio.vantureapi.classes.arrays;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The {@link ConfigurationSerializable} formats of {@link Dictionary} and {@link Enumerator}.
+ * <p>
+ * By default a collection is written as native YAML lists, which keep numbers, booleans,
+ * strings and nested serializables typed and need no parsing when loaded:
+ * <ul>
+ *     <li>{@link Dictionary}: {@code keys: [...]} and {@code values: [...]}, in matching order.</li>
+ *     <li>{@link Enumerator}: {@code values: [...]}, plus {@code tags: [[...], ...]} when any element is tagged.</li>
+ * </ul>
+ * Collections switched to binary serialization are instead written as {@code size} and a base64
+ * {@code blob} of a gzipped {@link BukkitObjectOutputStream}, which loads large collections quickly
+ * but is not human-editable.
+ * <p>
+ * YAML has no notion of {@link UUID}s, enums or characters, so those are written as strings.
+ * Loading with a key or value class converts them, and widens or narrows numbers, back to that class.
+ */
+final class YamlCodec {
+
+	private YamlCodec(){
+	}
+
+	static @NotNull Map<String, Object> serialize(@NotNull Dictionary<?, ?> dictionary, boolean binary){
+		Map<String, Object> serialized = new LinkedHashMap<>();
+		if(binary){
+			serialized.put("size", dictionary.size());
+			serialized.put("blob", writeBlob(dictionary));
+			return serialized;
+		}
+		List<Object> keys = new ArrayList<>(dictionary.size());
+		List<Object> values = new ArrayList<>(dictionary.size());
+		dictionary.forEach((k, v) -> {
+			keys.add(toYaml(k));
+			values.add(toYaml(v));
+		});
+		serialized.put("keys", keys);
+		serialized.put("values", values);
+		return serialized;
+	}
+
+	static <K, V, D extends Dictionary<K, V>> @NotNull D deserializeDictionary(@NotNull Map<String, Object> map, @Nullable Class<K> keyType, @Nullable Class<V> valueType, @NotNull IntFunction<D> constructor){
+		if(map.get("blob") instanceof String blob){
+			D dictionary = constructor.apply(sizeHint(map));
+			readBlob(blob, (k, v) -> dictionary.put(fromYaml(k, keyType), fromYaml(v, valueType)));
+			return dictionary;
+		}
+		if(map.get("json") instanceof String json){
+			return deserializeLegacy(json, keyType, valueType, constructor);
+		}
+		List<?> keys = list(map.get("keys"));
+		List<?> values = list(map.get("values"));
+		if(keys.size() != values.size()) throw new IllegalArgumentException("Dictionary.deserialize(Map<String, Object> map) -> 'keys' and 'values' differ in length");
+		D dictionary = constructor.apply(keys.size());
+		for(int i = 0; i < keys.size(); i++){
+			dictionary.put(fromYaml(keys.get(i), keyType), fromYaml(values.get(i), valueType));
+		}
+		return dictionary;
+	}
+
+	static @NotNull Map<String, Object> serialize(@NotNull Enumerator<?> enumerator, boolean binary){
+		Map<String, Object> serialized = new LinkedHashMap<>();
+		List<? extends Enumerator.Element<?>> elements = enumerator.getElements();
+		if(binary){
+			serialized.put("size", elements.size());
+			serialized.put("blob", writeBlob(elements));
+			return serialized;
+		}
+		List<Object> values = new ArrayList<>(elements.size());
+		List<List<String>> tags = new ArrayList<>(elements.size());
+		boolean tagged = false;
+		for(Enumerator.Element<?> element: elements){
+			values.add(toYaml(element.getValue()));
+			tags.add(new ArrayList<>(element.getTags()));
+			tagged |= !element.getTags().isEmpty();
+		}
+		serialized.put("values", values);
+		if(tagged) serialized.put("tags", tags);
+		return serialized;
+	}
+
+	static <T> @NotNull Enumerator<T> deserializeEnumerator(@NotNull Map<String, Object> map, @Nullable Class<T> type){
+		List<T> values = new ArrayList<>(sizeHint(map));
+		List<Collection<String>> tags = new ArrayList<>(sizeHint(map));
+		if(map.get("blob") instanceof String blob){
+			readBlob(blob, (value, elementTags) -> {
+				values.add(fromYaml(value, type));
+				tags.add(strings(elementTags));
+			});
+		}else if(map.containsKey("values")){
+			for(Object value: list(map.get("values"))) values.add(fromYaml(value, type));
+			for(Object elementTags: list(map.get("tags"))) tags.add(strings(elementTags));
+		}else{
+			// Flat keys written before the native format: elements0value, elements0tags, ...
+			for(int i = 0; map.containsKey("elements" + i + "value"); i++){
+				values.add(fromYaml(map.get("elements" + i + "value"), type));
+				tags.add(strings(map.get("elements" + i + "tags")));
+			}
+		}
+		Enumerator<T> enumerator = new Enumerator<T>().addAll(values);
+		List<Enumerator.Element<T>> elements = enumerator.getElements();
+		for(int i = 0; i < Math.min(tags.size(), elements.size()); i++){
+			elements.get(i).getTags().addAll(tags.get(i));
+		}
+		return enumerator;
+	}
+
+	/**
+	 * Reads whichever format a section holds into a map for {@link #deserializeEnumerator(Map, Class)},
+	 * including the nested {@code <key>.value} and {@code <key>.tags} sections of older configs.
+	 */
+	static @NotNull Map<String, Object> values(@NotNull ConfigurationSection section){
+		if(section.contains("values") || section.contains("blob")) return section.getValues(false);
+		Map<String, Object> map = new LinkedHashMap<>();
+		int i = 0;
+		for(String key: section.getKeys(false)){
+			ConfigurationSection elementSection = section.getConfigurationSection(key);
+			if(elementSection == null) continue;
+			map.put("elements" + i + "value", elementSection.getString("value"));
+			map.put("elements" + i++ + "tags", elementSection.getStringList("tags"));
+		}
+		return map;
+	}
+
+	// Private helper methods
+
+	// The hand-built "json" string written before the native format
+	private static <K, V, D extends Dictionary<K, V>> D deserializeLegacy(String json, Class<K> keyType, Class<V> valueType, IntFunction<D> constructor){
+		// Remove the curly braces and split by comma
+		String[] entries = json.substring(1, json.length() - 1).split(", ");
+		D dictionary = constructor.apply(entries.length);
+		for(String entry: entries){
+			String[] keyValue = entry.split(":( )?");
+			if(keyValue.length == 2){
+				String key = keyValue[0].replace("\"", "");
+				String value = keyValue[1].replace("\"", "");
+				dictionary.put(fromYaml(key, keyType), fromYaml(value, valueType));
+			}
+		}
+		return dictionary;
+	}
+
+	private static Object toYaml(Object value){
+		if(value instanceof UUID || value instanceof Character) return value.toString();
+		if(value instanceof Enum<?> constant) return constant.name();
+		return value;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static <T> T fromYaml(Object value, Class<T> type){
+		if(value == null || type == null || type.isInstance(value)) return (T) value;
+		if(value instanceof Number number){
+			if(type == Integer.class) return (T) Integer.valueOf(number.intValue());
+			if(type == Long.class) return (T) Long.valueOf(number.longValue());
+			if(type == Double.class) return (T) Double.valueOf(number.doubleValue());
+			if(type == Float.class) return (T) Float.valueOf(number.floatValue());
+			if(type == Short.class) return (T) Short.valueOf(number.shortValue());
+			if(type == Byte.class) return (T) Byte.valueOf(number.byteValue());
+		}
+		if(type == String.class) return (T) value.toString();
+		if(value instanceof String string){
+			if(type == Integer.class) return (T) Integer.valueOf(string.trim());
+			if(type == Long.class) return (T) Long.valueOf(string.trim());
+			if(type == Double.class) return (T) Double.valueOf(string.trim());
+			if(type == Boolean.class) return (T) Boolean.valueOf(string.trim());
+			if(type == UUID.class) return (T) UUID.fromString(string);
+			if(type.isEnum()) return (T) Enum.valueOf((Class<? extends Enum>) type, string);
+			if(type == Character.class && string.length() == 1) return (T) Character.valueOf(string.charAt(0));
+		}
+		throw new IllegalArgumentException("Cannot read " + value.getClass().getSimpleName() + " '" + value + "' as " + type.getSimpleName());
+	}
+
+	private static List<?> list(Object value){
+		return value instanceof List<?> list ? list : List.of();
+	}
+
+	private static Collection<String> strings(Object value){
+		if(value instanceof Object[] array) value = Arrays.asList(array);
+		if(!(value instanceof Collection<?> collection)) return List.of();
+		List<String> strings = new ArrayList<>(collection.size());
+		for(Object o: collection) strings.add(String.valueOf(o));
+		return strings;
+	}
+
+	private static int sizeHint(Map<String, Object> map){
+		return map.get("size") instanceof Number size ? Math.max(0, size.intValue()) : 0;
+	}
+
+	private static String writeBlob(Dictionary<?, ?> dictionary){
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(BukkitObjectOutputStream out = new BukkitObjectOutputStream(new BufferedOutputStream(new GZIPOutputStream(bytes)))){
+			Dictionary.Cursor<?, ?> cursor = dictionary.cursor();
+			while(cursor.advance()){
+				// Each pair is prefixed with a marker, so a concurrent dictionary may change size meanwhile
+				out.writeBoolean(true);
+				out.writeObject(cursor.key());
+				out.writeObject(cursor.value());
+			}
+			out.writeBoolean(false);
+		}catch(IOException e){
+			throw new IllegalStateException("Dictionary.serialize() -> keys and values must be serializable", e);
+		}
+		return Base64.getEncoder().encodeToString(bytes.toByteArray());
+	}
+
+	private static String writeBlob(List<? extends Enumerator.Element<?>> elements){
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(BukkitObjectOutputStream out = new BukkitObjectOutputStream(new BufferedOutputStream(new GZIPOutputStream(bytes)))){
+			for(Enumerator.Element<?> element: elements){
+				out.writeBoolean(true);
+				out.writeObject(element.getValue());
+				out.writeObject(element.getTags().toArray(new String[0]));
+			}
+			out.writeBoolean(false);
+		}catch(IOException e){
+			throw new IllegalStateException("Enumerator.serialize() -> values must be serializable", e);
+		}
+		return Base64.getEncoder().encodeToString(bytes.toByteArray());
+	}
+
+	private static void readBlob(String blob, BlobConsumer consumer){
+		try(BukkitObjectInputStream in = new BukkitObjectInputStream(new BufferedInputStream(new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(blob)))))){
+			while(in.readBoolean()){
+				Object first = in.readObject();
+				Object second = in.readObject();
+				consumer.accept(first, second);
+			}
+		}catch(IOException | ClassNotFoundException e){
+			throw new IllegalArgumentException("Corrupt or incompatible serialized blob", e);
+		}
+	}
+
+	@FunctionalInterface
+	private interface BlobConsumer {
+		void accept(Object first, Object second);
+	}
+}
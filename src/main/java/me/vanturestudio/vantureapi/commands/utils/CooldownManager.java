@@ -1,41 +1,66 @@
 package me.vanturestudio.vantureapi.commands.utils;
 
+import me.vanturestudio.vantureapi.classes.arrays.Dictionary;
+import me.vanturestudio.vantureapi.classes.arrays.IntUuidLongDictionary;
 import org.bukkit.command.Command;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 public class CooldownManager {
 	private static final CooldownManager manager = new CooldownManager();
 
-	private final Map<Command, Map<Player, Long>> cooldowns = new HashMap<>();
-	private final Map<Command, Long> durations = new HashMap<>();
+	// Expired cooldowns are pruned once the table reaches this many entries, and again at twice what survived
+	private static final int PRUNE_MINIMUM = 256;
+	private static final long NONE = Long.MIN_VALUE;
+
+	// A small id per registered command, indexing durations
+	private final Dictionary<Command, Integer> ids = new Dictionary<>();
+	private long[] durations = new long[8];
+	// Time of the last use, by command id and player UUID
+	private final IntUuidLongDictionary lastUses = new IntUuidLongDictionary();
+	private int pruneAt = PRUNE_MINIMUM;
 
 	public static CooldownManager getCooldownManager() {
 		return manager;
 	}
 
 	public void registerCooldown(Command command, int seconds) {
-		durations.put(command, seconds * 1000L);
+		Integer id = ids.get(command);
+		if (id == null) {
+			id = ids.size();
+			ids.put(command, id);
+			if (id == durations.length) durations = Arrays.copyOf(durations, id << 1);
+		}
+		durations[id] = seconds * 1000L;
 	}
 
 	public boolean isOnCooldown(Player player, Command command) {
-		if (!cooldowns.containsKey(command)) return false;
-		Long last = cooldowns.get(command).get(player);
-		if (last == null) return false;
+		Integer id = ids.get(command);
+		if (id == null) return false;
+		long last = lastUses.getOrDefault(id, player.getUniqueId(), NONE);
+		if (last == NONE) return false;
 		long elapsed = System.currentTimeMillis() - last;
-		return elapsed < durations.getOrDefault(command, 0L);
+		return elapsed < durations[id];
 	}
 
 	public double getRemaining(Player player, Command command) {
-		if (!cooldowns.containsKey(command)) return 0;
-		Long last = cooldowns.get(command).get(player);
-		long duration = durations.getOrDefault(command, 0L);
-		return Math.max(0, (duration - (System.currentTimeMillis() - last)));
+		Integer id = ids.get(command);
+		if (id == null) return 0;
+		long last = lastUses.getOrDefault(id, player.getUniqueId(), NONE);
+		if (last == NONE) return 0;
+		return Math.max(0, (durations[id] - (System.currentTimeMillis() - last)));
 	}
 
 	public void applyCooldown(Player player, Command command) {
-		cooldowns.computeIfAbsent(command, k -> new HashMap<>()).put(player, System.currentTimeMillis());
+		// A command without a registered cooldown is never on cooldown, so there is nothing to remember
+		Integer id = ids.get(command);
+		if (id == null) return;
+		long now = System.currentTimeMillis();
+		lastUses.put(id, player.getUniqueId(), now);
+		if (lastUses.size() >= pruneAt) {
+			lastUses.removeIf((commandId, most, least, last) -> now - last >= durations[commandId]);
+			pruneAt = Math.max(PRUNE_MINIMUM, lastUses.size() << 1);
+		}
 	}
-}
\ No newline at end of file
+}
@@ -1,21 +1,37 @@
 package me.vanturestudio.vantureapi.commands.utils;
 
+import me.vanturestudio.vantureapi.classes.arrays.Dictionary;
+import me.vanturestudio.vantureapi.classes.arrays.IntUuidLongDictionary;
 import org.bukkit.command.Command;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.*;
-
+/**
+ * Limits each player to {@code maxExecutions} runs of a command per time frame.
+ * <p>
+ * Instead of a log of execution times, every (command, player) pair keeps a single
+ * "theoretical arrival time" (the generic cell rate algorithm): each execution pushes it
+ * {@code timeFrame / maxExecutions} further into the future, and a player is limited while it
+ * lies more than {@code timeFrame} minus one interval ahead. A player may use the whole allowance
+ * at once, after which it comes back one execution per interval.
+ */
 public class RateLimiter {
 
 	public static RateLimiter rateLimiter;
 
+	// Idle pairs are pruned once the table reaches this many entries, and again at twice what survived
+	private static final int PRUNE_MINIMUM = 256;
+
 	private final JavaPlugin PLUGIN;
 
-	private final Map<Command, Map<UUID, Deque<Long>>> commandExecutions = new HashMap<>();
+	// A small id per command seen so far
+	private final Dictionary<Command, Integer> ids = new Dictionary<>();
+	// Theoretical arrival time by command id and player UUID, in milliseconds times maxExecutions
+	private final IntUuidLongDictionary arrivals = new IntUuidLongDictionary();
 	private final int maxExecutions;
 	private final long timeFrameMillis;
+	private int pruneAt = PRUNE_MINIMUM;
 
 	public RateLimiter(JavaPlugin plugin, int maxExecutions, long timeFrameSeconds) {
 		this.PLUGIN = plugin;
@@ -29,33 +45,29 @@ public class RateLimiter {
 	}
 
 	public boolean isRateLimited(@NotNull Player player, Command command) {
-		long now = System.currentTimeMillis();
-		UUID uuid = player.getUniqueId();
-
-		// init maps
-		commandExecutions.putIfAbsent(command, new HashMap<>());
-		Map<UUID, Deque<Long>> playerMap = commandExecutions.get(command);
-		playerMap.putIfAbsent(uuid, new ArrayDeque<>());
-
-		Deque<Long> executions = playerMap.get(uuid);
-
-		// remove expired entries
-		while (!executions.isEmpty() && now - executions.peekFirst() > timeFrameMillis) {
-			executions.pollFirst(); // remove oldest
-		}
-
-		// check limit
-		return executions.size() >= maxExecutions;
+		if (maxExecutions <= 0) return true;
+		Integer id = ids.get(command);
+		if (id == null) return false;
+		// Times are scaled by maxExecutions, so one interval is exactly timeFrameMillis
+		long now = System.currentTimeMillis() * maxExecutions;
+		long arrival = arrivals.getOrDefault(id, player.getUniqueId(), now);
+		return arrival - now > timeFrameMillis * (maxExecutions - 1);
 	}
 
 	public void recordExecution(@NotNull Player player, Command command) {
-		long now = System.currentTimeMillis();
-		UUID uuid = player.getUniqueId();
-
-		commandExecutions.putIfAbsent(command, new HashMap<>());
-		Map<UUID, Deque<Long>> playerMap = commandExecutions.get(command);
-		playerMap.putIfAbsent(uuid, new ArrayDeque<>());
-
-		playerMap.get(uuid).addLast(now);
+		if (maxExecutions <= 0) return;
+		Integer id = ids.get(command);
+		if (id == null) {
+			id = ids.size();
+			ids.put(command, id);
+		}
+		long now = System.currentTimeMillis() * maxExecutions;
+		long arrival = Math.max(now, arrivals.getOrDefault(id, player.getUniqueId(), now));
+		arrivals.put(id, player.getUniqueId(), arrival + timeFrameMillis);
+		if (arrivals.size() >= pruneAt) {
+			// A pair whose arrival time has passed behaves exactly like one never seen
+			arrivals.removeIf((commandId, most, least, time) -> time <= now);
+			pruneAt = Math.max(PRUNE_MINIMUM, arrivals.size() << 1);
+		}
 	}
 }
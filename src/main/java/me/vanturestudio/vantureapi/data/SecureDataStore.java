@@ -2,6 +2,7 @@ package me.vanturestudio.vantureapi.data;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import me.vanturestudio.vantureapi.classes.arrays.JsonCodec;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -19,7 +20,7 @@ import java.util.function.Supplier;
 
 public class SecureDataStore<T extends SecureStorable> {
 
-	private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+	private static final Gson gson = new GsonBuilder().setPrettyPrinting().registerTypeAdapterFactory(JsonCodec.FACTORY).create();
 	private static final String ALGORITHM = "AES";
 
 	private final JavaPlugin plugin;
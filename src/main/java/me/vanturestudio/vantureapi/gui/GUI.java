@@ -1,6 +1,7 @@
 package me.vanturestudio.vantureapi.gui;
 
 import me.vanturestudio.vantureapi.classes.arrays.Dictionary;
+import me.vanturestudio.vantureapi.classes.arrays.IntDictionary;
 import me.vanturestudio.vantureapi.gui.events.EvtGUICacheRegister;
 import me.vanturestudio.vantureapi.gui.events.EvtGUIClick;
 import me.vanturestudio.vantureapi.gui.events.EvtGUIOpen;
@@ -44,15 +45,15 @@ public class GUI implements Listener {
 	int size;
 	InventoryType type;
 	
-	Dictionary<Integer, Item> contents;
-	Dictionary<Integer, GUIClickEvent> clickEvents;
+	IntDictionary<Item> contents;
+	IntDictionary<GUIClickEvent> clickEvents;
 	
 	public GUI() {
 		this.title = "Inventory";
 		this.size = 27;
 		this.type = InventoryType.CHEST;
-		this.contents = new Dictionary<>();
-		this.clickEvents = new Dictionary<>();
+		this.contents = new IntDictionary<>();
+		this.clickEvents = new IntDictionary<>();
 	}
 	
 	public GUI owner(Player owner) {
@@ -132,9 +133,9 @@ public class GUI implements Listener {
 			inventory = Bukkit.createInventory(null, this.size, OutputStream.format(title));
 		else inventory = Bukkit.createInventory(null, this.type, OutputStream.format(title));
 
-		for (int itemSlot: contents.keySet()) {
-			if (contents.get(itemSlot) == null) continue;
-			inventory.setItem(itemSlot, contents.get(itemSlot).create());
+		for (IntDictionary.Cursor<Item> item = contents.cursor(); item.advance(); ) {
+			if (item.value() == null) continue;
+			inventory.setItem(item.key(), item.value().create());
 		}
 
 		new EvtGUICacheRegister(this);
@@ -156,23 +157,21 @@ public class GUI implements Listener {
 
 		if (evtGUIClick.isCancelled()) return;
 		
-		if (gui.contents.get(e.getRawSlot()) != null) {
-			Item clickedItem = gui.contents.get(e.getRawSlot());
+		Item clickedItem = gui.contents.get(e.getRawSlot());
+		if (clickedItem != null) {
 			e.setCancelled(!clickedItem.isStealable());
 			if (clickedItem.getClickEvent() != null) clickedItem.getClickEvent().setEvent(e).setGui(gui).setItem(clickedItem).run();
 		}
-		if(!gui.clickEvents.isEmpty()){
-			for(int slot: gui.clickEvents.keySet()){
-				if (slot == e.getSlot()) {
-					if (contents.get(e.getSlot()) != null) {
-						e.setCancelled(contents.get(e.getSlot()).isStealable());      // Should the user take the item
-						gui.clickEvents.get(slot).setItem(contents.get(e.getSlot())); // Pass the item to the runnable
-					}
-					gui.clickEvents.get(slot).setEvent(e);  // Pass the event to the runnable
-					gui.clickEvents.get(slot).setGUI(this); // Pass the GUI to the runnable
-					gui.clickEvents.get(slot).run();        // Execute the runnable
-				}
+		GUIClickEvent clickEvent = gui.clickEvents.get(e.getSlot());
+		if (clickEvent != null) {
+			Item item = contents.get(e.getSlot());
+			if (item != null) {
+				e.setCancelled(item.isStealable()); // Should the user take the item
+				clickEvent.setItem(item);           // Pass the item to the runnable
 			}
+			clickEvent.setEvent(e);  // Pass the event to the runnable
+			clickEvent.setGUI(this); // Pass the GUI to the runnable
+			clickEvent.run();        // Execute the runnable
 		}
 	}
 	
@@ -188,10 +187,19 @@ public class GUI implements Listener {
 	}
 	
 	public Dictionary<Integer, GUIClickEvent> getClickEvents() {
-		return clickEvents;
+		return clickEvents.asDictionary();
 	}
 	
 	public Dictionary<Integer, Item> getContents() {
+		return contents.asDictionary();
+	}
+	
+	// Same maps as above, without boxing the slots
+	public IntDictionary<GUIClickEvent> getClickEventSlots() {
+		return clickEvents;
+	}
+	
+	public IntDictionary<Item> getContentSlots() {
 		return contents;
 	}
 	
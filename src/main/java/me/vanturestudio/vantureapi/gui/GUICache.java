@@ -1,5 +1,6 @@
 package me.vanturestudio.vantureapi.gui;
 
+import me.vanturestudio.vantureapi.classes.arrays.BiDictionary;
 import me.vanturestudio.vantureapi.classes.arrays.Dictionary;
 import org.bukkit.inventory.Inventory;
 import org.jetbrains.annotations.Contract;
@@ -10,14 +11,15 @@ import java.util.List;
 
 public class GUICache {
 	
-	private static final Dictionary<Inventory, GUI> inventories = new Dictionary<>();
+	// Weak identity keys, so inventories nobody has open anymore are evicted once collected,
+	// indexed by GUI so that the inventories showing one are a single lookup away
+	private static final BiDictionary<Inventory, GUI> inventories = BiDictionary.weakKeys();
 	
 	public static void registerGUI(Inventory inventory, GUI gui) {
 		inventories.put(inventory, gui);
 	}
 	
 	public static void updateGUI(Inventory inventory, GUI gui) {
-		inventories.remove(inventory);
 		inventories.put(inventory, gui);
 	}
 	
@@ -31,11 +33,7 @@ public class GUICache {
 	}
 	
 	public static @NotNull List<Inventory> getInventory(GUI gui) {
-		List<Inventory> invs = new ArrayList<>();
-		for (Inventory inv : inventories.keySet()) {
-			if (inventories.get(inv) == gui) invs.add(inv);
-		}
-		return invs;
+		return new ArrayList<>(inventories.keysOf(gui));
 	}
 	
 	public static void removeInventory(Inventory inventory) {
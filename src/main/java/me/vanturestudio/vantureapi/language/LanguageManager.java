@@ -1,5 +1,7 @@
 package me.vanturestudio.vantureapi.language;
 
+import me.vanturestudio.vantureapi.classes.arrays.Dictionary;
+import me.vanturestudio.vantureapi.classes.arrays.PersistentDictionary;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -8,7 +10,6 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
@@ -17,8 +18,9 @@ public class LanguageManager {
 
 	private final File langFolder;
 	private final FileConfiguration config;
-	private final Map<String, Language> registeredLanguages = new HashMap<>();
-	private final Map<String, FileConfiguration> languageFiles = new HashMap<>();
+	// Written on the main thread, read through snapshots from async chat and scheduler threads
+	private final Dictionary<String, Language> registeredLanguages = new Dictionary<String, Language>().trackSnapshots(true);
+	private final Dictionary<String, FileConfiguration> languageFiles = new Dictionary<String, FileConfiguration>().trackSnapshots(true);
 	private final JavaPlugin plugin;
 	private final String defaultLanguage;
 
@@ -77,14 +79,15 @@ public class LanguageManager {
 
 	public String getMessage(String key, @Nullable String langCode) {
 		if (langCode == null) langCode =  this.getDefaultLanguage();
-		FileConfiguration yml = this.languageFiles.get(langCode);
+		PersistentDictionary<String, FileConfiguration> files = this.languageFiles.snapshot();
+		FileConfiguration yml = files.get(langCode);
 		if (yml != null) {
 			String msg = yml.getString(key);
 			if (msg != null && !msg.isEmpty()) return msg;
 		}
 
 		// Fallback
-		FileConfiguration fallback = this.languageFiles.get(defaultLanguage);
+		FileConfiguration fallback = files.get(defaultLanguage);
 		if (fallback != null) {
 			String msg = fallback.getString(key);
 			if (msg != null && !msg.isEmpty()) return msg;
@@ -94,11 +97,11 @@ public class LanguageManager {
 	}
 
 	public Set<String> getAvailableLanguages() {
-		return registeredLanguages.keySet();
+		return registeredLanguages.snapshot().keys();
 	}
 
 	public Language getLanguage(String key) {
-		return registeredLanguages.get(key);
+		return registeredLanguages.snapshot().get(key);
 	}
 
 	public String getDefaultLanguage() {
@@ -1,6 +1,9 @@
 package me.vanturestudio.vantureapi.utils;
 
+import me.vanturestudio.vantureapi.classes.arrays.EnumDictionary;
+
 import java.util.*;
+import java.util.function.Function;
 
 public class EnumUtils {
 
@@ -61,4 +64,22 @@ public class EnumUtils {
 		}
 		return names;
 	}
+
+	/**
+	 * Creates an empty dictionary keyed by the constants of an enum, backed by an array indexed by ordinal.
+	 */
+	public static <T extends Enum<T>, V> EnumDictionary<T, V> dictionary(Class<T> enumClass) {
+		return new EnumDictionary<>(enumClass);
+	}
+
+	/**
+	 * Creates a dictionary mapping every constant of an enum to the value computed for it.
+	 */
+	public static <T extends Enum<T>, V> EnumDictionary<T, V> dictionary(Class<T> enumClass, Function<? super T, ? extends V> mapper) {
+		EnumDictionary<T, V> dictionary = new EnumDictionary<>(enumClass);
+		for (T constant : enumClass.getEnumConstants()) {
+			dictionary.put(constant, mapper.apply(constant));
+		}
+		return dictionary;
+	}
 }
\ No newline at end of file